@@ -2,8 +2,10 @@ package br.com.partnerpro.product_manager.application.service;
 
 import br.com.partnerpro.product_manager.application.usecase.ProductUseCase;
 import br.com.partnerpro.product_manager.domain.entity.Product;
+import br.com.partnerpro.product_manager.domain.model.CatalogContext;
 import br.com.partnerpro.product_manager.domain.model.ChatSession;
 import br.com.partnerpro.product_manager.domain.repository.ProductRepository;
+import br.com.partnerpro.product_manager.framework.dto.ChatStreamEvent;
 import br.com.partnerpro.product_manager.framework.dto.CreateProductRequest;
 import br.com.partnerpro.product_manager.framework.dto.ProductResponse;
 import br.com.partnerpro.product_manager.framework.dto.UpdateProductRequest;
@@ -14,9 +16,14 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.ai.chat.client.ChatClient;
 import org.springframework.ai.chat.messages.Message;
+import org.springframework.ai.chat.messages.SystemMessage;
 import org.springframework.ai.chat.messages.UserMessage;
 import org.springframework.ai.chat.prompt.Prompt;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
 
 import java.math.BigDecimal;
 import java.util.ArrayList;
@@ -33,6 +40,10 @@ public class AIAssistantService {
     private final ObjectMapper objectMapper;
     private final SessionManager sessionManager;
     private final ChartGeneratorService chartGeneratorService;
+    private final InventoryAggregateService inventoryAggregateService;
+    private final CatalogRetrievalService catalogRetrievalService;
+    private final ChatIntentRouter chatIntentRouter;
+    private final int historyTokenBudget;
     
     public AIAssistantService(
             ChatClient.Builder chatClientBuilder,
@@ -40,7 +51,11 @@ public class AIAssistantService {
             ProductUseCase productUseCase,
             ObjectMapper objectMapper,
             SessionManager sessionManager,
-            ChartGeneratorService chartGeneratorService
+            ChartGeneratorService chartGeneratorService,
+            InventoryAggregateService inventoryAggregateService,
+            CatalogRetrievalService catalogRetrievalService,
+            ChatIntentRouter chatIntentRouter,
+            @Value("${product.ai.chat.memory.token-budget:1000}") int historyTokenBudget
     ) {
         this.chatClient = chatClientBuilder.build();
         this.productRepository = productRepository;
@@ -48,25 +63,62 @@ public class AIAssistantService {
         this.objectMapper = objectMapper;
         this.sessionManager = sessionManager;
         this.chartGeneratorService = chartGeneratorService;
+        this.inventoryAggregateService = inventoryAggregateService;
+        this.catalogRetrievalService = catalogRetrievalService;
+        this.chatIntentRouter = chatIntentRouter;
+        this.historyTokenBudget = historyTokenBudget;
     }
     
     public String chat(String sessionId, String userMessage) {
         ChatSession session = sessionManager.getOrCreateSession(sessionId);
         log.info("[Session: {}] User message: {}", sessionId, userMessage);
         
-        session.addMessage(new UserMessage(userMessage));
+        // Simple commands are answered locally; the router's reply takes the model's place, actions included
+        String aiResponse = chatIntentRouter.route(userMessage)
+                .orElseGet(() -> chatClient.prompt(buildPrompt(session, userMessage)).call().content());
         
-        List<Product> allProducts = productRepository.findAll();
+        return complete(session, userMessage, aiResponse);
+    }
+    
+    // Text is forwarded as it arrives; a reply that opens like a JSON action is held back and only its outcome is sent
+    public Flux<ChatStreamEvent> chatStream(String sessionId, String userMessage) {
+        return Flux.defer(() -> {
+            ChatSession session = sessionManager.getOrCreateSession(sessionId);
+            log.info("[Session: {}] User message (streaming): {}", sessionId, userMessage);
+            
+            // Routing reads the database and a routed action writes it, so both stay off the subscriber's thread
+            return Mono.fromCallable(() -> chatIntentRouter.route(userMessage))
+                    .subscribeOn(Schedulers.boundedElastic())
+                    .flatMapMany(routed -> routed
+                            .map(reply -> Flux.just(ChatStreamEvent.done(session.getSessionId(),
+                                    complete(session, userMessage, reply))))
+                            .orElseGet(() -> streamFromModel(session, userMessage)))
+                    .doOnError(e -> log.error("[Session: {}] Error streaming chat response", session.getSessionId(), e));
+        });
+    }
+    
+    private Flux<ChatStreamEvent> streamFromModel(ChatSession session, String userMessage) {
+        StringBuilder accumulated = new StringBuilder();
+        Flux<ChatStreamEvent> tokens = chatClient.prompt(buildPrompt(session, userMessage)).stream().content()
+                .filter(delta -> {
+                    accumulated.append(delta);
+                    return !mayBeAction(accumulated);
+                })
+                .map(delta -> ChatStreamEvent.token(session.getSessionId(), delta));
+        
+        // Actions write to the database, which must not happen on the HTTP client's event loop
+        Mono<ChatStreamEvent> done = Mono.fromCallable(() -> ChatStreamEvent.done(session.getSessionId(),
+                        complete(session, userMessage, accumulated.toString())))
+                .subscribeOn(Schedulers.boundedElastic());
         
+        return tokens.concatWith(done);
+    }
+    
+    private Prompt buildPrompt(ChatSession session, String userMessage) {
         StringBuilder context = new StringBuilder();
         context.append("Você é um assistente inteligente para gerenciamento de produtos.\n\n");
-        context.append("Produtos disponíveis no sistema:\n");
-        for (Product p : allProducts) {
-            context.append(String.format(
-                "- ID: %s | Nome: %s | Preço: R$ %.2f | Categoria: %s | Estoque: %d\n",
-                p.getId(), p.getName(), p.getPrice(), p.getCategory(), p.getStock()
-            ));
-        }
+        context.append("Produtos disponíveis no sistema (").append(CatalogContext.COLUMNS).append("):\n");
+        context.append(catalogRetrievalService.select(userMessage).text()).append('\n');
         
         context.append("\n\n🎯 CAPACIDADES DO SISTEMA:\n");
         context.append("1. ADICIONAR produto: Quando o usuário pedir para adicionar/criar/inserir um produto\n");
@@ -94,26 +146,35 @@ public class AIAssistantService {
         context.append("  * Se o usuário só mencionar um campo (ex: estoque), mantenha os outros campos do produto atual\n");
         context.append("- Quando for DELETAR um produto, responda no formato JSON:\n");
         context.append("  {\"action\": \"DELETE\", \"id\": \"uuid\"}\n");
-        context.append("- Para outras ações, responda normalmente em português de forma amigável.\n\n");
-        
-        context.append("Mensagem do usuário: ").append(userMessage);
+        context.append("- Para outras ações, responda normalmente em português de forma amigável.\n");
         
         List<Message> messages = new ArrayList<>();
-        messages.add(new UserMessage(context.toString()));
-        
-        Prompt prompt = new Prompt(messages);
+        messages.add(new SystemMessage(context.toString()));
+        messages.addAll(session.getMemory().toMessages(historyTokenBudget));
+        messages.add(new UserMessage(userMessage));
         
-        String aiResponse = chatClient.prompt(prompt).call().content();
-        
-        log.info("[Session: {}] AI Response: {}", sessionId, aiResponse);
+        return new Prompt(messages);
+    }
+    
+    private String complete(ChatSession session, String userMessage, String aiResponse) {
+        log.info("[Session: {}] AI Response: {}", session.getSessionId(), aiResponse);
         
         String finalResponse = processAIResponse(session, aiResponse);
         
-        session.addMessage(new UserMessage("Assistant: " + finalResponse));
+        session.addTurn(userMessage, finalResponse);
         
         return finalResponse;
     }
     
+    private static boolean mayBeAction(CharSequence response) {
+        for (int i = 0; i < response.length(); i++) {
+            if (!Character.isWhitespace(response.charAt(i))) {
+                return response.charAt(i) == '{';
+            }
+        }
+        return true;
+    }
+    
     private String processAIResponse(ChatSession session, String aiResponse) {
         try {
             if (aiResponse.trim().startsWith("{") && aiResponse.contains("\"action\"")) {
@@ -243,10 +304,7 @@ public class AIAssistantService {
     }
     
     public br.com.partnerpro.product_manager.framework.dto.AIResponse chatWithCharts(String sessionId, String userMessage) {
-        List<Product> allProducts = productRepository.findAll();
-        
-        br.com.partnerpro.product_manager.framework.dto.ChartData chartData = 
-                chartGeneratorService.detectAndGenerateChart(userMessage, allProducts);
+        br.com.partnerpro.product_manager.framework.dto.ChartData chartData = detectChart(userMessage);
         
         String textResponse = chat(sessionId, userMessage);
         
@@ -256,4 +314,9 @@ public class AIAssistantService {
         
         return new br.com.partnerpro.product_manager.framework.dto.AIResponse(textResponse);
     }
+    
+    public br.com.partnerpro.product_manager.framework.dto.ChartData detectChart(String userMessage) {
+        return chartGeneratorService.detectAndGenerateChart(userMessage,
+                inventoryAggregateService.summary(), inventoryAggregateService.categoryStats());
+    }
 }
@@ -1,47 +1,129 @@
 package br.com.partnerpro.product_manager.application.service;
 
-import br.com.partnerpro.product_manager.domain.entity.Product;
-import br.com.partnerpro.product_manager.domain.repository.ProductRepository;
+import br.com.partnerpro.product_manager.application.usecase.ProductUseCase;
+import br.com.partnerpro.product_manager.domain.model.CachedReport;
+import br.com.partnerpro.product_manager.domain.model.CatalogContext;
+import br.com.partnerpro.product_manager.domain.model.ProductQuery;
+import br.com.partnerpro.product_manager.framework.cache.CacheNames;
+import br.com.partnerpro.product_manager.framework.dto.CategoryStats;
+import br.com.partnerpro.product_manager.framework.dto.ProductFilterRequest;
 import br.com.partnerpro.product_manager.framework.dto.ProductResponse;
+import br.com.partnerpro.product_manager.framework.text.PromptText;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.ai.chat.client.ChatClient;
 import org.springframework.ai.chat.prompt.Prompt;
 import org.springframework.ai.chat.prompt.PromptTemplate;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.cache.support.NoOpCache;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Instant;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.stream.Collectors;
 
 @Service
 @Slf4j
 public class AIReportService {
     
     private final ChatClient chatClient;
-    private final ProductRepository productRepository;
+    private final ProductUseCase productUseCase;
+    private final CatalogRetrievalService catalogRetrievalService;
+    private final CatalogContextService catalogContextService;
+    private final InventoryAggregateService inventoryAggregateService;
+    private final ObjectMapper objectMapper;
+    private final Cache reports;
+    private final Cache queries;
+    private final String persistPath;
+    private final int defaultQueryLimit;
+    private final int maxQueryLimit;
+    private final ConcurrentMap<String, CompletableFuture<CachedReport>> inFlight = new ConcurrentHashMap<>();
     
-    public AIReportService(ChatClient.Builder chatClientBuilder, ProductRepository productRepository) {
+    public AIReportService(ChatClient.Builder chatClientBuilder, ProductUseCase productUseCase,
+                           CatalogRetrievalService catalogRetrievalService,
+                           CatalogContextService catalogContextService,
+                           InventoryAggregateService inventoryAggregateService,
+                           CacheManager cacheManager,
+                           ObjectMapper objectMapper,
+                           @Value("${product.ai.report-cache.path:}") String persistPath,
+                           @Value("${product.ai.smart-query.default-limit:20}") int defaultQueryLimit,
+                           @Value("${product.ai.smart-query.max-limit:100}") int maxQueryLimit) {
         this.chatClient = chatClientBuilder.build();
-        this.productRepository = productRepository;
+        this.productUseCase = productUseCase;
+        this.catalogRetrievalService = catalogRetrievalService;
+        this.catalogContextService = catalogContextService;
+        this.inventoryAggregateService = inventoryAggregateService;
+        this.objectMapper = objectMapper;
+        this.reports = Objects.requireNonNullElseGet(cacheManager.getCache(CacheNames.AI_REPORTS),
+                () -> new NoOpCache(CacheNames.AI_REPORTS));
+        this.queries = Objects.requireNonNullElseGet(cacheManager.getCache(CacheNames.AI_QUERIES),
+                () -> new NoOpCache(CacheNames.AI_QUERIES));
+        this.persistPath = persistPath;
+        this.defaultQueryLimit = defaultQueryLimit;
+        this.maxQueryLimit = maxQueryLimit;
     }
     
+    // Same request against the same catalog content gives the same report; hits and misses show up as
+    // cache.gets{cache=aiReports}. Concurrent identical requests share one call, made outside the cache's own
+    // compute so a model call of several seconds never holds up lookups of other keys.
     public String generateNaturalLanguageReport(String userRequest) {
         log.info("Generating report for request: {}", userRequest);
         
-        List<Product> allProducts = productRepository.findAll();
+        String key = PromptText.fold(userRequest) + "@" + catalogContextService.current().fingerprint();
+        CachedReport cached = reports.get(key, CachedReport.class);
+        if (cached != null) {
+            return cached.report();
+        }
         
-        StringBuilder productsContext = new StringBuilder();
-        productsContext.append("Available products in database:\n");
-        for (Product product : allProducts) {
-            productsContext.append(String.format(
-                "- ID: %s, Name: %s, Price: %.2f, Category: %s, Stock: %d, Description: %s\n",
-                product.getId(),
-                product.getName(),
-                product.getPrice(),
-                product.getCategory(),
-                product.getStock(),
-                product.getDescription()
-            ));
+        CompletableFuture<CachedReport> call = new CompletableFuture<>();
+        CompletableFuture<CachedReport> running = inFlight.putIfAbsent(key, call);
+        if (running != null) {
+            try {
+                return running.join().report();
+            } catch (CompletionException e) {
+                throw e.getCause() instanceof RuntimeException cause ? cause : e;
+            }
+        }
+        try {
+            // A call that finished between the lookup above and claiming the key has already filled the cache
+            cached = reports.get(key, CachedReport.class);
+            if (cached == null) {
+                cached = new CachedReport(callModel(userRequest), Instant.now());
+                reports.put(key, cached);
+            }
+            call.complete(cached);
+            return cached.report();
+        } catch (RuntimeException e) {
+            call.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, call);
         }
+    }
+    
+    private String callModel(String userRequest) {
+        String productsContext = "Available products in database (" + CatalogContext.COLUMNS + "):\n"
+                + catalogRetrievalService.select(userRequest).text();
         
         String promptText = """
                 You are a data analyst assistant for a product management system.
@@ -67,7 +149,7 @@ public class AIReportService {
         PromptTemplate promptTemplate = new PromptTemplate(promptText);
         Prompt prompt = promptTemplate.create(Map.of(
             "userRequest", userRequest,
-            "productsContext", productsContext.toString()
+            "productsContext", productsContext
         ));
         
         String response = chatClient.prompt(prompt)
@@ -78,46 +160,55 @@ public class AIReportService {
         return response;
     }
     
+    // The model only translates the request into filters; matching, sorting and paging run in the database
     public List<ProductResponse> executeSmartQuery(String naturalLanguageQuery) {
         log.info("Executing smart query: {}", naturalLanguageQuery);
         
-        List<Product> allProducts = productRepository.findAll();
-        
-        StringBuilder productsContext = new StringBuilder();
-        productsContext.append("Database schema:\n");
-        productsContext.append("Table: products\n");
-        productsContext.append("Columns: id (UUID), name (String), description (String), price (Decimal), category (String), stock (Integer), created_at (DateTime)\n\n");
-        productsContext.append("Sample data:\n");
-        
-        for (int i = 0; i < Math.min(5, allProducts.size()); i++) {
-            Product p = allProducts.get(i);
-            productsContext.append(String.format(
-                "- %s | %.2f | %s | Stock: %d\n",
-                p.getName(), p.getPrice(), p.getCategory(), p.getStock()
-            ));
+        ProductQuery query = translate(naturalLanguageQuery);
+        log.debug("Smart query translated to {}", query);
+        return productUseCase.findProducts(query.filters(), query.sort(), 0, query.limit());
+    }
+    
+    // Translations depend only on the wording (and the category names listed in the prompt), so they are
+    // cached per folded query in aiQueries; failed translations are not cached
+    ProductQuery translate(String naturalLanguageQuery) {
+        String key = PromptText.fold(naturalLanguageQuery);
+        try {
+            return queries.get(key, () -> callTranslation(naturalLanguageQuery));
+        } catch (Cache.ValueRetrievalException e) {
+            throw e.getCause() instanceof RuntimeException cause ? cause : e;
         }
+    }
+    
+    private ProductQuery callTranslation(String naturalLanguageQuery) {
+        String categories = inventoryAggregateService.categoryStats().stream()
+                .map(CategoryStats::category)
+                .collect(Collectors.joining(", "));
         
         String promptText = """
-                You are a SQL query generator for a product management system.
+                You translate product search requests into a JSON filter for a product management system.
                 
                 User Query: {query}
                 
-                {context}
-                
-                Based on the user's natural language query, determine which products match the criteria.
-                
-                Respond ONLY with a JSON array of product IDs that match the criteria.
-                Format: ["id1", "id2", "id3"]
+                Known categories: {categories}
                 
-                If no products match, return an empty array: []
+                Respond ONLY with a single JSON object using these optional fields:
+                - "name": text the product name must contain
+                - "category": one of the known categories, exactly as written above
+                - "minPrice", "maxPrice": prices in BRL, as numbers
+                - "minStock", "maxStock": stock quantities, as integers
+                - "startDate", "endDate": creation date bounds in ISO-8601, like 2024-01-31T00:00:00
+                - "sortBy": one of name, price, stock, category, createdAt
+                - "sortDirection": asc or desc
+                - "limit": how many products the query asks for, only if it says
                 
-                Do not include any explanation, just the JSON array.
+                Omit every field the query does not mention. Do not include any explanation, just the JSON object.
                 """;
         
         PromptTemplate promptTemplate = new PromptTemplate(promptText);
         Prompt prompt = promptTemplate.create(Map.of(
             "query", naturalLanguageQuery,
-            "context", productsContext.toString()
+            "categories", categories.isEmpty() ? "(none)" : categories
         ));
         
         String aiResponse = chatClient.prompt(prompt)
@@ -125,9 +216,74 @@ public class AIReportService {
                 .content();
         
         log.info("AI Response: {}", aiResponse);
-        
-        return allProducts.stream()
-                .map(ProductResponse::fromEntity)
-                .toList();
+        return parseTranslation(naturalLanguageQuery, aiResponse);
+    }
+    
+    private ProductQuery parseTranslation(String naturalLanguageQuery, String aiResponse) {
+        // Models like to wrap JSON in prose or code fences
+        int start = aiResponse == null ? -1 : aiResponse.indexOf('{');
+        int end = aiResponse == null ? -1 : aiResponse.lastIndexOf('}');
+        if (start < 0 || end < start) {
+            throw new IllegalArgumentException("Could not translate query: " + naturalLanguageQuery);
+        }
+        try {
+            JsonNode node = objectMapper.readTree(aiResponse.substring(start, end + 1));
+            ProductFilterRequest filters = objectMapper.readerFor(ProductFilterRequest.class)
+                    .without(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+                    .readValue(node);
+            JsonNode limit = node.path("limit");
+            return ProductQuery.validated(filters, limit.isNumber() ? limit.intValue() : null,
+                    defaultQueryLimit, maxQueryLimit);
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Could not translate query: " + naturalLanguageQuery, e);
+        }
+    }
+    
+    @EventListener(ApplicationReadyEvent.class)
+    public void restore() {
+        Path file = persistFile();
+        if (file == null || !Files.exists(file)) {
+            return;
+        }
+        try {
+            List<PersistedReport> persisted = objectMapper.readValue(file.toFile(), new TypeReference<>() {});
+            // Expired entries are dropped by the cache's own expiry, which counts from createdAt
+            persisted.forEach(entry -> reports.put(entry.key(), entry.value()));
+            log.info("Restored {} cached reports from {}", persisted.size(), file);
+        } catch (IOException e) {
+            log.warn("Could not restore cached reports from {}", file, e);
+        }
+    }
+    
+    @PreDestroy
+    public void persist() {
+        Path file = persistFile();
+        if (file == null || !(reports instanceof CaffeineCache caffeineCache)) {
+            return;
+        }
+        List<PersistedReport> snapshot = new ArrayList<>();
+        caffeineCache.getNativeCache().asMap().forEach((key, value) -> {
+            if (value instanceof CachedReport report) {
+                snapshot.add(new PersistedReport(key.toString(), report));
+            }
+        });
+        try {
+            Path parent = file.toAbsolutePath().getParent();
+            Files.createDirectories(parent);
+            // Written aside and moved into place, so a crash mid-write leaves the previous file intact
+            Path temp = Files.createTempFile(parent, file.getFileName().toString(), ".tmp");
+            objectMapper.writeValue(temp.toFile(), snapshot);
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            log.info("Persisted {} cached reports to {}", snapshot.size(), file);
+        } catch (IOException e) {
+            log.warn("Could not persist cached reports to {}", file, e);
+        }
+    }
+    
+    private Path persistFile() {
+        return persistPath == null || persistPath.isBlank() ? null : Path.of(persistPath);
+    }
+    
+    record PersistedReport(String key, CachedReport value) {
     }
 }
@@ -0,0 +1,190 @@
+package br.com.partnerpro.product_manager.application.service;
+
+import br.com.partnerpro.product_manager.domain.event.ProductEvent;
+import br.com.partnerpro.product_manager.domain.model.CatalogContext;
+import br.com.partnerpro.product_manager.domain.model.CatalogEntry;
+import br.com.partnerpro.product_manager.domain.model.ProductCursor;
+import br.com.partnerpro.product_manager.domain.repository.ProductRepository;
+import br.com.partnerpro.product_manager.domain.specification.ProductSpecification;
+import br.com.partnerpro.product_manager.framework.dto.ProductResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Collectors;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class CatalogContextService {
+    
+    private static final int LOAD_BATCH_SIZE = 1000;
+    private static final int MAX_DESCRIPTION_LENGTH = 80;
+    private static final int FINGERPRINT_BYTES = 16;
+    
+    private final ProductRepository productRepository;
+    
+    // Oldest first and updated in place, so a change rewrites one line and new products only append to the prompt
+    private final Map<UUID, CatalogEntry> entries = new LinkedHashMap<>();
+    private final Lock loadLock = new ReentrantLock();
+    private boolean loaded;
+    private long version;
+    private long invalidations;
+    // Changes arriving while the catalog is read, replayed over it in arrival order; null when no read is running
+    private Map<UUID, ProductResponse> racing;
+    private CatalogContext rendered;
+    
+    @EventListener
+    public void onProductEvent(ProductEvent event) {
+        apply(event.productId(), event.after());
+    }
+    
+    public synchronized void apply(UUID id, ProductResponse after) {
+        version++;
+        if (racing != null) {
+            racing.remove(id);
+            racing.put(id, after);
+        }
+        if (!loaded) {
+            return;
+        }
+        put(id, after);
+    }
+    
+    private void put(UUID id, ProductResponse after) {
+        if (after != null) {
+            entries.put(id, new CatalogEntry(after, render(after)));
+        } else {
+            entries.remove(id);
+        }
+    }
+    
+    public synchronized void invalidate() {
+        version++;
+        invalidations++;
+        loaded = false;
+        entries.clear();
+    }
+    
+    // The text is rebuilt only when the version moved since the last call, never per request
+    public CatalogContext current() {
+        ensureLoaded();
+        synchronized (this) {
+            if (rendered == null || rendered.version() != version) {
+                List<CatalogEntry> snapshot = List.copyOf(entries.values());
+                String text = snapshot.stream().map(CatalogEntry::line).collect(Collectors.joining("\n"));
+                rendered = new CatalogContext(version, snapshot, text, fingerprint(text));
+            }
+            return rendered;
+        }
+    }
+    
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        CatalogContext context = current();
+        log.info("AI catalog context ready with {} products", context.productCount());
+    }
+    
+    // One read per load: a change during the read may be missing from it, so the changes seen meanwhile go on top
+    private void ensureLoaded() {
+        if (isLoaded()) {
+            return;
+        }
+        loadLock.lock();
+        try {
+            long startInvalidations;
+            synchronized (this) {
+                if (loaded) {
+                    return;
+                }
+                racing = new LinkedHashMap<>();
+                startInvalidations = invalidations;
+            }
+            
+            List<ProductResponse> products;
+            try {
+                products = loadAll();
+            } catch (RuntimeException e) {
+                synchronized (this) {
+                    racing = null;
+                }
+                throw e;
+            }
+            
+            synchronized (this) {
+                version++;
+                entries.clear();
+                for (int i = products.size() - 1; i >= 0; i--) {
+                    ProductResponse product = products.get(i);
+                    entries.put(product.id(), new CatalogEntry(product, render(product)));
+                }
+                racing.forEach(this::put);
+                racing = null;
+                // The next call reads again; this one still serves what it read
+                loaded = invalidations == startInvalidations;
+            }
+        } finally {
+            loadLock.unlock();
+        }
+    }
+    
+    private synchronized boolean isLoaded() {
+        return loaded;
+    }
+    
+    private List<ProductResponse> loadAll() {
+        List<ProductResponse> products = new ArrayList<>();
+        ProductCursor cursor = null;
+        List<ProductResponse> batch;
+        do {
+            batch = productRepository.findResponses(
+                    ProductSpecification.after(cursor), ProductSpecification.KEYSET_SORT, LOAD_BATCH_SIZE);
+            products.addAll(batch);
+            if (!batch.isEmpty()) {
+                cursor = ProductCursor.of(batch.get(batch.size() - 1));
+            }
+        } while (batch.size() == LOAD_BATCH_SIZE);
+        return products;
+    }
+    
+    private static String fingerprint(String text) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(text.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest, 0, FINGERPRINT_BYTES);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+    
+    // One line per product in CatalogContext.COLUMNS order, without the padding and labels the old per-request format had
+    static String render(ProductResponse product) {
+        StringBuilder line = new StringBuilder(128)
+                .append(product.id()).append(" | ")
+                .append(product.name()).append(" | ")
+                .append(product.price().setScale(2, RoundingMode.HALF_UP).toPlainString()).append(" | ")
+                .append(product.category()).append(" | ")
+                .append(product.stock());
+        String description = product.description();
+        if (description != null && !description.isBlank()) {
+            String compact = description.strip().replaceAll("\\s+", " ");
+            line.append(" | ").append(compact.length() > MAX_DESCRIPTION_LENGTH
+                    ? compact.substring(0, MAX_DESCRIPTION_LENGTH - 1) + "…"
+                    : compact);
+        }
+        return line.toString();
+    }
+}
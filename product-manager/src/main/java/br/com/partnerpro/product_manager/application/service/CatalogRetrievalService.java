@@ -0,0 +1,161 @@
+package br.com.partnerpro.product_manager.application.service;
+
+import br.com.partnerpro.product_manager.application.usecase.DashboardUseCase;
+import br.com.partnerpro.product_manager.domain.model.CatalogContext;
+import br.com.partnerpro.product_manager.domain.model.CatalogEntry;
+import br.com.partnerpro.product_manager.domain.model.CatalogQuery;
+import br.com.partnerpro.product_manager.domain.model.CatalogSelection;
+import br.com.partnerpro.product_manager.framework.dto.ProductResponse;
+import br.com.partnerpro.product_manager.framework.text.PromptText;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+@Service
+@Slf4j
+public class CatalogRetrievalService {
+    
+    private static final int MAX_LEXICAL_CANDIDATES = 500;
+    private static final int MAX_SUMMARY_CATEGORIES = 10;
+    // Room kept for the summary of the products left out, which is bounded by MAX_SUMMARY_CATEGORIES
+    private static final int SUMMARY_RESERVE_TOKENS = 150;
+    
+    private final CatalogContextService catalogContextService;
+    private final ProductSearchService productSearchService;
+    private final int tokenBudget;
+    
+    public CatalogRetrievalService(CatalogContextService catalogContextService,
+                                   ProductSearchService productSearchService,
+                                   @Value("${product.ai.catalog.token-budget:2000}") int tokenBudget) {
+        this.catalogContextService = catalogContextService;
+        this.productSearchService = productSearchService;
+        this.tokenBudget = tokenBudget;
+    }
+    
+    public CatalogSelection select(String message) {
+        return select(message, tokenBudget);
+    }
+    
+    // The most relevant products verbatim up to the budget, and summary statistics for the rest
+    public CatalogSelection select(String message, int budget) {
+        CatalogContext context = catalogContextService.current();
+        if (PromptText.estimateTokens(context.text()) <= budget) {
+            return new CatalogSelection(context.version(), context.productCount(), 0, context.text());
+        }
+        
+        List<CatalogEntry> ranked = rank(message, context.entries());
+        int available = Math.max(0, budget - SUMMARY_RESERVE_TOKENS);
+        StringBuilder text = new StringBuilder();
+        int used = 0;
+        int included = 0;
+        for (CatalogEntry entry : ranked) {
+            int cost = PromptText.estimateTokens(entry.line()) + 1;
+            if (used + cost > available) {
+                break;
+            }
+            text.append(entry.line()).append('\n');
+            used += cost;
+            included++;
+        }
+        
+        List<CatalogEntry> omitted = ranked.subList(included, ranked.size());
+        text.append(summarize(omitted));
+        log.debug("Selected {} of {} products for the prompt (~{} tokens)", included, ranked.size(), used);
+        return new CatalogSelection(context.version(), included, omitted.size(), text.toString());
+    }
+    
+    // Hint matches outweigh lexical relevance, which is normalized to 0..1; ties go to the hinted order, then newest first
+    private List<CatalogEntry> rank(String message, List<CatalogEntry> entries) {
+        Set<String> categories = entries.stream()
+                .map(entry -> entry.product().category())
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+        CatalogQuery query = CatalogQuery.parse(message, categories, DashboardUseCase.LOW_STOCK_THRESHOLD);
+        Map<UUID, Float> lexical = lexicalScores(message);
+        float best = lexical.values().stream().max(Float::compare).orElse(1f);
+        
+        List<Scored> scored = new ArrayList<>(entries.size());
+        for (int position = 0; position < entries.size(); position++) {
+            CatalogEntry entry = entries.get(position);
+            double score = lexical.getOrDefault(entry.product().id(), 0f) / best + query.score(entry.product());
+            scored.add(new Scored(entry, score, position));
+        }
+        
+        Comparator<ProductResponse> tieBreaker = query.tieBreaker();
+        scored.sort(Comparator.comparingDouble(Scored::score).reversed()
+                .thenComparing((a, b) -> tieBreaker.compare(a.entry().product(), b.entry().product()))
+                .thenComparing(Comparator.comparingInt(Scored::position).reversed()));
+        return scored.stream().map(Scored::entry).toList();
+    }
+    
+    private Map<UUID, Float> lexicalScores(String message) {
+        try {
+            return productSearchService.rank(message, MAX_LEXICAL_CANDIDATES);
+        } catch (UncheckedIOException e) {
+            log.error("Error ranking products for the prompt, falling back to hints only", e);
+            return Map.of();
+        }
+    }
+    
+    private static String summarize(List<CatalogEntry> omitted) {
+        if (omitted.isEmpty()) {
+            return "";
+        }
+        
+        Map<String, Long> byCategory = new TreeMap<>();
+        BigDecimal minPrice = null;
+        BigDecimal maxPrice = null;
+        BigDecimal totalPrice = BigDecimal.ZERO;
+        long totalStock = 0;
+        long outOfStock = 0;
+        long lowStock = 0;
+        for (CatalogEntry entry : omitted) {
+            ProductResponse product = entry.product();
+            byCategory.merge(product.category(), 1L, Long::sum);
+            minPrice = minPrice == null ? product.price() : minPrice.min(product.price());
+            maxPrice = maxPrice == null ? product.price() : maxPrice.max(product.price());
+            totalPrice = totalPrice.add(product.price());
+            totalStock += product.stock();
+            if (product.stock() == 0) {
+                outOfStock++;
+            } else if (product.stock() < DashboardUseCase.LOW_STOCK_THRESHOLD) {
+                lowStock++;
+            }
+        }
+        
+        String categories = byCategory.entrySet().stream()
+                .sorted(Map.Entry.<String, Long>comparingByValue().reversed())
+                .limit(MAX_SUMMARY_CATEGORIES)
+                .map(category -> category.getKey() + " (" + category.getValue() + ")")
+                .collect(Collectors.joining(", "));
+        if (byCategory.size() > MAX_SUMMARY_CATEGORIES) {
+            categories += " e mais " + (byCategory.size() - MAX_SUMMARY_CATEGORIES) + " categorias";
+        }
+        BigDecimal averagePrice = totalPrice.divide(BigDecimal.valueOf(omitted.size()), 2, RoundingMode.HALF_UP);
+        
+        return "Outros " + omitted.size() + " produtos não listados (resumo calculado pelo sistema): "
+                + "categorias " + categories + "; "
+                + "preço de R$ " + money(minPrice) + " a R$ " + money(maxPrice) + ", média R$ " + money(averagePrice) + "; "
+                + "estoque total " + totalStock + " unidades, " + outOfStock + " sem estoque e "
+                + lowStock + " com estoque baixo (abaixo de " + DashboardUseCase.LOW_STOCK_THRESHOLD + ").";
+    }
+    
+    private static String money(BigDecimal value) {
+        return value.setScale(2, RoundingMode.HALF_UP).toPlainString();
+    }
+    
+    private record Scored(CatalogEntry entry, double score, int position) {
+    }
+}
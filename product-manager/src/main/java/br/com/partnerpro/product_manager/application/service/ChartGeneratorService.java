@@ -1,7 +1,10 @@
 package br.com.partnerpro.product_manager.application.service;
 
 import br.com.partnerpro.product_manager.domain.entity.Product;
+import br.com.partnerpro.product_manager.framework.dto.CategoryStats;
+import br.com.partnerpro.product_manager.framework.dto.ChartBucket;
 import br.com.partnerpro.product_manager.framework.dto.ChartData;
+import br.com.partnerpro.product_manager.framework.dto.InventorySummary;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
@@ -125,36 +128,134 @@ public class ChartGeneratorService {
         );
     }
     
+    public ChartData productsByCategoryChart(List<CategoryStats> categories) {
+        return new ChartData(
+                "pie",
+                "Produtos por Categoria",
+                categories.stream().map(CategoryStats::category).collect(Collectors.toList()),
+                categories.stream().map(c -> c.productCount().doubleValue()).collect(Collectors.toList()),
+                Map.of("colors", Arrays.asList("#008FFB", "#00E396", "#FEB019", "#FF4560", "#775DD0"))
+        );
+    }
+    
+    public ChartData priceDistributionChart(InventorySummary summary) {
+        List<ChartBucket> buckets = summary.priceDistribution();
+        return new ChartData(
+                "column",
+                "Distribuição de Preços",
+                buckets.stream().map(ChartBucket::label).collect(Collectors.toList()),
+                buckets.stream().map(b -> b.count().doubleValue()).collect(Collectors.toList()),
+                Map.of("color", "#00E396")
+        );
+    }
+    
+    public ChartData stockLevelsChart(InventorySummary summary) {
+        List<ChartBucket> buckets = summary.stockLevels();
+        return new ChartData(
+                "bar",
+                "Níveis de Estoque",
+                buckets.stream().map(ChartBucket::label).collect(Collectors.toList()),
+                buckets.stream().map(b -> b.count().doubleValue()).collect(Collectors.toList()),
+                Map.of("colors", Arrays.asList("#FF4560", "#FEB019", "#00E396", "#008FFB"))
+        );
+    }
+    
+    public ChartData valueByCategoryChart(List<CategoryStats> categories) {
+        List<CategoryStats> sortedCategories = categories.stream()
+                .sorted(Comparator.comparing(CategoryStats::totalValue).reversed())
+                .collect(Collectors.toList());
+        
+        return new ChartData(
+                "bar",
+                "Valor Total por Categoria (R$)",
+                sortedCategories.stream().map(CategoryStats::category).collect(Collectors.toList()),
+                sortedCategories.stream().map(c -> c.totalValue().doubleValue()).collect(Collectors.toList()),
+                Map.of("colors", Arrays.asList("#00E396", "#008FFB", "#FEB019", "#FF4560", "#775DD0"))
+        );
+    }
+    
+    public ChartData averagePriceByCategoryChart(List<CategoryStats> categories) {
+        List<CategoryStats> sortedCategories = categories.stream()
+                .sorted(Comparator.comparing(CategoryStats::averagePrice).reversed())
+                .collect(Collectors.toList());
+        
+        return new ChartData(
+                "column",
+                "Preço Médio por Categoria (R$)",
+                sortedCategories.stream().map(CategoryStats::category).collect(Collectors.toList()),
+                sortedCategories.stream().map(CategoryStats::averagePrice).collect(Collectors.toList()),
+                Map.of("colors", Arrays.asList("#775DD0", "#00E396", "#FEB019", "#FF4560", "#008FFB"))
+        );
+    }
+    
     public ChartData detectAndGenerateChart(String userMessage, List<Product> products) {
+        ChartKind kind = detectChartKind(userMessage);
+        if (kind == null) {
+            return null;
+        }
+        
+        return switch (kind) {
+            case PRODUCTS_BY_CATEGORY -> generateProductsByCategoryChart(products);
+            case PRICE_DISTRIBUTION -> generatePriceDistributionChart(products);
+            case AVERAGE_PRICE_BY_CATEGORY -> generateAveragePriceByCategoryChart(products);
+            case VALUE_BY_CATEGORY -> generateValueByCategoryChart(products);
+            case STOCK_LEVELS -> generateStockLevelsChart(products);
+        };
+    }
+    
+    public ChartData detectAndGenerateChart(String userMessage, InventorySummary summary, List<CategoryStats> categories) {
+        ChartKind kind = detectChartKind(userMessage);
+        if (kind == null) {
+            return null;
+        }
+        
+        return switch (kind) {
+            case PRODUCTS_BY_CATEGORY -> productsByCategoryChart(categories);
+            case PRICE_DISTRIBUTION -> priceDistributionChart(summary);
+            case AVERAGE_PRICE_BY_CATEGORY -> averagePriceByCategoryChart(categories);
+            case VALUE_BY_CATEGORY -> valueByCategoryChart(categories);
+            case STOCK_LEVELS -> stockLevelsChart(summary);
+        };
+    }
+    
+    private ChartKind detectChartKind(String userMessage) {
         String lowerMessage = userMessage.toLowerCase();
         
         if (lowerMessage.contains("gráfico") || lowerMessage.contains("grafico") || 
             lowerMessage.contains("visualiz") || lowerMessage.contains("chart")) {
             
             if (lowerMessage.contains("categoria") && (lowerMessage.contains("produto") || lowerMessage.contains("quantidade"))) {
-                return generateProductsByCategoryChart(products);
+                return ChartKind.PRODUCTS_BY_CATEGORY;
             }
             
             if (lowerMessage.contains("preço") || lowerMessage.contains("preco") || lowerMessage.contains("valor")) {
                 if (lowerMessage.contains("distribuição") || lowerMessage.contains("distribuicao") || lowerMessage.contains("faixa")) {
-                    return generatePriceDistributionChart(products);
+                    return ChartKind.PRICE_DISTRIBUTION;
                 }
                 if (lowerMessage.contains("médio") || lowerMessage.contains("medio") || lowerMessage.contains("média")) {
-                    return generateAveragePriceByCategoryChart(products);
+                    return ChartKind.AVERAGE_PRICE_BY_CATEGORY;
                 }
                 if (lowerMessage.contains("categoria") || lowerMessage.contains("total")) {
-                    return generateValueByCategoryChart(products);
+                    return ChartKind.VALUE_BY_CATEGORY;
                 }
             }
             
             if (lowerMessage.contains("estoque") || lowerMessage.contains("stock")) {
-                return generateStockLevelsChart(products);
+                return ChartKind.STOCK_LEVELS;
             }
             
             // Default: produtos por categoria
-            return generateProductsByCategoryChart(products);
+            return ChartKind.PRODUCTS_BY_CATEGORY;
         }
         
         return null;
     }
+    
+    private enum ChartKind {
+        PRODUCTS_BY_CATEGORY,
+        PRICE_DISTRIBUTION,
+        AVERAGE_PRICE_BY_CATEGORY,
+        VALUE_BY_CATEGORY,
+        STOCK_LEVELS
+    }
 }
@@ -0,0 +1,352 @@
+package br.com.partnerpro.product_manager.application.service;
+
+import br.com.partnerpro.product_manager.application.usecase.DashboardUseCase;
+import br.com.partnerpro.product_manager.application.usecase.ProductUseCase;
+import br.com.partnerpro.product_manager.domain.model.CatalogQuery;
+import br.com.partnerpro.product_manager.framework.dto.CategoryStats;
+import br.com.partnerpro.product_manager.framework.dto.ChartData;
+import br.com.partnerpro.product_manager.framework.dto.ProductFilterRequest;
+import br.com.partnerpro.product_manager.framework.dto.ProductResponse;
+import br.com.partnerpro.product_manager.framework.text.KeywordAutomaton;
+import br.com.partnerpro.product_manager.framework.text.PromptText;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+// Answers the chat commands that need no language model: listing, counting, charts and single-product writes.
+// Anything it is not sure about returns empty and goes to the model, so a miss costs one lookup, never a wrong answer.
+@Service
+@Slf4j
+public class ChatIntentRouter {
+    
+    private static final int MAX_ROUTED_LENGTH = 200;
+    private static final int LIST_LIMIT = 20;
+    private static final int NAME_CANDIDATES = 10;
+    
+    private enum Keyword { LIST, COUNT, CHART, CREATE, UPDATE, DELETE, PRODUCT, OPEN, HEDGE }
+    
+    private static final Map<String, Keyword> PHRASES = phrases();
+    private static final KeywordAutomaton<Keyword> KEYWORDS = KeywordAutomaton.of(PHRASES);
+    // Words an unfiltered "list/count the products" may contain; anything else might be a filter we cannot read
+    private static final Set<String> FILLER = Set.of("o", "os", "a", "as", "um", "uma", "todos", "todas", "meus",
+            "minhas", "nossos", "nossas", "de", "do", "da", "dos", "das", "no", "na", "nos", "nas", "em", "e", "que",
+            "temos", "tem", "tenho", "ha", "existem", "existe", "cadastrados", "cadastradas", "sistema", "catalogo",
+            "loja", "total", "ao", "me", "pra", "para", "mim", "por", "favor", "agora", "atuais", "disponiveis", "ja",
+            "hoje", "voce", "pode", "poderia", "quero", "gostaria", "sao");
+    private static final Set<String> KEYWORD_WORDS = PHRASES.entrySet().stream()
+            .filter(phrase -> phrase.getValue() != Keyword.HEDGE)
+            .map(Map.Entry::getKey)
+            .flatMap(phrase -> KeywordAutomaton.words(phrase).stream())
+            .collect(Collectors.toUnmodifiableSet());
+    
+    // Matched against PromptText.foldInPlace, so group offsets also cut the original spelling out of the message
+    private static final String NAME = "(\"[^\"]+\"|.+?)";
+    private static final String NUMBER = "(?:r\\$\\s*)?(\\d[\\d.,]*)\\s*(mil|k)?";
+    private static final Pattern CREATE = Pattern.compile(
+            "\\b(?:adicion|cri|cadastr|insir|inser|inclu)\\w*\\s+(?:(?:um|uma|o|a)\\s+)?(?:nov[oa]\\s+)?produto\\s+"
+                    + "(?:chamado\\s+|com nome\\s+|de nome\\s+)?" + NAME
+                    + "(?=\\s*(?:,|\\.|\\bpor\\b|\\bpreco\\b|\\bvalor\\b|\\bcusta|r\\$|\\bcategoria\\b|\\bestoque\\b"
+                    + "|\\bcom\\b|\\bna\\b|\\bno\\b|$))");
+    private static final Pattern PRICE = Pattern.compile(
+            "(?:r\\$|\\bpor\\b|\\bpreco\\b(?:\\s+de)?|\\bvalor\\b(?:\\s+de)?|\\bcusta(?:ndo)?)\\s*" + NUMBER);
+    private static final Pattern CATEGORY = Pattern.compile(
+            "\\bcategoria\\s+(?:de\\s+)?(\"[^\"]+\"|[^,.\\s]+(?:\\s+[^,.\\s]+)*?)"
+                    + "(?=\\s*(?:,|\\.|\\be\\b|\\bcom\\b|\\bestoque\\b|\\bpor\\b|\\bpreco\\b|\\bvalor\\b|r\\$|$))");
+    private static final Pattern STOCK = Pattern.compile(
+            "\\bestoque\\s+(?:inicial\\s+)?(?:de\\s+)?(\\d+)|(\\d+)\\s+unidades?");
+    private static final Pattern UPDATE = Pattern.compile(
+            "\\b(?:alter|atualiz|mud|modifi|edit|troc|ajust)\\w*\\s+(?:o\\s+|a\\s+)?(preco|valor|estoque|quantidade)\\s+"
+                    + "(?:d[oa]\\s+)?(?:produto\\s+)?" + NAME + "\\s+(?:para|pra)\\s+" + NUMBER
+                    + "\\s*(?:unidades?|reais)?\\s*[.!]?\\s*$");
+    private static final Pattern DELETE = Pattern.compile(
+            "\\b(?:remov|delet|exclu|apag)\\w*\\s+(?:o\\s+|a\\s+)?(?:produto\\s+)?" + NAME + "\\s*[.!]?\\s*$");
+    
+    private final ProductUseCase productUseCase;
+    private final InventoryAggregateService inventoryAggregateService;
+    private final ChartGeneratorService chartGeneratorService;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+    
+    public ChatIntentRouter(ProductUseCase productUseCase,
+                            InventoryAggregateService inventoryAggregateService,
+                            ChartGeneratorService chartGeneratorService,
+                            ObjectMapper objectMapper,
+                            MeterRegistry meterRegistry) {
+        this.productUseCase = productUseCase;
+        this.inventoryAggregateService = inventoryAggregateService;
+        this.chartGeneratorService = chartGeneratorService;
+        this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
+    }
+    
+    // A reply in the model's place: text, or a JSON action that AIAssistantService executes like the model's own
+    public Optional<String> route(String message) {
+        if (message == null || message.isBlank() || message.length() > MAX_ROUTED_LENGTH) {
+            return record("fallback", Optional.empty());
+        }
+        
+        Set<Keyword> found = EnumSet.noneOf(Keyword.class);
+        found.addAll(KEYWORDS.match(message));
+        Set<Keyword> writes = EnumSet.of(Keyword.CREATE, Keyword.UPDATE, Keyword.DELETE);
+        writes.retainAll(found);
+        
+        if (found.contains(Keyword.OPEN) || writes.size() > 1) {
+            return record("fallback", Optional.empty());
+        }
+        // "não remova", "se ... altere" or a question is not an order: a write routed from it could not be undone
+        if (!writes.isEmpty() && (found.contains(Keyword.HEDGE) || message.indexOf('?') >= 0)) {
+            return record("fallback", Optional.empty());
+        }
+        if (writes.contains(Keyword.CREATE)) {
+            return record("create", create(message));
+        }
+        if (writes.contains(Keyword.UPDATE)) {
+            return record("update", update(message));
+        }
+        if (writes.contains(Keyword.DELETE)) {
+            return record("delete", delete(message));
+        }
+        if (found.contains(Keyword.CHART)) {
+            return record("chart", chart(message));
+        }
+        if (found.contains(Keyword.COUNT)) {
+            return record("count", query(message, found, true));
+        }
+        if (found.contains(Keyword.LIST)) {
+            return record("list", query(message, found, false));
+        }
+        return record("fallback", Optional.empty());
+    }
+    
+    private Optional<String> record(String intent, Optional<String> reply) {
+        Counter.builder("ai.chat.intents")
+                .tag("intent", reply.isPresent() ? intent : "fallback")
+                .description("Chat messages by how they were answered; fallback went to the language model")
+                .register(meterRegistry)
+                .increment();
+        return reply;
+    }
+    
+    private Optional<String> chart(String message) {
+        ChartData chart = chartGeneratorService.detectAndGenerateChart(message,
+                inventoryAggregateService.summary(), inventoryAggregateService.categoryStats());
+        if (chart == null) {
+            return Optional.empty();
+        }
+        // The chart itself is attached by the callers through AIAssistantService.detectChart
+        return Optional.of("📊 Claro! Aqui está o gráfico: **" + chart.title() + "**");
+    }
+    
+    private Optional<String> query(String message, Set<Keyword> found, boolean count) {
+        List<String> categories = knownCategories();
+        CatalogQuery hints = CatalogQuery.parse(message, categories, DashboardUseCase.LOW_STOCK_THRESHOLD);
+        if (hints.categories().size() > 1) {
+            return Optional.empty();
+        }
+        if (!found.contains(Keyword.PRODUCT) && hints.categories().isEmpty()) {
+            return Optional.empty();
+        }
+        if (!hints.hasHints() && hints.ordering() == CatalogQuery.Ordering.RELEVANCE && !onlyFiller(message, categories)) {
+            return Optional.empty();
+        }
+        
+        ProductFilterRequest filters = ProductFilterRequest.builder()
+                .category(hints.categories().stream().findFirst().orElse(null))
+                .minPrice(hints.minPrice())
+                .maxPrice(hints.maxPrice())
+                .minStock(hints.minStock())
+                .maxStock(hints.maxStock())
+                .build();
+        
+        if (count) {
+            long total = productUseCase.countProducts(filters);
+            return Optional.of(filters.hasFilters()
+                    ? String.format("📊 Encontrei %d %s com esses critérios.", total, products(total))
+                    : String.format("📊 Você tem %d %s cadastrados.", total, products(total)));
+        }
+        
+        List<ProductResponse> page = productUseCase.findProducts(filters, sort(hints.ordering()), 0, LIST_LIMIT);
+        if (page.isEmpty()) {
+            return Optional.of("🔍 Não encontrei produtos com esses critérios.");
+        }
+        long total = page.size() < LIST_LIMIT ? page.size() : productUseCase.countProducts(filters);
+        
+        StringBuilder reply = new StringBuilder(String.format("📦 Encontrei %d %s:\n", total, products(total)));
+        for (ProductResponse product : page) {
+            reply.append(String.format("\n• **%s** — R$ %.2f | %s | %d un.",
+                    product.name(), product.price(), product.category(), product.stock()));
+        }
+        if (total > page.size()) {
+            reply.append(String.format("\n\n… e mais %d. Refine a busca por categoria, preço ou estoque para ver outros.",
+                    total - page.size()));
+        }
+        return Optional.of(reply.toString());
+    }
+    
+    private Optional<String> create(String message) {
+        String folded = PromptText.foldInPlace(message);
+        Matcher create = CREATE.matcher(folded);
+        Matcher price = PRICE.matcher(folded);
+        Matcher category = CATEGORY.matcher(folded);
+        if (!create.find() || !price.find(create.end()) || !category.find(create.end())) {
+            return Optional.empty();
+        }
+        BigDecimal value = CatalogQuery.number(price.group(1), price.group(2));
+        if (value == null) {
+            return Optional.empty();
+        }
+        
+        ObjectNode action = objectMapper.createObjectNode()
+                .put("action", "CREATE")
+                .put("name", slot(message, create, 1))
+                .put("description", "")
+                .put("price", value)
+                .put("category", canonicalCategory(slot(message, category, 1)));
+        Matcher stock = STOCK.matcher(folded);
+        if (stock.find(create.end())) {
+            action.put("stock", Integer.parseInt(stock.group(1) != null ? stock.group(1) : stock.group(2)));
+        }
+        return json(action);
+    }
+    
+    private Optional<String> update(String message) {
+        String folded = PromptText.foldInPlace(message);
+        Matcher update = UPDATE.matcher(folded);
+        if (!update.find()) {
+            return Optional.empty();
+        }
+        BigDecimal value = CatalogQuery.number(update.group(3), update.group(4));
+        Optional<UUID> id = resolve(slot(message, update, 2));
+        if (value == null || id.isEmpty()) {
+            return Optional.empty();
+        }
+        
+        ObjectNode action = objectMapper.createObjectNode()
+                .put("action", "UPDATE")
+                .put("id", id.get().toString());
+        boolean price = update.group(1).equals("preco") || update.group(1).equals("valor");
+        if (price) {
+            action.put("price", value);
+        } else {
+            action.put("stock", value.intValue());
+        }
+        return json(action);
+    }
+    
+    private Optional<String> delete(String message) {
+        Matcher delete = DELETE.matcher(PromptText.foldInPlace(message));
+        if (!delete.find()) {
+            return Optional.empty();
+        }
+        return resolve(slot(message, delete, 1))
+                .flatMap(id -> json(objectMapper.createObjectNode()
+                        .put("action", "DELETE")
+                        .put("id", id.toString())));
+    }
+    
+    // Writes only go ahead for exactly one product whose whole name matches; "ele" or a partial name goes to the model
+    private Optional<UUID> resolve(String name) {
+        ProductFilterRequest byName = ProductFilterRequest.builder().name(name).build();
+        List<UUID> matches = productUseCase.findProducts(byName, Sort.unsorted(), 0, NAME_CANDIDATES).stream()
+                .filter(product -> PromptText.fold(product.name()).equals(PromptText.fold(name)))
+                .map(ProductResponse::id)
+                .toList();
+        return matches.size() == 1 ? Optional.of(matches.get(0)) : Optional.empty();
+    }
+    
+    private String canonicalCategory(String category) {
+        String folded = PromptText.fold(category);
+        return knownCategories().stream()
+                .filter(known -> PromptText.fold(known).equals(folded))
+                .findFirst()
+                .orElse(category);
+    }
+    
+    private List<String> knownCategories() {
+        return inventoryAggregateService.categoryStats().stream().map(CategoryStats::category).toList();
+    }
+    
+    private static boolean onlyFiller(String message, List<String> categories) {
+        Set<String> categoryWords = categories.stream()
+                .flatMap(category -> KeywordAutomaton.words(category).stream())
+                .collect(Collectors.toSet());
+        return KeywordAutomaton.words(message).stream()
+                .allMatch(word -> FILLER.contains(word) || KEYWORD_WORDS.contains(word) || categoryWords.contains(word));
+    }
+    
+    private static Sort sort(CatalogQuery.Ordering ordering) {
+        return switch (ordering) {
+            case CHEAPEST -> Sort.by(Sort.Direction.ASC, "price");
+            case PRICIEST -> Sort.by(Sort.Direction.DESC, "price");
+            case LOWEST_STOCK -> Sort.by(Sort.Direction.ASC, "stock");
+            case HIGHEST_STOCK -> Sort.by(Sort.Direction.DESC, "stock");
+            case RELEVANCE -> Sort.unsorted();
+        };
+    }
+    
+    private static String slot(String message, Matcher matcher, int group) {
+        String value = message.substring(matcher.start(group), matcher.end(group)).strip();
+        return value.length() > 1 && value.startsWith("\"") && value.endsWith("\"")
+                ? value.substring(1, value.length() - 1).strip()
+                : value;
+    }
+    
+    private static String products(long count) {
+        return count == 1 ? "produto" : "produtos";
+    }
+    
+    private Optional<String> json(ObjectNode action) {
+        try {
+            return Optional.of(objectMapper.writeValueAsString(action));
+        } catch (JsonProcessingException e) {
+            log.warn("Could not write routed chat action {}", action, e);
+            return Optional.empty();
+        }
+    }
+    
+    private static Map<String, Keyword> phrases() {
+        Map<String, Keyword> phrases = new HashMap<>();
+        add(phrases, Keyword.LIST, "liste", "listar", "lista", "listagem", "mostre", "mostrar", "mostra", "exiba",
+                "exibir", "exibe", "veja", "ver", "quais sao");
+        add(phrases, Keyword.COUNT, "quantos", "quantas", "quantidade de produtos", "numero de produtos",
+                "total de produtos");
+        add(phrases, Keyword.CHART, "grafico", "graficos", "chart", "visualizacao", "visualizar", "visualize");
+        add(phrases, Keyword.CREATE, "adicione", "adicionar", "adiciona", "crie", "criar", "cria", "cadastre",
+                "cadastrar", "cadastra", "insira", "inserir", "inclua", "incluir");
+        add(phrases, Keyword.UPDATE, "altere", "alterar", "altera", "atualize", "atualizar", "atualiza", "mude",
+                "mudar", "muda", "modifique", "modificar", "edite", "editar", "troque", "trocar", "ajuste", "ajustar");
+        add(phrases, Keyword.DELETE, "remova", "remover", "remove", "delete", "deletar", "deleta", "exclua", "excluir",
+                "exclui", "apague", "apagar", "apaga");
+        add(phrases, Keyword.PRODUCT, "produto", "produtos", "item", "itens");
+        add(phrases, Keyword.OPEN, "por que", "porque", "explique", "explica", "explicar", "analise", "analisar",
+                "analisa", "sugira", "sugerir", "sugestao", "sugestoes", "recomende", "recomendar", "recomendacao",
+                "compare", "comparar", "relatorio", "como", "devo", "deveria", "previsao", "tendencia", "estrategia",
+                "insight", "insights", "resuma", "resumo");
+        add(phrases, Keyword.HEDGE, "nao", "nunca", "jamais", "nem", "se", "caso", "posso", "podemos", "talvez",
+                "sera", "seria", "evite");
+        return phrases;
+    }
+    
+    private static void add(Map<String, Keyword> phrases, Keyword keyword, String... words) {
+        for (String word : words) {
+            phrases.put(word, keyword);
+        }
+    }
+}
@@ -1,8 +1,10 @@
 package br.com.partnerpro.product_manager.application.service;
 
-import br.com.partnerpro.product_manager.domain.entity.Product;
+import br.com.partnerpro.product_manager.application.usecase.DashboardUseCase;
 import br.com.partnerpro.product_manager.domain.repository.ProductRepository;
+import br.com.partnerpro.product_manager.framework.dto.DashboardResponse;
 import br.com.partnerpro.product_manager.framework.dto.ProductResponse;
+import br.com.partnerpro.product_manager.framework.dto.ProductTotals;
 import com.itextpdf.kernel.colors.ColorConstants;
 import com.itextpdf.kernel.pdf.PdfDocument;
 import com.itextpdf.kernel.pdf.PdfWriter;
@@ -17,14 +19,22 @@ import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.csv.CSVFormat;
 import org.apache.commons.csv.CSVPrinter;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.io.BufferedWriter;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
 import java.io.StringWriter;
+import java.io.Writer;
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.Iterator;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
@@ -32,116 +42,62 @@ import java.util.List;
 public class ExportService {
     
     private final ProductRepository productRepository;
+    private final DashboardUseCase dashboardUseCase;
     private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm");
+    private static final DateTimeFormatter ROW_DATE_FORMATTER = DateTimeFormatter.ofPattern("dd/MM/yyyy");
+    private static final int PDF_FLUSH_INTERVAL = 500;
     
-    public String exportProductsToCSV() throws IOException {
-        log.info("Exporting products to CSV");
-        
-        List<Product> products = productRepository.findAll();
-        
-        StringWriter writer = new StringWriter();
-        CSVPrinter csvPrinter = new CSVPrinter(writer, CSVFormat.DEFAULT
-                .withHeader("ID", "Nome", "Descrição", "Preço", "Categoria", "Estoque", "Data de Criação"));
-        
-        for (Product product : products) {
-            csvPrinter.printRecord(
-                    product.getId(),
-                    product.getName(),
-                    product.getDescription(),
-                    product.getPrice(),
-                    product.getCategory(),
-                    product.getStock(),
-                    product.getCreatedAt().format(DATE_FORMATTER)
-            );
+    @Transactional(readOnly = true)
+    public void writeProductsCsv(OutputStream out) throws IOException {
+        log.info("Streaming products to CSV");
+        
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        try (Stream<ProductResponse> products = productRepository.streamAllResponses()) {
+            long count = writeCsv(products, writer);
+            log.info("Streamed {} products to CSV", count);
         }
-        
-        csvPrinter.flush();
-        log.info("Exported {} products to CSV", products.size());
-        
-        return writer.toString();
     }
     
-    public byte[] exportProductsToPDF() throws IOException {
-        log.info("Exporting products to PDF");
+    @Transactional(readOnly = true)
+    public void writeProductsPdf(OutputStream out) throws IOException {
+        log.info("Streaming products to PDF");
         
-        List<Product> products = productRepository.findAll();
-        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        ProductTotals totals = productRepository.findTotals();
         
-        PdfWriter writer = new PdfWriter(baos);
+        PdfWriter writer = new PdfWriter(out);
+        writer.setCloseStream(false);
         PdfDocument pdfDoc = new PdfDocument(writer);
         Document document = new Document(pdfDoc);
         
-       
-        Paragraph title = new Paragraph("Relatório de Produtos")
-                .setFontSize(20)
-                .setBold()
-                .setTextAlignment(TextAlignment.CENTER);
-        document.add(title);
-        
-        Paragraph subtitle = new Paragraph("Gerado em: " + LocalDateTime.now().format(DATE_FORMATTER))
-                .setFontSize(10)
-                .setTextAlignment(TextAlignment.CENTER)
-                .setMarginBottom(20);
-        document.add(subtitle);
-        
-        BigDecimal totalValue = products.stream()
-                .map(p -> p.getPrice().multiply(BigDecimal.valueOf(p.getStock())))
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-        
-        int totalStock = products.stream().mapToInt(Product::getStock).sum();
-        
-        Paragraph stats = new Paragraph(String.format(
-                "Total de Produtos: %d | Estoque Total: %d unidades | Valor Total: R$ %.2f",
-                products.size(), totalStock, totalValue
-        ))
-                .setFontSize(10)
-                .setMarginBottom(15);
-        document.add(stats);
-        
-        float[] columnWidths = {2, 3, 2, 2, 2, 2};
-        Table table = new Table(UnitValue.createPercentArray(columnWidths));
-        table.setWidth(UnitValue.createPercentValue(100));
-        
-        String[] headers = {"Nome", "Descrição", "Preço", "Categoria", "Estoque", "Data"};
-        for (String header : headers) {
-            Cell cell = new Cell()
-                    .add(new Paragraph(header).setBold())
-                    .setBackgroundColor(ColorConstants.LIGHT_GRAY)
-                    .setTextAlignment(TextAlignment.CENTER);
-            table.addHeaderCell(cell);
-        }
-        
-        for (Product product : products) {
-            table.addCell(new Cell().add(new Paragraph(product.getName())));
-            table.addCell(new Cell().add(new Paragraph(
-                    product.getDescription() != null && product.getDescription().length() > 50
-                            ? product.getDescription().substring(0, 47) + "..."
-                            : product.getDescription() != null ? product.getDescription() : ""
-            )));
-            table.addCell(new Cell().add(new Paragraph(String.format("R$ %.2f", product.getPrice()))));
-            table.addCell(new Cell().add(new Paragraph(product.getCategory())));
-            table.addCell(new Cell().add(new Paragraph(String.valueOf(product.getStock()))));
-            table.addCell(new Cell().add(new Paragraph(product.getCreatedAt().format(DateTimeFormatter.ofPattern("dd/MM/yyyy")))));
-        }
+        addProductReportHeader(document, totals.totalProducts(), totals.totalStock(), totals.totalValue());
         
+        // Large-table mode renders and releases rows as they are flushed instead of keeping the whole table
+        Table table = createProductTable(true);
         document.add(table);
         
-        Paragraph footer = new Paragraph("Product Manager - Sistema de Gerenciamento de Produtos")
-                .setFontSize(8)
-                .setTextAlignment(TextAlignment.CENTER)
-                .setMarginTop(20);
-        document.add(footer);
+        long count = 0;
+        try (Stream<ProductResponse> products = productRepository.streamAllResponses()) {
+            Iterator<ProductResponse> iterator = products.iterator();
+            while (iterator.hasNext()) {
+                addProductRow(table, iterator.next());
+                if (++count % PDF_FLUSH_INTERVAL == 0) {
+                    table.flush();
+                    writer.flush();
+                }
+            }
+        }
+        table.complete();
         
+        addProductReportFooter(document);
         document.close();
         
-        log.info("Exported {} products to PDF", products.size());
-        return baos.toByteArray();
+        log.info("Streamed {} products to PDF", count);
     }
     
     public byte[] exportDashboardToPDF() throws IOException {
         log.info("Exporting dashboard to PDF");
         
-        List<Product> products = productRepository.findAll();
+        DashboardResponse data = dashboardUseCase.getDashboardData();
         ByteArrayOutputStream baos = new ByteArrayOutputStream();
         
         PdfWriter writer = new PdfWriter(baos);
@@ -160,56 +116,39 @@ public class ExportService {
                 .setMarginBottom(30);
         document.add(subtitle);
         
-        BigDecimal totalValue = products.stream()
-                .map(p -> p.getPrice().multiply(BigDecimal.valueOf(p.getStock())))
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-        
-        BigDecimal avgPrice = products.isEmpty() ? BigDecimal.ZERO :
-                products.stream()
-                        .map(Product::getPrice)
-                        .reduce(BigDecimal.ZERO, BigDecimal::add)
-                        .divide(BigDecimal.valueOf(products.size()), 2, BigDecimal.ROUND_HALF_UP);
-        
-        int totalStock = products.stream().mapToInt(Product::getStock).sum();
-        long lowStock = products.stream().filter(p -> p.getStock() < 10).count();
-        long outOfStock = products.stream().filter(p -> p.getStock() == 0).count();
-        
         document.add(new Paragraph("📊 ESTATÍSTICAS GERAIS").setBold().setFontSize(14).setMarginBottom(10));
-        document.add(new Paragraph(String.format("• Total de Produtos: %d", products.size())));
-        document.add(new Paragraph(String.format("• Estoque Total: %d unidades", totalStock)));
-        document.add(new Paragraph(String.format("• Valor Total em Estoque: R$ %.2f", totalValue)));
-        document.add(new Paragraph(String.format("• Preço Médio: R$ %.2f", avgPrice)));
-        document.add(new Paragraph(String.format("• Produtos com Estoque Baixo (<10): %d", lowStock)));
-        document.add(new Paragraph(String.format("• Produtos Sem Estoque: %d", outOfStock)).setMarginBottom(20));
+        document.add(new Paragraph(String.format("• Total de Produtos: %d", data.totalProducts())));
+        document.add(new Paragraph(String.format("• Estoque Total: %d unidades", data.totalStock())));
+        document.add(new Paragraph(String.format("• Valor Total em Estoque: R$ %.2f", data.totalValue())));
+        document.add(new Paragraph(String.format("• Preço Médio: R$ %.2f", data.averagePrice())));
+        document.add(new Paragraph(String.format("• Produtos com Estoque Baixo (<10): %d", data.lowStockCount())));
+        document.add(new Paragraph(String.format("• Produtos Sem Estoque: %d", data.outOfStockCount())).setMarginBottom(20));
         
         document.add(new Paragraph("📁 PRODUTOS POR CATEGORIA").setBold().setFontSize(14).setMarginBottom(10));
-        products.stream()
-                .collect(java.util.stream.Collectors.groupingBy(Product::getCategory))
-                .forEach((category, prods) -> {
-                    document.add(new Paragraph(String.format("• %s: %d produtos", category, prods.size())));
-                });
+        data.categories().forEach(category -> document.add(new Paragraph(
+                String.format("• %s: %d produtos", category.category(), category.productCount())
+        )));
         
         document.add(new Paragraph("").setMarginBottom(20));
         
         
         document.add(new Paragraph("💰 TOP 5 PRODUTOS MAIS CAROS").setBold().setFontSize(14).setMarginBottom(10));
-        products.stream()
-                .sorted((p1, p2) -> p2.getPrice().compareTo(p1.getPrice()))
-                .limit(5)
-                .forEach(p -> document.add(new Paragraph(
-                        String.format("• %s - R$ %.2f (Estoque: %d)", p.getName(), p.getPrice(), p.getStock())
-                )));
+        data.mostExpensiveProducts().forEach(p -> document.add(new Paragraph(
+                String.format("• %s - R$ %.2f (Estoque: %d)", p.name(), p.price(), p.stock())
+        )));
         
         document.add(new Paragraph("").setMarginBottom(20));
         
         
-        if (lowStock > 0) {
+        if (data.lowStockCount() > 0) {
             document.add(new Paragraph("⚠️ ALERTAS DE ESTOQUE BAIXO").setBold().setFontSize(14).setMarginBottom(10));
-            products.stream()
-                    .filter(p -> p.getStock() < 10)
-                    .forEach(p -> document.add(new Paragraph(
-                            String.format("• %s - Apenas %d unidades", p.getName(), p.getStock())
-                    )));
+            data.lowStockProducts().forEach(p -> document.add(new Paragraph(
+                    String.format("• %s - Apenas %d unidades", p.name(), p.stock())
+            )));
+            if (data.lowStockCount() > data.lowStockProducts().size()) {
+                document.add(new Paragraph(String.format("• ... e mais %d produtos",
+                        data.lowStockCount() - data.lowStockProducts().size())));
+            }
         }
         
         Paragraph footer = new Paragraph("Product Manager - Sistema de Gerenciamento de Produtos")
@@ -230,22 +169,7 @@ public class ExportService {
         
         try {
             StringWriter writer = new StringWriter();
-            CSVPrinter csvPrinter = new CSVPrinter(writer, CSVFormat.DEFAULT
-                    .withHeader("ID", "Nome", "Descrição", "Preço", "Categoria", "Estoque", "Data de Criação"));
-            
-            for (ProductResponse product : products) {
-                csvPrinter.printRecord(
-                        product.id(),
-                        product.name(),
-                        product.description(),
-                        product.price(),
-                        product.category(),
-                        product.stock(),
-                        product.createdAt().format(DATE_FORMATTER)
-                );
-            }
-            
-            csvPrinter.flush();
+            writeCsv(products.stream(), writer);
             log.info("CSV export completed successfully");
             
             return writer.toString().getBytes();
@@ -265,65 +189,21 @@ public class ExportService {
             PdfDocument pdfDoc = new PdfDocument(writer);
             Document document = new Document(pdfDoc);
             
-            Paragraph title = new Paragraph("Relatório de Produtos")
-                    .setFontSize(20)
-                    .setBold()
-                    .setTextAlignment(TextAlignment.CENTER);
-            document.add(title);
-            
-            Paragraph subtitle = new Paragraph("Gerado em: " + LocalDateTime.now().format(DATE_FORMATTER))
-                    .setFontSize(10)
-                    .setTextAlignment(TextAlignment.CENTER)
-                    .setMarginBottom(20);
-            document.add(subtitle);
-            
             BigDecimal totalValue = products.stream()
                     .map(p -> p.price().multiply(BigDecimal.valueOf(p.stock())))
                     .reduce(BigDecimal.ZERO, BigDecimal::add);
             
-            int totalStock = products.stream().mapToInt(ProductResponse::stock).sum();
-            
-            Paragraph stats = new Paragraph(String.format(
-                    "Total de Produtos: %d | Estoque Total: %d unidades | Valor Total: R$ %.2f",
-                    products.size(), totalStock, totalValue
-            ))
-                    .setFontSize(10)
-                    .setMarginBottom(15);
-            document.add(stats);
+            long totalStock = products.stream().mapToLong(ProductResponse::stock).sum();
             
-            float[] columnWidths = {2, 3, 2, 2, 2, 2};
-            Table table = new Table(UnitValue.createPercentArray(columnWidths));
-            table.setWidth(UnitValue.createPercentValue(100));
-            
-            String[] headers = {"Nome", "Descrição", "Preço", "Categoria", "Estoque", "Data"};
-            for (String header : headers) {
-                Cell cell = new Cell()
-                        .add(new Paragraph(header).setBold())
-                        .setBackgroundColor(ColorConstants.LIGHT_GRAY)
-                        .setTextAlignment(TextAlignment.CENTER);
-                table.addHeaderCell(cell);
-            }
+            addProductReportHeader(document, products.size(), totalStock, totalValue);
             
+            Table table = createProductTable(false);
             for (ProductResponse product : products) {
-                table.addCell(new Cell().add(new Paragraph(product.name())));
-                table.addCell(new Cell().add(new Paragraph(
-                        product.description() != null && product.description().length() > 50
-                                ? product.description().substring(0, 47) + "..."
-                                : product.description() != null ? product.description() : ""
-                )));
-                table.addCell(new Cell().add(new Paragraph(String.format("R$ %.2f", product.price()))));
-                table.addCell(new Cell().add(new Paragraph(product.category())));
-                table.addCell(new Cell().add(new Paragraph(String.valueOf(product.stock()))));
-                table.addCell(new Cell().add(new Paragraph(product.createdAt().format(DateTimeFormatter.ofPattern("dd/MM/yyyy")))));
+                addProductRow(table, product);
             }
-            
             document.add(table);
             
-            Paragraph footer = new Paragraph("Product Manager - Sistema de Gerenciamento de Produtos")
-                    .setFontSize(8)
-                    .setTextAlignment(TextAlignment.CENTER)
-                    .setMarginTop(20);
-            document.add(footer);
+            addProductReportFooter(document);
             
             document.close();
             
@@ -334,4 +214,87 @@ public class ExportService {
             throw new RuntimeException("Failed to export to PDF", e);
         }
     }
+    
+    private void addProductReportHeader(Document document, long totalProducts, long totalStock, BigDecimal totalValue) {
+        Paragraph title = new Paragraph("Relatório de Produtos")
+                .setFontSize(20)
+                .setBold()
+                .setTextAlignment(TextAlignment.CENTER);
+        document.add(title);
+        
+        Paragraph subtitle = new Paragraph("Gerado em: " + LocalDateTime.now().format(DATE_FORMATTER))
+                .setFontSize(10)
+                .setTextAlignment(TextAlignment.CENTER)
+                .setMarginBottom(20);
+        document.add(subtitle);
+        
+        Paragraph stats = new Paragraph(String.format(
+                "Total de Produtos: %d | Estoque Total: %d unidades | Valor Total: R$ %.2f",
+                totalProducts, totalStock, totalValue
+        ))
+                .setFontSize(10)
+                .setMarginBottom(15);
+        document.add(stats);
+    }
+    
+    private Table createProductTable(boolean largeTable) {
+        float[] columnWidths = {2, 3, 2, 2, 2, 2};
+        Table table = new Table(UnitValue.createPercentArray(columnWidths), largeTable);
+        table.setWidth(UnitValue.createPercentValue(100));
+        
+        String[] headers = {"Nome", "Descrição", "Preço", "Categoria", "Estoque", "Data"};
+        for (String header : headers) {
+            Cell cell = new Cell()
+                    .add(new Paragraph(header).setBold())
+                    .setBackgroundColor(ColorConstants.LIGHT_GRAY)
+                    .setTextAlignment(TextAlignment.CENTER);
+            table.addHeaderCell(cell);
+        }
+        return table;
+    }
+    
+    private void addProductRow(Table table, ProductResponse product) {
+        table.addCell(new Cell().add(new Paragraph(product.name())));
+        table.addCell(new Cell().add(new Paragraph(
+                product.description() != null && product.description().length() > 50
+                        ? product.description().substring(0, 47) + "..."
+                        : product.description() != null ? product.description() : ""
+        )));
+        table.addCell(new Cell().add(new Paragraph(String.format("R$ %.2f", product.price()))));
+        table.addCell(new Cell().add(new Paragraph(product.category())));
+        table.addCell(new Cell().add(new Paragraph(String.valueOf(product.stock()))));
+        table.addCell(new Cell().add(new Paragraph(product.createdAt().format(ROW_DATE_FORMATTER))));
+    }
+    
+    private void addProductReportFooter(Document document) {
+        Paragraph footer = new Paragraph("Product Manager - Sistema de Gerenciamento de Produtos")
+                .setFontSize(8)
+                .setTextAlignment(TextAlignment.CENTER)
+                .setMarginTop(20);
+        document.add(footer);
+    }
+    
+    private long writeCsv(Stream<ProductResponse> products, Appendable out) throws IOException {
+        CSVPrinter csvPrinter = new CSVPrinter(out, CSVFormat.DEFAULT
+                .withHeader("ID", "Nome", "Descrição", "Preço", "Categoria", "Estoque", "Data de Criação"));
+        
+        long count = 0;
+        Iterator<ProductResponse> iterator = products.iterator();
+        while (iterator.hasNext()) {
+            ProductResponse product = iterator.next();
+            csvPrinter.printRecord(
+                    product.id(),
+                    product.name(),
+                    product.description(),
+                    product.price(),
+                    product.category(),
+                    product.stock(),
+                    product.createdAt().format(DATE_FORMATTER)
+            );
+            count++;
+        }
+        
+        csvPrinter.flush();
+        return count;
+    }
 }
@@ -0,0 +1,311 @@
+package br.com.partnerpro.product_manager.application.service;
+
+import br.com.partnerpro.product_manager.application.usecase.DashboardUseCase;
+import br.com.partnerpro.product_manager.domain.event.ProductEvent;
+import br.com.partnerpro.product_manager.domain.repository.ProductOutboxRepository;
+import br.com.partnerpro.product_manager.domain.repository.ProductRepository;
+import br.com.partnerpro.product_manager.framework.dto.CategoryStats;
+import br.com.partnerpro.product_manager.framework.dto.CategoryTotals;
+import br.com.partnerpro.product_manager.framework.dto.InventorySummary;
+import br.com.partnerpro.product_manager.framework.dto.ProductResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+@Service
+@Slf4j
+public class InventoryAggregateService {
+    
+    private static final BigDecimal[] PRICE_BOUNDS = {
+            new BigDecimal("500"), new BigDecimal("1000"), new BigDecimal("2000"), new BigDecimal("3000")
+    };
+    private static final int[] STOCK_BOUNDS = {1, DashboardUseCase.LOW_STOCK_THRESHOLD, 50};
+    
+    private final ProductRepository productRepository;
+    private final ProductOutboxRepository productOutboxRepository;
+    // Totals and outbox ids are read from one snapshot, so the ids say exactly which changes the totals include
+    private final TransactionTemplate snapshotTemplate;
+    private final Duration outboxWindow;
+    private final Lock reconcileLock = new ReentrantLock();
+    
+    private long totalProducts;
+    private long totalStock;
+    private BigDecimal totalValue = BigDecimal.ZERO;
+    private BigDecimal totalPrice = BigDecimal.ZERO;
+    private final long[] priceBuckets = new long[PRICE_BOUNDS.length + 1];
+    private final long[] stockBuckets = new long[STOCK_BOUNDS.length + 1];
+    private final Map<String, CategoryAccumulator> categories = new HashMap<>();
+    
+    private boolean loaded;
+    private long invalidations;
+    // Outbox rows the loaded totals already include; the relay may still deliver them afterwards
+    private Set<Long> reflected = Set.of();
+    // Deltas applied while a reconciliation reads, replayed on top of its snapshot unless it already has them
+    private List<Delta> racing;
+    
+    public InventoryAggregateService(ProductRepository productRepository,
+                                     ProductOutboxRepository productOutboxRepository,
+                                     PlatformTransactionManager transactionManager,
+                                     @Value("${product.outbox.window-ms:60000}") long outboxWindowMs) {
+        this.productRepository = productRepository;
+        this.productOutboxRepository = productOutboxRepository;
+        this.snapshotTemplate = new TransactionTemplate(transactionManager);
+        this.snapshotTemplate.setReadOnly(true);
+        this.snapshotTemplate.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+        this.outboxWindow = Duration.ofMillis(outboxWindowMs);
+    }
+    
+    @EventListener
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public void onProductEvent(ProductEvent event) {
+        apply(event.sequence(), event.before(), event.after());
+    }
+    
+    public void apply(ProductResponse before, ProductResponse after) {
+        apply(0, before, after);
+    }
+    
+    private synchronized void apply(long sequence, ProductResponse before, ProductResponse after) {
+        if (racing != null) {
+            racing.add(new Delta(sequence, before, after));
+        }
+        if (!loaded || reflected.contains(sequence)) {
+            return;
+        }
+        if (before != null) {
+            add(before, -1);
+        }
+        if (after != null) {
+            add(after, 1);
+        }
+    }
+    
+    // For when changes may have been missed altogether; the next read reloads from the database
+    public synchronized void invalidate() {
+        invalidations++;
+        loaded = false;
+    }
+    
+    public InventorySummary summary() {
+        ensureLoaded();
+        synchronized (this) {
+            return snapshot();
+        }
+    }
+    
+    public List<CategoryStats> categoryStats() {
+        ensureLoaded();
+        synchronized (this) {
+            return categories.entrySet().stream()
+                    .map(entry -> entry.getValue().toStats(entry.getKey()))
+                    .sorted(Comparator.comparing(CategoryStats::productCount).reversed()
+                            .thenComparing(CategoryStats::category))
+                    .toList();
+        }
+    }
+    
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(
+            fixedDelayString = "${product.aggregates.reconcile-interval-ms:300000}",
+            initialDelayString = "${product.aggregates.reconcile-interval-ms:300000}"
+    )
+    public void reconcile() {
+        reconcileLock.lock();
+        try {
+            long startInvalidations;
+            synchronized (this) {
+                racing = new ArrayList<>();
+                startInvalidations = invalidations;
+            }
+            
+            Snapshot read;
+            try {
+                // The relay never goes back further than its window, so older rows cannot be delivered again
+                LocalDateTime since = LocalDateTime.now().minus(outboxWindow);
+                read = snapshotTemplate.execute(status -> new Snapshot(
+                        productRepository.findInventorySummary(),
+                        productRepository.findCategoryTotals(),
+                        Set.copyOf(productOutboxRepository.findIdsWrittenAfter(since))));
+            } catch (RuntimeException e) {
+                synchronized (this) {
+                    racing = null;
+                }
+                throw e;
+            }
+            
+            synchronized (this) {
+                InventorySummary previous = loaded ? snapshot() : null;
+                load(read.summary(), read.totals());
+                reflected = read.reflected();
+                List<Delta> raced = racing;
+                racing = null;
+                for (Delta delta : raced) {
+                    apply(delta.sequence(), delta.before(), delta.after());
+                }
+                // An invalidation during the read means changes the snapshot may predate, so the next read reloads
+                loaded = invalidations == startInvalidations;
+                
+                if (previous != null && drifted(previous)) {
+                    log.warn("Inventory aggregates drifted from database, resetting: was {}, now {}", previous, snapshot());
+                }
+            }
+        } finally {
+            reconcileLock.unlock();
+        }
+    }
+    
+    private void ensureLoaded() {
+        if (isLoaded()) {
+            return;
+        }
+        reconcileLock.lock();
+        try {
+            if (!isLoaded()) {
+                reconcile();
+            }
+        } finally {
+            reconcileLock.unlock();
+        }
+    }
+    
+    private synchronized boolean isLoaded() {
+        return loaded;
+    }
+    
+    private void load(InventorySummary summary, List<CategoryTotals> totals) {
+        totalProducts = summary.totalProducts();
+        totalStock = summary.totalStock();
+        totalValue = summary.totalValue();
+        totalPrice = summary.totalPrice();
+        
+        stockBuckets[0] = summary.outOfStock();
+        stockBuckets[1] = summary.stockFrom1To9();
+        stockBuckets[2] = summary.stockFrom10To49();
+        stockBuckets[3] = summary.stockFrom50();
+        
+        priceBuckets[0] = summary.priceBelow500();
+        priceBuckets[1] = summary.priceFrom500To1000();
+        priceBuckets[2] = summary.priceFrom1000To2000();
+        priceBuckets[3] = summary.priceFrom2000To3000();
+        priceBuckets[4] = summary.priceFrom3000();
+        
+        categories.clear();
+        for (CategoryTotals category : totals) {
+            categories.put(category.category(), new CategoryAccumulator(
+                    category.productCount(), category.totalValue(), category.totalPrice()));
+        }
+        loaded = true;
+    }
+    
+    private InventorySummary snapshot() {
+        return new InventorySummary(
+                totalProducts,
+                totalStock,
+                totalValue,
+                totalPrice,
+                stockBuckets[0] + stockBuckets[1],
+                stockBuckets[0],
+                stockBuckets[1],
+                stockBuckets[2],
+                stockBuckets[3],
+                priceBuckets[0],
+                priceBuckets[1],
+                priceBuckets[2],
+                priceBuckets[3],
+                priceBuckets[4]
+        );
+    }
+    
+    private boolean drifted(InventorySummary previous) {
+        return totalProducts != previous.totalProducts()
+                || totalStock != previous.totalStock()
+                || totalValue.compareTo(previous.totalValue()) != 0
+                || totalPrice.compareTo(previous.totalPrice()) != 0;
+    }
+    
+    private void add(ProductResponse product, int sign) {
+        BigDecimal signum = BigDecimal.valueOf(sign);
+        BigDecimal price = product.price().multiply(signum);
+        BigDecimal value = product.price().multiply(BigDecimal.valueOf(product.stock())).multiply(signum);
+        
+        totalProducts += sign;
+        totalStock += (long) sign * product.stock();
+        totalValue = totalValue.add(value);
+        totalPrice = totalPrice.add(price);
+        priceBuckets[priceBucket(product.price())] += sign;
+        stockBuckets[stockBucket(product.stock())] += sign;
+        
+        CategoryAccumulator category = categories.computeIfAbsent(product.category(), key -> new CategoryAccumulator());
+        category.productCount += sign;
+        category.totalValue = category.totalValue.add(value);
+        category.totalPrice = category.totalPrice.add(price);
+        if (category.productCount <= 0) {
+            categories.remove(product.category());
+        }
+    }
+    
+    private static int priceBucket(BigDecimal price) {
+        int bucket = 0;
+        while (bucket < PRICE_BOUNDS.length && price.compareTo(PRICE_BOUNDS[bucket]) >= 0) {
+            bucket++;
+        }
+        return bucket;
+    }
+    
+    private static int stockBucket(int stock) {
+        int bucket = 0;
+        while (bucket < STOCK_BOUNDS.length && stock >= STOCK_BOUNDS[bucket]) {
+            bucket++;
+        }
+        return bucket;
+    }
+    
+    private record Snapshot(InventorySummary summary, List<CategoryTotals> totals, Set<Long> reflected) {
+    }
+    
+    private record Delta(long sequence, ProductResponse before, ProductResponse after) {
+    }
+    
+    private static final class CategoryAccumulator {
+        private long productCount;
+        private BigDecimal totalValue = BigDecimal.ZERO;
+        private BigDecimal totalPrice = BigDecimal.ZERO;
+        
+        private CategoryAccumulator() {
+        }
+        
+        private CategoryAccumulator(long productCount, BigDecimal totalValue, BigDecimal totalPrice) {
+            this.productCount = productCount;
+            this.totalValue = totalValue;
+            this.totalPrice = totalPrice;
+        }
+        
+        private CategoryStats toStats(String category) {
+            double averagePrice = productCount == 0
+                    ? 0.0
+                    : totalPrice.divide(BigDecimal.valueOf(productCount), 2, RoundingMode.HALF_UP).doubleValue();
+            return new CategoryStats(category, productCount, totalValue, averagePrice);
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package br.com.partnerpro.product_manager.application.service;
+
+import br.com.partnerpro.product_manager.application.usecase.DashboardUseCase;
+import br.com.partnerpro.product_manager.application.usecase.ProductUseCase;
+import br.com.partnerpro.product_manager.domain.event.ProductEventsStored;
+import br.com.partnerpro.product_manager.framework.cache.CacheInvalidation;
+import br.com.partnerpro.product_manager.framework.cache.CacheInvalidationTransport;
+import br.com.partnerpro.product_manager.framework.cache.CacheNames;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ProductCacheInvalidator {
+    
+    // Keeps a Postgres NOTIFY payload well under its 8000 byte limit
+    private static final int MAX_IDS_PER_MESSAGE = 150;
+    
+    private final CacheInvalidationTransport cacheInvalidationTransport;
+    private final CacheManager cacheManager;
+    private final InventoryAggregateService inventoryAggregateService;
+    private final DashboardUseCase dashboardUseCase;
+    private final ProductSearchService productSearchService;
+    private final CatalogContextService catalogContextService;
+    private final ProductEventPublisher productEventPublisher;
+    
+    private final String nodeId = UUID.randomUUID().toString();
+    
+    @PostConstruct
+    void subscribe() {
+        cacheInvalidationTransport.subscribe(this::onInvalidation);
+    }
+    
+    // Every node relays the events itself, but only on its next outbox read; this tells the others to read now
+    @EventListener
+    public void onEventsStored(ProductEventsStored stored) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            send(stored.productIds());
+            return;
+        }
+        
+        @SuppressWarnings("unchecked")
+        Set<UUID> pending = (Set<UUID>) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            Set<UUID> ids = new LinkedHashSet<>();
+            TransactionSynchronizationManager.bindResource(this, ids);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void beforeCommit(boolean readOnly) {
+                    send(new ArrayList<>(ids));
+                }
+                
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResource(ProductCacheInvalidator.this);
+                }
+            });
+            pending = ids;
+        }
+        pending.addAll(stored.productIds());
+    }
+    
+    private void send(List<UUID> ids) {
+        for (int start = 0; start < ids.size(); start += MAX_IDS_PER_MESSAGE) {
+            List<UUID> chunk = ids.subList(start, Math.min(start + MAX_IDS_PER_MESSAGE, ids.size()));
+            cacheInvalidationTransport.send(new CacheInvalidation(nodeId, List.copyOf(chunk)));
+        }
+    }
+    
+    void onInvalidation(CacheInvalidation invalidation) {
+        if (nodeId.equals(invalidation.origin())) {
+            return;
+        }
+        log.debug("Invalidating caches for {} products changed on another node", invalidation.productIds().size());
+        
+        // The cached reads are dropped right away; everything else follows when the relay below delivers the events
+        // List before entries: a reader who already sees the new product must not get the old list afterwards
+        evict(CacheNames.PRODUCTS, ProductUseCase.ALL_PRODUCTS_KEY);
+        Cache product = cacheManager.getCache(CacheNames.PRODUCT);
+        if (product != null) {
+            if (invalidation.isEverything()) {
+                product.clear();
+            } else {
+                invalidation.productIds().forEach(product::evict);
+            }
+        }
+        
+        if (invalidation.isEverything()) {
+            // The channel was down for an unknown time, possibly longer than the relay looks back. The search index
+            // is rebuilt in the background so this listener keeps receiving notifications meanwhile
+            inventoryAggregateService.invalidate();
+            dashboardUseCase.markStale();
+            productSearchService.requestRebuild();
+            catalogContextService.invalidate();
+        }
+        productEventPublisher.wake();
+    }
+    
+    private void evict(String name, Object key) {
+        Cache cache = cacheManager.getCache(name);
+        if (cache != null) {
+            cache.evict(key);
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package br.com.partnerpro.product_manager.application.service;
+
+import br.com.partnerpro.product_manager.application.usecase.DashboardUseCase;
+import br.com.partnerpro.product_manager.application.usecase.ProductUseCase;
+import br.com.partnerpro.product_manager.domain.event.ProductEvent;
+import br.com.partnerpro.product_manager.framework.cache.CacheNames;
+import lombok.RequiredArgsConstructor;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Service;
+
+@Service
+@RequiredArgsConstructor
+public class ProductCacheUpdater {
+    
+    private final CacheManager cacheManager;
+    private final DashboardUseCase dashboardUseCase;
+    
+    // Runs after the aggregates have taken the change so the dashboard is never refreshed from stale totals
+    @EventListener
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    public void onProductEvent(ProductEvent event) {
+        // Evicted rather than written: the writer already put the new state, and an older event relayed late must not
+        // overwrite it. The list was evicted before the commit too, so a read in between may have cached old rows
+        evict(CacheNames.PRODUCT, event.productId());
+        evict(CacheNames.PRODUCTS, ProductUseCase.ALL_PRODUCTS_KEY);
+        dashboardUseCase.markStale();
+    }
+    
+    private void evict(String name, Object key) {
+        Cache cache = cacheManager.getCache(name);
+        if (cache != null) {
+            cache.evict(key);
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package br.com.partnerpro.product_manager.application.service;
+
+import br.com.partnerpro.product_manager.domain.event.ProductEvent;
+import br.com.partnerpro.product_manager.domain.model.ProductChange;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.function.Consumer;
+
+@Service
+@Slf4j
+public class ProductChangeBroadcaster {
+    
+    private final Queue<ProductChange> pending = new ConcurrentLinkedQueue<>();
+    private final Set<Consumer<List<ProductChange>>> listeners = new CopyOnWriteArraySet<>();
+    
+    @EventListener
+    public void onProductEvent(ProductEvent event) {
+        publish(new ProductChange(event.before(), event.after()));
+    }
+    
+    public void publish(ProductChange change) {
+        if (!listeners.isEmpty()) {
+            pending.add(change);
+        }
+    }
+    
+    public Runnable subscribe(Consumer<List<ProductChange>> listener) {
+        listeners.add(listener);
+        return () -> listeners.remove(listener);
+    }
+    
+    // Changes are batched per interval and coalesced per product, so a burst of writes becomes one push per client
+    @Scheduled(fixedDelayString = "${product.live-updates.flush-interval-ms:500}")
+    public void flush() {
+        if (pending.isEmpty()) {
+            return;
+        }
+        
+        Map<UUID, ProductChange> merged = new LinkedHashMap<>();
+        ProductChange change;
+        while ((change = pending.poll()) != null) {
+            merged.merge(change.id(), change, ProductChange::then);
+        }
+        
+        List<ProductChange> batch = merged.values().stream()
+                .filter(c -> !c.isNoop())
+                .toList();
+        if (batch.isEmpty()) {
+            return;
+        }
+        
+        log.debug("Broadcasting {} product changes to {} listeners", batch.size(), listeners.size());
+        for (Consumer<List<ProductChange>> listener : listeners) {
+            try {
+                listener.accept(batch);
+            } catch (RuntimeException e) {
+                log.error("Error delivering product changes", e);
+            }
+        }
+    }
+}
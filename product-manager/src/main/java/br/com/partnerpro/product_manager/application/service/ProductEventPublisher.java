@@ -0,0 +1,219 @@
+package br.com.partnerpro.product_manager.application.service;
+
+import br.com.partnerpro.product_manager.domain.entity.ProductOutboxEntry;
+import br.com.partnerpro.product_manager.domain.event.ProductCreated;
+import br.com.partnerpro.product_manager.domain.event.ProductDeleted;
+import br.com.partnerpro.product_manager.domain.event.ProductEvent;
+import br.com.partnerpro.product_manager.domain.event.ProductEventsStored;
+import br.com.partnerpro.product_manager.domain.event.ProductUpdated;
+import br.com.partnerpro.product_manager.domain.repository.ProductOutboxRepository;
+import br.com.partnerpro.product_manager.framework.dto.ProductResponse;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+@Service
+@Slf4j
+public class ProductEventPublisher {
+    
+    private static final long SHUTDOWN_TIMEOUT_SECONDS = 10;
+    
+    private final ProductOutboxRepository productOutboxRepository;
+    private final ApplicationEventPublisher applicationEventPublisher;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final Duration window;
+    private final Duration retention;
+    // One relay thread keeps events in outbox order; a wake-up arriving while a run is already queued is redundant
+    private final ThreadPoolExecutor relay;
+    private final Lock drainLock = new ReentrantLock();
+    // Every node relays every row to its own listeners. Rows are re-read for the whole window, since one committed
+    // late may sit behind rows already relayed; ids delivered here are remembered until they fall out of it
+    private final Map<Long, LocalDateTime> delivered = new HashMap<>();
+    
+    public ProductEventPublisher(ProductOutboxRepository productOutboxRepository,
+                                 ApplicationEventPublisher applicationEventPublisher,
+                                 ObjectMapper objectMapper,
+                                 PlatformTransactionManager transactionManager,
+                                 @Value("${product.outbox.batch-size:500}") int batchSize,
+                                 @Value("${product.outbox.window-ms:60000}") long windowMs,
+                                 @Value("${product.outbox.retention-hours:24}") long retentionHours) {
+        this.productOutboxRepository = productOutboxRepository;
+        this.applicationEventPublisher = applicationEventPublisher;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+        this.window = Duration.ofMillis(windowMs);
+        this.retention = Duration.ofHours(retentionHours);
+        this.relay = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(1),
+                new CustomizableThreadFactory("product-outbox-"),
+                new ThreadPoolExecutor.DiscardPolicy());
+    }
+    
+    public void publish(ProductEvent event) {
+        publishAll(List.of(event));
+    }
+    
+    // Rows are written in the caller's transaction, so events exist exactly when the change they describe commits
+    public void publishAll(List<? extends ProductEvent> events) {
+        if (events.isEmpty()) {
+            return;
+        }
+        
+        productOutboxRepository.saveAll(events.stream().map(this::toEntry).toList());
+        applicationEventPublisher.publishEvent(new ProductEventsStored(
+                events.stream().map(ProductEvent::productId).distinct().toList()));
+        
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            wake();
+            return;
+        }
+        
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                wake();
+            }
+        });
+    }
+    
+    // Also called when another node announces a write; the poll is the safety net for announcements lost on the way
+    @Scheduled(fixedDelayString = "${product.outbox.poll-interval-ms:5000}")
+    public void wake() {
+        relay.execute(this::drain);
+    }
+    
+    // Relays whatever a previous run left behind before the in-memory consumers rebuild themselves on startup
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public void relayBacklog() {
+        drain();
+    }
+    
+    @Scheduled(fixedDelayString = "${product.outbox.purge-interval-ms:3600000}")
+    public void purge() {
+        LocalDateTime cutoff = LocalDateTime.now().minus(retention);
+        Integer purged = transactionTemplate.execute(status -> productOutboxRepository.deleteCreatedBefore(cutoff));
+        if (purged != null && purged > 0) {
+            log.info("Purged {} relayed product outbox entries", purged);
+        }
+    }
+    
+    // Listeners run outside any transaction and only see committed rows, so nothing they do can be rolled back
+    void drain() {
+        drainLock.lock();
+        try {
+            LocalDateTime since = LocalDateTime.now().minus(window);
+            LocalDateTime createdAt = since;
+            long id = 0;
+            List<ProductOutboxEntry> batch;
+            do {
+                batch = productOutboxRepository.findWrittenAfter(createdAt, id, Limit.of(batchSize));
+                for (ProductOutboxEntry entry : batch) {
+                    if (delivered.putIfAbsent(entry.getId(), entry.getCreatedAt()) == null) {
+                        dispatch(entry);
+                    }
+                }
+                if (!batch.isEmpty()) {
+                    createdAt = batch.get(batch.size() - 1).getCreatedAt();
+                    id = batch.get(batch.size() - 1).getId();
+                }
+            } while (batch.size() == batchSize);
+            
+            delivered.values().removeIf(written -> written.isBefore(since));
+        } catch (RuntimeException e) {
+            log.error("Error relaying product outbox", e);
+        } finally {
+            drainLock.unlock();
+        }
+    }
+    
+    // A failing listener or unreadable row is logged and skipped so it cannot stall the rows behind it
+    private void dispatch(ProductOutboxEntry entry) {
+        try {
+            applicationEventPublisher.publishEvent(toEvent(entry));
+        } catch (RuntimeException e) {
+            log.error("Error delivering outbox entry {} ({}) for product {}",
+                    entry.getId(), entry.getEventType(), entry.getProductId(), e);
+        }
+    }
+    
+    private ProductOutboxEntry toEntry(ProductEvent event) {
+        return ProductOutboxEntry.builder()
+                .eventType(event.getClass().getSimpleName())
+                .productId(event.productId())
+                .beforeState(write(event.before()))
+                .afterState(write(event.after()))
+                .build();
+    }
+    
+    private ProductEvent toEvent(ProductOutboxEntry entry) {
+        ProductResponse before = read(entry.getBeforeState());
+        ProductResponse after = read(entry.getAfterState());
+        return switch (entry.getEventType()) {
+            case "ProductCreated" -> new ProductCreated(entry.getId(), after);
+            case "ProductUpdated" -> new ProductUpdated(entry.getId(), before, after);
+            case "ProductDeleted" -> new ProductDeleted(entry.getId(), before);
+            default -> throw new IllegalStateException("Unknown product event type: " + entry.getEventType());
+        };
+    }
+    
+    private String write(ProductResponse state) {
+        if (state == null) {
+            return null;
+        }
+        try {
+            return objectMapper.writeValueAsString(state);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize product " + state.id(), e);
+        }
+    }
+    
+    private ProductResponse read(String state) {
+        if (state == null) {
+            return null;
+        }
+        try {
+            return objectMapper.readValue(state, ProductResponse.class);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to deserialize product state", e);
+        }
+    }
+    
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        relay.shutdown();
+        if (!relay.awaitTermination(SHUTDOWN_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+            log.warn("Product outbox relay still running after {}s, interrupting", SHUTDOWN_TIMEOUT_SECONDS);
+            relay.shutdownNow();
+        }
+    }
+}
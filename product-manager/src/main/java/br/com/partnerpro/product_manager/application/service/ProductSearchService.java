@@ -0,0 +1,359 @@
+package br.com.partnerpro.product_manager.application.service;
+
+import br.com.partnerpro.product_manager.domain.event.ProductEvent;
+import br.com.partnerpro.product_manager.domain.model.ProductCursor;
+import br.com.partnerpro.product_manager.domain.repository.ProductRepository;
+import br.com.partnerpro.product_manager.domain.specification.ProductSpecification;
+import br.com.partnerpro.product_manager.framework.dto.ProductResponse;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.LowerCaseFilter;
+import org.apache.lucene.analysis.TokenStream;
+import org.apache.lucene.analysis.Tokenizer;
+import org.apache.lucene.analysis.miscellaneous.ASCIIFoldingFilter;
+import org.apache.lucene.analysis.standard.StandardTokenizer;
+import org.apache.lucene.analysis.tokenattributes.CharTermAttribute;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.index.DirectoryReader;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.MultiBits;
+import org.apache.lucene.index.StoredFields;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.BooleanClause;
+import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.BoostQuery;
+import org.apache.lucene.search.ControlledRealTimeReopenThread;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.PrefixQuery;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.SearcherManager;
+import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.store.ByteBuffersDirectory;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.FSDirectory;
+import org.apache.lucene.util.Bits;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Sort;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ProductSearchService {
+    
+    private static final String FIELD_ID = "id";
+    private static final String FIELD_NAME = "name";
+    private static final String FIELD_DESCRIPTION = "description";
+    private static final String FIELD_CATEGORY = "category";
+    private static final Map<String, Float> FIELD_BOOSTS = Map.of(
+            FIELD_NAME, 3.0f,
+            FIELD_CATEGORY, 2.0f,
+            FIELD_DESCRIPTION, 1.0f
+    );
+    private static final int REBUILD_BATCH_SIZE = 1000;
+    // Drops articles and prepositions ("de", "com", "os") that would prefix-match half the catalogue
+    private static final int MIN_RANK_TERM_LENGTH = 3;
+    private static final long SHUTDOWN_TIMEOUT_SECONDS = 10;
+    
+    private final ProductRepository productRepository;
+    
+    @Value("${product.search.index-path:}")
+    private String indexPath;
+    
+    @Value("${product.search.max-stale-ms:1000}")
+    private long maxStaleMs;
+    
+    private final Analyzer analyzer = new FoldingAnalyzer();
+    private Directory directory;
+    private IndexWriter writer;
+    private SearcherManager searcherManager;
+    private ControlledRealTimeReopenThread<IndexSearcher> reopenThread;
+    private final Lock rebuildLock = new ReentrantLock();
+    // At most one rebuild waiting behind the running one: a rebuild that has not started yet covers every later request
+    private final ThreadPoolExecutor rebuilder = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(1),
+            new CustomizableThreadFactory("product-search-rebuild-"),
+            new ThreadPoolExecutor.DiscardPolicy());
+    // Products changed by events while a rebuild reads the catalog keep what the events wrote; null when none runs
+    private Set<UUID> racing;
+    
+    @PostConstruct
+    void open() throws IOException {
+        directory = indexPath == null || indexPath.isBlank()
+                ? new ByteBuffersDirectory()
+                : FSDirectory.open(Path.of(indexPath));
+        // An index kept on disk is reconciled by the rebuild instead of being thrown away on every start
+        writer = new IndexWriter(directory, new IndexWriterConfig(analyzer)
+                .setOpenMode(IndexWriterConfig.OpenMode.CREATE_OR_APPEND));
+        searcherManager = new SearcherManager(writer, null);
+        
+        reopenThread = new ControlledRealTimeReopenThread<>(writer, searcherManager, maxStaleMs / 1000.0, 0.025);
+        reopenThread.setName("product-search-reopen");
+        reopenThread.setDaemon(true);
+        reopenThread.start();
+    }
+    
+    @PreDestroy
+    void close() throws IOException {
+        rebuilder.shutdown();
+        try {
+            if (!rebuilder.awaitTermination(SHUTDOWN_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                log.warn("Product search rebuild still running after {}s, interrupting", SHUTDOWN_TIMEOUT_SECONDS);
+                rebuilder.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            rebuilder.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+        reopenThread.close();
+        searcherManager.close();
+        writer.close();
+        directory.close();
+    }
+    
+    // For callers that must not wait for a full catalogue read, like the cache invalidation listener
+    public void requestRebuild() {
+        rebuilder.execute(this::rebuild);
+    }
+    
+    // A batch read before a relayed change must not write back what the change replaced or removed
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        log.info("Rebuilding product search index");
+        rebuildLock.lock();
+        try {
+            synchronized (this) {
+                racing = new HashSet<>();
+            }
+            
+            Set<UUID> current = new HashSet<>();
+            ProductCursor cursor = null;
+            List<ProductResponse> batch;
+            do {
+                batch = productRepository.findResponses(
+                        ProductSpecification.after(cursor), ProductSpecification.KEYSET_SORT, REBUILD_BATCH_SIZE);
+                synchronized (this) {
+                    for (ProductResponse product : batch) {
+                        current.add(product.id());
+                        if (!racing.contains(product.id())) {
+                            index(product);
+                        }
+                    }
+                }
+                if (!batch.isEmpty()) {
+                    cursor = ProductCursor.of(batch.get(batch.size() - 1));
+                }
+            } while (batch.size() == REBUILD_BATCH_SIZE);
+            
+            int removed;
+            synchronized (this) {
+                removed = removeAllExcept(current);
+            }
+            writer.commit();
+            searcherManager.maybeRefresh();
+            log.info("Product search index rebuilt with {} products, {} stale entries removed", current.size(), removed);
+        } catch (IOException | UncheckedIOException e) {
+            log.error("Error rebuilding product search index", e);
+        } finally {
+            synchronized (this) {
+                racing = null;
+            }
+            rebuildLock.unlock();
+        }
+    }
+    
+    // Products deleted while this node was down are still in an index kept on disk
+    private int removeAllExcept(Set<UUID> current) throws IOException {
+        List<Term> stale = new ArrayList<>();
+        try (DirectoryReader reader = DirectoryReader.open(writer)) {
+            Bits liveDocs = MultiBits.getLiveDocs(reader);
+            StoredFields storedFields = reader.storedFields();
+            for (int doc = 0; doc < reader.maxDoc(); doc++) {
+                if (liveDocs != null && !liveDocs.get(doc)) {
+                    continue;
+                }
+                String id = storedFields.document(doc, Set.of(FIELD_ID)).get(FIELD_ID);
+                UUID productId = UUID.fromString(id);
+                if (!current.contains(productId) && !racing.contains(productId)) {
+                    stale.add(new Term(FIELD_ID, id));
+                }
+            }
+        }
+        writer.deleteDocuments(stale.toArray(Term[]::new));
+        return stale.size();
+    }
+    
+    @EventListener
+    public synchronized void onProductEvent(ProductEvent event) {
+        if (racing != null) {
+            racing.add(event.productId());
+        }
+        // A failed update only leaves the index stale until the next rebuild, it must not block other listeners
+        try {
+            if (event.after() != null) {
+                index(event.after());
+            } else {
+                remove(event.productId());
+            }
+        } catch (UncheckedIOException e) {
+            log.error("Error updating search index for product {}", event.productId(), e);
+        }
+    }
+    
+    private void index(ProductResponse product) {
+        try {
+            writer.updateDocument(new Term(FIELD_ID, product.id().toString()), toDocument(product));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to index product " + product.id(), e);
+        }
+    }
+    
+    private void remove(UUID id) {
+        try {
+            writer.deleteDocuments(new Term(FIELD_ID, id.toString()));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to remove product " + id + " from search index", e);
+        }
+    }
+    
+    public List<UUID> search(String text, int limit) {
+        return new ArrayList<>(execute(buildQuery(analyze(text), BooleanClause.Occur.MUST), limit).keySet());
+    }
+    
+    // Any term may match, for ranking free text such as a chat message instead of narrowing a search box
+    public Map<UUID, Float> rank(String text, int limit) {
+        List<String> terms = analyze(text).stream()
+                .filter(term -> term.length() >= MIN_RANK_TERM_LENGTH)
+                .distinct()
+                .toList();
+        return execute(buildQuery(terms, BooleanClause.Occur.SHOULD), limit);
+    }
+    
+    private Map<UUID, Float> execute(Query query, int limit) {
+        if (query == null) {
+            return Map.of();
+        }
+        
+        try {
+            IndexSearcher searcher = searcherManager.acquire();
+            try {
+                Map<UUID, Float> scores = new LinkedHashMap<>();
+                for (ScoreDoc hit : searcher.search(query, limit).scoreDocs) {
+                    scores.put(UUID.fromString(searcher.storedFields().document(hit.doc).get(FIELD_ID)), hit.score);
+                }
+                return scores;
+            } finally {
+                searcherManager.release(searcher);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to search products", e);
+        }
+    }
+    
+    public List<ProductResponse> searchProducts(String text, int limit) {
+        List<UUID> ids = search(text, limit);
+        Map<UUID, ProductResponse> byId = load(ids);
+        
+        return ids.stream()
+                .map(byId::get)
+                .filter(Objects::nonNull)
+                .toList();
+    }
+    
+    private Map<UUID, ProductResponse> load(Collection<UUID> ids) {
+        if (ids.isEmpty()) {
+            return Map.of();
+        }
+        return productRepository.findResponses(ProductSpecification.withIds(ids), Sort.unsorted(), ids.size()).stream()
+                .collect(Collectors.toMap(ProductResponse::id, Function.identity()));
+    }
+    
+    private Query buildQuery(List<String> terms, BooleanClause.Occur occur) {
+        if (terms.isEmpty()) {
+            return null;
+        }
+        
+        BooleanQuery.Builder query = new BooleanQuery.Builder();
+        for (String term : terms) {
+            BooleanQuery.Builder termQuery = new BooleanQuery.Builder();
+            FIELD_BOOSTS.forEach((field, boost) -> {
+                termQuery.add(new BoostQuery(new TermQuery(new Term(field, term)), boost * 2), BooleanClause.Occur.SHOULD);
+                termQuery.add(new BoostQuery(new PrefixQuery(new Term(field, term)), boost), BooleanClause.Occur.SHOULD);
+            });
+            query.add(termQuery.build(), occur);
+        }
+        return query.build();
+    }
+    
+    private List<String> analyze(String text) {
+        List<String> terms = new ArrayList<>();
+        if (text == null || text.isBlank()) {
+            return terms;
+        }
+        
+        try (TokenStream stream = analyzer.tokenStream(FIELD_NAME, text)) {
+            CharTermAttribute term = stream.addAttribute(CharTermAttribute.class);
+            stream.reset();
+            while (stream.incrementToken()) {
+                terms.add(term.toString());
+            }
+            stream.end();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to analyze search text", e);
+        }
+        return terms;
+    }
+    
+    private Document toDocument(ProductResponse product) {
+        Document document = new Document();
+        document.add(new StringField(FIELD_ID, product.id().toString(), Field.Store.YES));
+        document.add(new TextField(FIELD_NAME, product.name(), Field.Store.NO));
+        document.add(new TextField(FIELD_CATEGORY, product.category(), Field.Store.NO));
+        if (product.description() != null) {
+            document.add(new TextField(FIELD_DESCRIPTION, product.description(), Field.Store.NO));
+        }
+        return document;
+    }
+    
+    private static class FoldingAnalyzer extends Analyzer {
+        
+        @Override
+        protected TokenStreamComponents createComponents(String fieldName) {
+            Tokenizer tokenizer = new StandardTokenizer();
+            TokenStream stream = new LowerCaseFilter(tokenizer);
+            stream = new ASCIIFoldingFilter(stream);
+            return new TokenStreamComponents(tokenizer, stream);
+        }
+    }
+}
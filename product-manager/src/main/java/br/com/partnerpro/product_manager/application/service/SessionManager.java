@@ -1,7 +1,9 @@
 package br.com.partnerpro.product_manager.application.service;
 
 import br.com.partnerpro.product_manager.domain.model.ChatSession;
+import br.com.partnerpro.product_manager.domain.model.ConversationMemory;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
@@ -16,6 +18,12 @@ public class SessionManager {
     private final Map<String, ChatSession> sessions = new ConcurrentHashMap<>();
     private static final int SESSION_TIMEOUT_MINUTES = 30;
     
+    @Value("${product.ai.chat.memory.turns:" + ConversationMemory.DEFAULT_MAX_TURNS + "}")
+    private int memoryTurns = ConversationMemory.DEFAULT_MAX_TURNS;
+    
+    @Value("${product.ai.chat.memory.summary-tokens:" + ConversationMemory.DEFAULT_MAX_SUMMARY_TOKENS + "}")
+    private int memorySummaryTokens = ConversationMemory.DEFAULT_MAX_SUMMARY_TOKENS;
+    
     public ChatSession getOrCreateSession(String sessionId) {
         if (sessionId == null || sessionId.isEmpty()) {
             sessionId = UUID.randomUUID().toString();
@@ -25,13 +33,13 @@ public class SessionManager {
         ChatSession session = sessions.get(sessionId);
         
         if (session == null) {
-            session = new ChatSession(sessionId);
+            session = newSession(sessionId);
             sessions.put(sessionId, session);
             log.info("New session created: {}", sessionId);
         } else {
             if (isSessionExpired(session)) {
                 log.info("Session expired, creating new one: {}", sessionId);
-                session = new ChatSession(sessionId);
+                session = newSession(sessionId);
                 sessions.put(sessionId, session);
             }
         }
@@ -49,6 +57,10 @@ public class SessionManager {
         log.info("All sessions cleared");
     }
     
+    private ChatSession newSession(String sessionId) {
+        return new ChatSession(sessionId, new ConversationMemory(memoryTurns, memorySummaryTokens));
+    }
+    
     private boolean isSessionExpired(ChatSession session) {
         LocalDateTime expirationTime = session.getLastActivity().plusMinutes(SESSION_TIMEOUT_MINUTES);
         return LocalDateTime.now().isAfter(expirationTime);
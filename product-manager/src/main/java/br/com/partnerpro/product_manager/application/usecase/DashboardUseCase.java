@@ -1,37 +1,208 @@
 package br.com.partnerpro.product_manager.application.usecase;
 
+import br.com.partnerpro.product_manager.application.service.InventoryAggregateService;
 import br.com.partnerpro.product_manager.domain.repository.ProductRepository;
+import br.com.partnerpro.product_manager.domain.specification.ProductSpecification;
+import br.com.partnerpro.product_manager.framework.dto.CategoryStats;
 import br.com.partnerpro.product_manager.framework.dto.DashboardResponse;
-import lombok.RequiredArgsConstructor;
+import br.com.partnerpro.product_manager.framework.dto.InventorySummary;
+import br.com.partnerpro.product_manager.framework.dto.ProductResponse;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.cache.annotation.Cacheable;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 
 @Service
-@RequiredArgsConstructor
 @Slf4j
 public class DashboardUseCase {
     
+    public static final int LOW_STOCK_THRESHOLD = 10;
+    private static final int TOP_PRODUCTS_LIMIT = 5;
+    private static final int LOW_STOCK_PRODUCTS_LIMIT = 50;
+    private static final long SHUTDOWN_TIMEOUT_SECONDS = 10;
+    
     private final ProductRepository productRepository;
+    private final InventoryAggregateService inventoryAggregateService;
+    private final TransactionTemplate transactionTemplate;
+    private final Duration maxAge;
+    private final ExecutorService refresher;
     
-    @Cacheable("dashboard")
-    @Transactional(readOnly = true)
+    // Guarded by this: the served snapshot, the running refresh and the changes it has not seen yet
+    private Snapshot snapshot;
+    private CompletableFuture<Snapshot> refreshing;
+    private long generation;
+    private Instant staleSince;
+    
+    public DashboardUseCase(ProductRepository productRepository,
+                            InventoryAggregateService inventoryAggregateService,
+                            PlatformTransactionManager transactionManager,
+                            MeterRegistry meterRegistry,
+                            @Value("${product.dashboard.max-age:5m}") Duration maxAge) {
+        this.productRepository = productRepository;
+        this.inventoryAggregateService = inventoryAggregateService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.maxAge = maxAge;
+        this.refresher = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(),
+                new CustomizableThreadFactory("dashboard-refresh-"));
+        TimeGauge.builder("dashboard.staleness", this, TimeUnit.MILLISECONDS, DashboardUseCase::stalenessMillis)
+                .description("How long the served dashboard has been behind the catalogue")
+                .register(meterRegistry);
+    }
+    
+    // Stale-while-revalidate: only the very first call waits, later ones get the last snapshot while it is rebuilt
     public DashboardResponse getDashboardData() {
-        log.debug("Fetching dashboard data from database");
+        CompletableFuture<Snapshot> pending;
+        synchronized (this) {
+            if (snapshot != null) {
+                if (staleSince == null && snapshot.computedAt().plus(maxAge).isBefore(Instant.now())) {
+                    staleSince = snapshot.computedAt().plus(maxAge);
+                }
+                if (staleSince != null) {
+                    refresh();
+                }
+                return snapshot.data();
+            }
+            pending = refresh();
+        }
         
-        Long totalProducts = productRepository.countProducts();
-        BigDecimal averagePrice = productRepository.findAveragePrice();
+        try {
+            return pending.join().data();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException cause ? cause : e;
+        }
+    }
+    
+    // Called once the aggregates have taken a change; the refresh starts right away so readers rarely see it
+    public synchronized void markStale() {
+        generation++;
+        if (snapshot == null) {
+            return;
+        }
+        if (staleSince == null) {
+            staleSince = Instant.now();
+        }
+        refresh();
+    }
+    
+    // Single flight: concurrent misses share the running refresh, which reruns once if a change arrived meanwhile
+    private synchronized CompletableFuture<Snapshot> refresh() {
+        if (refreshing != null) {
+            return refreshing;
+        }
         
-        if (averagePrice == null) {
-            averagePrice = BigDecimal.ZERO;
+        long startGeneration = generation;
+        CompletableFuture<Snapshot> started = new CompletableFuture<>();
+        refreshing = started;
+        refresher.execute(() -> {
+            try {
+                Snapshot loaded = loadDashboardData();
+                onRefreshed(startGeneration, loaded);
+                started.complete(loaded);
+            } catch (RuntimeException e) {
+                log.error("Error refreshing dashboard data", e);
+                synchronized (this) {
+                    refreshing = null;
+                }
+                started.completeExceptionally(e);
+            }
+        });
+        return started;
+    }
+    
+    private synchronized void onRefreshed(long startGeneration, Snapshot loaded) {
+        refreshing = null;
+        snapshot = loaded;
+        if (generation == startGeneration) {
+            staleSince = null;
+        } else {
+            if (staleSince == null) {
+                staleSince = loaded.computedAt();
+            }
+            refresh();
         }
+    }
+    
+    private synchronized double stalenessMillis() {
+        return staleSince == null ? 0 : Math.max(0, Duration.between(staleSince, Instant.now()).toMillis());
+    }
+    
+    private Snapshot loadDashboardData() {
+        log.debug("Fetching dashboard data from database");
+        Instant computedAt = Instant.now();
+        return new Snapshot(transactionTemplate.execute(status -> computeDashboardData()), computedAt);
+    }
+    
+    private DashboardResponse computeDashboardData() {
+        InventorySummary summary = inventoryAggregateService.summary();
         
         return DashboardResponse.builder()
-                .totalProducts(totalProducts)
-                .averagePrice(averagePrice)
+                .totalProducts(summary.totalProducts())
+                .averagePrice(averagePrice(summary))
+                .totalStock(summary.totalStock())
+                .totalValue(summary.totalValue())
+                .lowStockCount(summary.lowStock())
+                .outOfStockCount(summary.outOfStock())
+                .categories(inventoryAggregateService.categoryStats())
+                .priceDistribution(summary.priceDistribution())
+                .stockLevels(summary.stockLevels())
+                .recentProducts(getRecentProducts())
+                .mostExpensiveProducts(productRepository.findResponses(
+                        null, Sort.by(Sort.Direction.DESC, "price"), TOP_PRODUCTS_LIMIT))
+                .lowStockProducts(productRepository.findResponses(
+                        ProductSpecification.stockBelow(LOW_STOCK_THRESHOLD),
+                        Sort.by(Sort.Direction.ASC, "stock"),
+                        LOW_STOCK_PRODUCTS_LIMIT))
                 .build();
     }
+    
+    public InventorySummary getInventorySummary() {
+        return inventoryAggregateService.summary();
+    }
+    
+    public List<CategoryStats> getCategoryStats() {
+        return inventoryAggregateService.categoryStats();
+    }
+    
+    @Transactional(readOnly = true)
+    public List<ProductResponse> getRecentProducts() {
+        return productRepository.findResponses(null, Sort.by(Sort.Direction.DESC, "createdAt"), TOP_PRODUCTS_LIMIT);
+    }
+    
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        refresher.shutdown();
+        if (!refresher.awaitTermination(SHUTDOWN_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+            refresher.shutdownNow();
+        }
+    }
+    
+    public static BigDecimal averagePrice(InventorySummary summary) {
+        return summary.totalProducts() == 0
+                ? BigDecimal.ZERO
+                : summary.totalPrice().divide(BigDecimal.valueOf(summary.totalProducts()), 2, RoundingMode.HALF_UP);
+    }
+    
+    private record Snapshot(DashboardResponse data, Instant computedAt) {
+    }
 }
@@ -1,57 +1,128 @@
 package br.com.partnerpro.product_manager.application.usecase;
 
+import br.com.partnerpro.product_manager.application.service.ProductEventPublisher;
+import br.com.partnerpro.product_manager.application.service.ProductSearchService;
 import br.com.partnerpro.product_manager.domain.entity.Product;
+import br.com.partnerpro.product_manager.domain.event.ProductCreated;
+import br.com.partnerpro.product_manager.domain.event.ProductDeleted;
+import br.com.partnerpro.product_manager.domain.event.ProductUpdated;
+import br.com.partnerpro.product_manager.domain.model.ProductCursor;
 import br.com.partnerpro.product_manager.domain.repository.ProductRepository;
 import br.com.partnerpro.product_manager.domain.specification.ProductSpecification;
+import br.com.partnerpro.product_manager.framework.cache.CacheNames;
+import br.com.partnerpro.product_manager.framework.dto.BatchUpdateProductRequest;
 import br.com.partnerpro.product_manager.framework.dto.CreateProductRequest;
+import br.com.partnerpro.product_manager.framework.dto.CursorPageResponse;
 import br.com.partnerpro.product_manager.framework.dto.ProductFilterRequest;
 import br.com.partnerpro.product_manager.framework.dto.ProductResponse;
 import br.com.partnerpro.product_manager.framework.dto.UpdateProductRequest;
+import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.CachePut;
 import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class ProductUseCase {
     
+    // Kept in line with spring.jpa.properties.hibernate.jdbc.batch_size
+    private static final int BATCH_SIZE = 50;
+    public static final String ALL_PRODUCTS_KEY = "all";
+    
     private final ProductRepository productRepository;
+    private final ProductSearchService productSearchService;
+    private final ProductEventPublisher productEventPublisher;
+    private final EntityManager entityManager;
+    private final CacheManager cacheManager;
     
-    @Cacheable("products")
+    @Cacheable(value = CacheNames.PRODUCTS, key = "'" + ALL_PRODUCTS_KEY + "'", sync = true)
     @Transactional(readOnly = true)
     public List<ProductResponse> getAllProducts() {
         log.debug("Fetching all products from database");
-        return productRepository.findAll()
-                .stream()
-                .map(ProductResponse::fromEntity)
-                .toList();
+        return productRepository.findAllResponses();
     }
     
     @Transactional(readOnly = true)
     public Page<ProductResponse> getAllProducts(Pageable pageable) {
         log.debug("Fetching all products with pagination");
-        return productRepository.findAll(pageable)
-                .map(ProductResponse::fromEntity);
+        return productRepository.findResponses(null, pageable);
     }
     
     @Transactional(readOnly = true)
     public Page<ProductResponse> filterProducts(ProductFilterRequest filters, Pageable pageable) {
         log.debug("Filtering products with pagination: {}", filters);
         Specification<Product> spec = ProductSpecification.withFilters(filters);
-        return productRepository.findAll(spec, pageable)
-                .map(ProductResponse::fromEntity);
+        return productRepository.findResponses(spec, pageable);
+    }
+    
+    @Transactional(readOnly = true)
+    public List<ProductResponse> findProducts(ProductFilterRequest filters, Sort sort, int offset, int limit) {
+        log.debug("Fetching products {}-{} with filters: {}", offset, offset + limit, filters);
+        // id breaks ties so rows never repeat or vanish between offset pages
+        Sort stableSort = sort.isSorted() ? sort.and(Sort.by("id")) : ProductSpecification.KEYSET_SORT;
+        return productRepository.findResponses(ProductSpecification.withFilters(filters), stableSort, offset, limit);
+    }
+    
+    @Transactional(readOnly = true)
+    public long countProducts(ProductFilterRequest filters) {
+        return productRepository.count(ProductSpecification.withFilters(filters));
+    }
+    
+    @Transactional(readOnly = true)
+    public CursorPageResponse<ProductResponse> getProductsAfter(String cursor, int size) {
+        log.debug("Fetching products after cursor: {}", cursor);
+        return seek(null, cursor, size);
     }
     
+    @Transactional(readOnly = true)
+    public CursorPageResponse<ProductResponse> filterProductsAfter(ProductFilterRequest filters, String cursor, int size) {
+        log.debug("Filtering products after cursor {}: {}", cursor, filters);
+        return seek(filters, cursor, size);
+    }
+    
+    private CursorPageResponse<ProductResponse> seek(ProductFilterRequest filters, String cursor, int size) {
+        ProductCursor after = cursor == null || cursor.isBlank() ? null : ProductCursor.decode(cursor);
+        Specification<Product> spec = ProductSpecification.after(after);
+        if (filters != null) {
+            spec = spec.and(ProductSpecification.withFilters(filters));
+        }
+        
+        // Fetch one extra row to know whether another page exists without running a COUNT(*)
+        List<ProductResponse> rows = productRepository.findResponses(spec, ProductSpecification.KEYSET_SORT, size + 1);
+        
+        boolean hasNext = rows.size() > size;
+        List<ProductResponse> page = hasNext ? rows.subList(0, size) : rows;
+        
+        return CursorPageResponse.<ProductResponse>builder()
+                .content(page)
+                .size(page.size())
+                .nextCursor(hasNext ? ProductCursor.of(page.get(page.size() - 1)).encode() : null)
+                .hasNext(hasNext)
+                .build();
+    }
+    
+    @Cacheable(value = CacheNames.PRODUCT, key = "#id", sync = true)
     @Transactional(readOnly = true)
     public ProductResponse getProductById(UUID id) {
         log.debug("Fetching product with id: {}", id);
@@ -60,7 +131,7 @@ public class ProductUseCase {
                 .orElseThrow(() -> new RuntimeException("Product not found with id: " + id));
     }
     
-    @CacheEvict(value = {"products", "dashboard"}, allEntries = true)
+    @CacheEvict(value = CacheNames.PRODUCTS, allEntries = true)
     @Transactional
     public ProductResponse createProduct(CreateProductRequest request) {
         log.info("Creating new product: {}", request.name());
@@ -76,16 +147,23 @@ public class ProductUseCase {
         Product savedProduct = productRepository.save(product);
         log.info("Product created successfully with id: {}", savedProduct.getId());
         
-        return ProductResponse.fromEntity(savedProduct);
+        ProductResponse response = ProductResponse.fromEntity(savedProduct);
+        productEventPublisher.publish(new ProductCreated(response));
+        return response;
     }
     
-    @CacheEvict(value = {"products", "dashboard"}, allEntries = true)
+    // The entry is written here rather than by the relay, so a read right after the update already sees it
+    @Caching(
+            put = @CachePut(value = CacheNames.PRODUCT, key = "#id"),
+            evict = @CacheEvict(value = CacheNames.PRODUCTS, allEntries = true)
+    )
     @Transactional
     public ProductResponse updateProduct(UUID id, UpdateProductRequest request) {
         log.info("Updating product with id: {}", id);
         
-        Product product = productRepository.findById(id)
+        Product product = productRepository.findByIdForUpdate(id)
                 .orElseThrow(() -> new RuntimeException("Product not found with id: " + id));
+        ProductResponse before = ProductResponse.fromEntity(product);
         
         product.setName(request.name());
         product.setDescription(request.description());
@@ -96,29 +174,127 @@ public class ProductUseCase {
         Product updatedProduct = productRepository.save(product);
         log.info("Product updated successfully");
         
-        return ProductResponse.fromEntity(updatedProduct);
+        ProductResponse response = ProductResponse.fromEntity(updatedProduct);
+        productEventPublisher.publish(new ProductUpdated(before, response));
+        return response;
+    }
+    
+    @CacheEvict(value = CacheNames.PRODUCTS, allEntries = true)
+    @Transactional
+    public List<ProductResponse> createProducts(List<CreateProductRequest> requests) {
+        log.info("Creating batch of {} products", requests.size());
+        
+        List<ProductResponse> responses = new ArrayList<>(requests.size());
+        for (int start = 0; start < requests.size(); start += BATCH_SIZE) {
+            List<Product> chunk = requests.subList(start, Math.min(start + BATCH_SIZE, requests.size()))
+                    .stream()
+                    .map(request -> Product.builder()
+                            .name(request.name())
+                            .description(request.description())
+                            .price(request.price())
+                            .category(request.category())
+                            .stock(request.stock())
+                            .build())
+                    .toList();
+            
+            productRepository.saveAll(chunk).forEach(saved -> responses.add(ProductResponse.fromEntity(saved)));
+            flushAndClear();
+        }
+        
+        log.info("Batch of {} products created successfully", responses.size());
+        productEventPublisher.publishAll(responses.stream().map(ProductCreated::new).toList());
+        return responses;
+    }
+    
+    @CacheEvict(value = CacheNames.PRODUCTS, allEntries = true)
+    @Transactional
+    public List<ProductResponse> updateProducts(List<BatchUpdateProductRequest.Item> requests) {
+        log.info("Updating batch of {} products", requests.size());
+        
+        List<ProductUpdated> events = new ArrayList<>(requests.size());
+        List<ProductResponse> responses = new ArrayList<>(requests.size());
+        for (int start = 0; start < requests.size(); start += BATCH_SIZE) {
+            List<BatchUpdateProductRequest.Item> chunk = requests.subList(start, Math.min(start + BATCH_SIZE, requests.size()));
+            
+            Map<UUID, Product> products = productRepository.findAllByIdForUpdate(
+                    chunk.stream().map(BatchUpdateProductRequest.Item::id).toList()
+            ).stream().collect(Collectors.toMap(Product::getId, Function.identity()));
+            
+            List<UUID> missing = chunk.stream()
+                    .map(BatchUpdateProductRequest.Item::id)
+                    .filter(id -> !products.containsKey(id))
+                    .toList();
+            if (!missing.isEmpty()) {
+                throw new RuntimeException("Products not found with ids: " + missing);
+            }
+            
+            for (BatchUpdateProductRequest.Item request : chunk) {
+                Product product = products.get(request.id());
+                ProductResponse before = ProductResponse.fromEntity(product);
+                product.setName(request.name());
+                product.setDescription(request.description());
+                product.setPrice(request.price());
+                product.setCategory(request.category());
+                product.setStock(request.stock());
+                ProductResponse response = ProductResponse.fromEntity(product);
+                responses.add(response);
+                events.add(new ProductUpdated(before, response));
+            }
+            flushAndClear();
+        }
+        
+        log.info("Batch of {} products updated successfully", responses.size());
+        productEventPublisher.publishAll(events);
+        putAfterCommit(responses);
+        return responses;
+    }
+    
+    // What @CachePut does for updateProduct, for many keys at once: a read right after the batch already sees it
+    private void putAfterCommit(List<ProductResponse> responses) {
+        Cache cache = cacheManager.getCache(CacheNames.PRODUCT);
+        if (cache == null) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            responses.forEach(response -> cache.put(response.id(), response));
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                responses.forEach(response -> cache.put(response.id(), response));
+            }
+        });
     }
     
-    @CacheEvict(value = {"products", "dashboard"}, allEntries = true)
+    @Caching(evict = {
+            @CacheEvict(value = CacheNames.PRODUCT, key = "#id"),
+            @CacheEvict(value = CacheNames.PRODUCTS, allEntries = true)
+    })
     @Transactional
     public void deleteProduct(UUID id) {
         log.info("Deleting product with id: {}", id);
         
-        if (!productRepository.existsById(id)) {
-            throw new RuntimeException("Product not found with id: " + id);
-        }
+        Product product = productRepository.findByIdForUpdate(id)
+                .orElseThrow(() -> new RuntimeException("Product not found with id: " + id));
+        ProductResponse before = ProductResponse.fromEntity(product);
         
-        productRepository.deleteById(id);
+        productRepository.delete(product);
         log.info("Product deleted successfully");
+        
+        productEventPublisher.publish(new ProductDeleted(before));
+    }
+    
+    @Transactional(readOnly = true)
+    public List<ProductResponse> fullTextSearch(String text, int limit) {
+        log.debug("Full-text searching products: {}", text);
+        return productSearchService.searchProducts(text, limit);
     }
     
     @Transactional(readOnly = true)
     public List<ProductResponse> getProductsByCategory(String category) {
         log.debug("Fetching products by category: {}", category);
-        return productRepository.findByCategory(category)
-                .stream()
-                .map(ProductResponse::fromEntity)
-                .toList();
+        return productRepository.findResponsesByCategory(category);
     }
     
     @Transactional(readOnly = true)
@@ -167,4 +343,9 @@ public class ProductUseCase {
                 })
                 .toList();
     }
+    
+    private void flushAndClear() {
+        entityManager.flush();
+        entityManager.clear();
+    }
 }
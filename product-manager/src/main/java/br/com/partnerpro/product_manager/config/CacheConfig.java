@@ -1,9 +1,122 @@
 package br.com.partnerpro.product_manager.config;
 
+import br.com.partnerpro.product_manager.domain.model.CachedReport;
+import br.com.partnerpro.product_manager.framework.cache.CacheNames;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.boot.autoconfigure.cache.CacheManagerCustomizer;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
 @Configuration
 @EnableCaching
+@EnableConfigurationProperties({
+        CacheConfig.ProductCacheProperties.class,
+        CacheConfig.ProductListCacheProperties.class,
+        CacheConfig.ReportCacheProperties.class,
+        CacheConfig.QueryCacheProperties.class
+})
 public class CacheConfig {
+    
+    // Every cache records stats, which Boot binds to Micrometer as cache.gets, cache.evictions and cache.load.*
+    @Bean
+    public CacheManagerCustomizer<CaffeineCacheManager> cachePolicies(ProductCacheProperties product,
+                                                                      ProductListCacheProperties products,
+                                                                      ReportCacheProperties reports,
+                                                                      QueryCacheProperties queries) {
+        return cacheManager -> {
+            // Static names: a typo in a @Cacheable fails fast instead of silently creating an unbounded cache
+            cacheManager.setCacheNames(List.of(CacheNames.PRODUCT, CacheNames.PRODUCTS,
+                    CacheNames.AI_REPORTS, CacheNames.AI_QUERIES));
+            
+            // Kept current by write-through on every change; expiry only bounds drift from writes made outside the app
+            cacheManager.registerCustomCache(CacheNames.PRODUCT, Caffeine.newBuilder()
+                    .maximumSize(product.maximumSize())
+                    .expireAfterWrite(product.expireAfterWrite())
+                    .recordStats()
+                    .build());
+            
+            // Weighed by row count, so a catalogue too large to hold in memory is simply not cached
+            cacheManager.registerCustomCache(CacheNames.PRODUCTS, Caffeine.newBuilder()
+                    .maximumWeight(products.maximumRows())
+                    .weigher((key, value) -> value instanceof Collection<?> rows ? Math.max(1, rows.size()) : 1)
+                    .expireAfterWrite(products.expireAfterWrite())
+                    .recordStats()
+                    .build());
+            
+            // Keys carry the catalog fingerprint, so expiry only bounds how long a report's wording is reused;
+            // it counts from createdAt so reports restored from disk keep their original age
+            cacheManager.registerCustomCache(CacheNames.AI_REPORTS, Caffeine.newBuilder()
+                    .maximumSize(reports.maximumSize())
+                    .expireAfter(Expiry.writing((Object key, Object value) -> value instanceof CachedReport report
+                            ? remaining(report, reports.ttl())
+                            : reports.ttl()))
+                    .recordStats()
+                    .build());
+            
+            // Expiry lets translations pick up categories added since the prompt listed them
+            cacheManager.registerCustomCache(CacheNames.AI_QUERIES, Caffeine.newBuilder()
+                    .maximumSize(queries.maximumSize())
+                    .expireAfterWrite(queries.expireAfterWrite())
+                    .recordStats()
+                    .build());
+        };
+    }
+    
+    private static Duration remaining(CachedReport report, Duration ttl) {
+        Duration left = ttl.minus(Duration.between(report.createdAt(), Instant.now()));
+        return left.isNegative() ? Duration.ZERO : left;
+    }
+    
+    // Micrometer only reports load times for LoadingCache; @Cacheable(sync = true) loads through get(key, loader)
+    @Bean
+    public MeterBinder cacheLoadMetrics(CacheManager cacheManager) {
+        return registry -> cacheManager.getCacheNames().forEach(name -> {
+            if (cacheManager.getCache(name) instanceof CaffeineCache caffeineCache) {
+                FunctionTimer.builder("cache.loads", caffeineCache.getNativeCache(),
+                                cache -> cache.stats().loadCount(),
+                                cache -> cache.stats().totalLoadTime(),
+                                TimeUnit.NANOSECONDS)
+                        .tag("cache", name)
+                        .description("Time spent computing values on cache misses")
+                        .register(registry);
+            }
+        });
+    }
+    
+    @ConfigurationProperties("product.cache.product")
+    public record ProductCacheProperties(@DefaultValue("10000") long maximumSize,
+                                         @DefaultValue("10m") Duration expireAfterWrite) {
+    }
+    
+    @ConfigurationProperties("product.cache.products")
+    public record ProductListCacheProperties(@DefaultValue("50000") long maximumRows,
+                                             @DefaultValue("5m") Duration expireAfterWrite) {
+    }
+    
+    // product.ai.report-cache.path is read by AIReportService, which persists the cache
+    @ConfigurationProperties("product.ai.report-cache")
+    public record ReportCacheProperties(@DefaultValue("500") long maximumSize,
+                                        @DefaultValue("12h") Duration ttl) {
+    }
+    
+    @ConfigurationProperties("product.ai.query-cache")
+    public record QueryCacheProperties(@DefaultValue("1000") long maximumSize,
+                                       @DefaultValue("1h") Duration expireAfterWrite) {
+    }
 }
@@ -0,0 +1,45 @@
+package br.com.partnerpro.product_manager.domain.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.UUID;
+
+@Entity
+@Table(name = "product_outbox")
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductOutboxEntry {
+    
+    // Sequence rather than identity so outbox rows keep JDBC batching for bulk writes. Ids come in blocks per node,
+    // so they are unique but say nothing about the order rows were written in
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "product_outbox_seq")
+    @SequenceGenerator(name = "product_outbox_seq", sequenceName = "product_outbox_seq", allocationSize = 50)
+    private Long id;
+    
+    @Column(name = "event_type", nullable = false, length = 32)
+    private String eventType;
+    
+    @Column(name = "product_id", nullable = false)
+    private UUID productId;
+    
+    @Column(name = "before_state", columnDefinition = "TEXT")
+    private String beforeState;
+    
+    @Column(name = "after_state", columnDefinition = "TEXT")
+    private String afterState;
+    
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+    
+    // Stamped when the writer saves the row, while it still holds the product's lock
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+    }
+}
@@ -0,0 +1,15 @@
+package br.com.partnerpro.product_manager.domain.event;
+
+import br.com.partnerpro.product_manager.framework.dto.ProductResponse;
+
+public record ProductCreated(long sequence, ProductResponse after) implements ProductEvent {
+    
+    public ProductCreated(ProductResponse after) {
+        this(0, after);
+    }
+    
+    @Override
+    public ProductResponse before() {
+        return null;
+    }
+}
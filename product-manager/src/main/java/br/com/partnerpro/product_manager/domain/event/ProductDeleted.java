@@ -0,0 +1,15 @@
+package br.com.partnerpro.product_manager.domain.event;
+
+import br.com.partnerpro.product_manager.framework.dto.ProductResponse;
+
+public record ProductDeleted(long sequence, ProductResponse before) implements ProductEvent {
+    
+    public ProductDeleted(ProductResponse before) {
+        this(0, before);
+    }
+    
+    @Override
+    public ProductResponse after() {
+        return null;
+    }
+}
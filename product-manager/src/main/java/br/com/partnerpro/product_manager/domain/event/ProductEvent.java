@@ -0,0 +1,21 @@
+package br.com.partnerpro.product_manager.domain.event;
+
+import br.com.partnerpro.product_manager.framework.dto.ProductResponse;
+
+import java.util.UUID;
+
+public sealed interface ProductEvent permits ProductCreated, ProductUpdated, ProductDeleted {
+    
+    // Id of the outbox row the event was relayed from, 0 before it is stored
+    long sequence();
+    
+    // State before the change, null for creations
+    ProductResponse before();
+    
+    // State after the change, null for deletions
+    ProductResponse after();
+    
+    default UUID productId() {
+        return after() != null ? after().id() : before().id();
+    }
+}
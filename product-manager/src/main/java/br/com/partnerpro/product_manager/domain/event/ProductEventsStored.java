@@ -0,0 +1,8 @@
+package br.com.partnerpro.product_manager.domain.event;
+
+import java.util.List;
+import java.util.UUID;
+
+// Published in the writer's transaction once its events are in the outbox, before any node relays them
+public record ProductEventsStored(List<UUID> productIds) {
+}
@@ -0,0 +1,10 @@
+package br.com.partnerpro.product_manager.domain.event;
+
+import br.com.partnerpro.product_manager.framework.dto.ProductResponse;
+
+public record ProductUpdated(long sequence, ProductResponse before, ProductResponse after) implements ProductEvent {
+    
+    public ProductUpdated(ProductResponse before, ProductResponse after) {
+        this(0, before, after);
+    }
+}
@@ -0,0 +1,6 @@
+package br.com.partnerpro.product_manager.domain.model;
+
+import java.time.Instant;
+
+public record CachedReport(String report, Instant createdAt) {
+}
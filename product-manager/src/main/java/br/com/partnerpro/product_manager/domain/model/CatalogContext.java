@@ -0,0 +1,13 @@
+package br.com.partnerpro.product_manager.domain.model;
+
+import java.util.List;
+
+// version moves with every change on this node; fingerprint identifies the content itself, also across restarts and nodes
+public record CatalogContext(long version, List<CatalogEntry> entries, String text, String fingerprint) {
+    
+    public static final String COLUMNS = "ID | Nome | Preço (R$) | Categoria | Estoque | Descrição";
+    
+    public int productCount() {
+        return entries.size();
+    }
+}
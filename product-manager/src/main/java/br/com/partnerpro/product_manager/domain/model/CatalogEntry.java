@@ -0,0 +1,6 @@
+package br.com.partnerpro.product_manager.domain.model;
+
+import br.com.partnerpro.product_manager.framework.dto.ProductResponse;
+
+public record CatalogEntry(ProductResponse product, String line) {
+}
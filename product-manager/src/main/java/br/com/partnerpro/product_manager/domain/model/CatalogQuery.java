@@ -0,0 +1,158 @@
+package br.com.partnerpro.product_manager.domain.model;
+
+import br.com.partnerpro.product_manager.framework.dto.ProductResponse;
+import br.com.partnerpro.product_manager.framework.text.PromptText;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+// Category, price and stock hints read from a free-text message, used to rank catalog entries for a prompt
+public record CatalogQuery(
+        Set<String> categories,
+        BigDecimal minPrice,
+        BigDecimal maxPrice,
+        Integer minStock,
+        Integer maxStock,
+        Ordering ordering
+) {
+    
+    public enum Ordering { RELEVANCE, CHEAPEST, PRICIEST, LOWEST_STOCK, HIGHEST_STOCK }
+    
+    private static final String NUMBER = "(?:r\\$\\s*)?(\\d[\\d.,]*)\\s*(mil|k)?";
+    private static final String STOCK_UNIT = "\\s*(?:unidades?|itens|pecas|em estoque)";
+    private static final Pattern BETWEEN = Pattern.compile("entre " + NUMBER + " e " + NUMBER + "(" + STOCK_UNIT + ")?");
+    private static final Pattern AT_MOST = Pattern.compile(
+            "(?:abaixo de|menos de|menor que|inferior a|ate|no maximo|max(?:imo)?) " + NUMBER + "(" + STOCK_UNIT + ")?");
+    private static final Pattern AT_LEAST = Pattern.compile(
+            "(?:acima de|mais de|maior que|superior a|a partir de|no minimo|min(?:imo)?) " + NUMBER + "(" + STOCK_UNIT + ")?");
+    private static final Pattern OUT_OF_STOCK = Pattern.compile("sem estoque|esgotad|zerad|em falta");
+    private static final Pattern LOW_STOCK = Pattern.compile(
+            "estoque baixo|baixo estoque|pouco estoque|estoque critico|acabando|repor|reposicao");
+    private static final Pattern CHEAPEST = Pattern.compile("mais barat|menor preco|baratos?\\b");
+    private static final Pattern PRICIEST = Pattern.compile("mais car[oa]s?\\b|maior preco|car[oa]s\\b");
+    private static final Pattern HIGHEST_STOCK = Pattern.compile("maior estoque|mais estoque|mais unidades");
+    private static final Pattern LOWEST_STOCK = Pattern.compile("menor estoque|menos unidades");
+    
+    public static CatalogQuery parse(String message, Collection<String> knownCategories, int lowStockThreshold) {
+        String text = " " + PromptText.fold(message) + " ";
+        
+        Set<String> categories = new LinkedHashSet<>();
+        for (String category : knownCategories) {
+            String folded = PromptText.fold(category);
+            if (!folded.isEmpty() && text.contains(" " + folded)) {
+                categories.add(category);
+            }
+        }
+        
+        BigDecimal minPrice = null;
+        BigDecimal maxPrice = null;
+        Integer minStock = null;
+        Integer maxStock = null;
+        
+        Matcher between = BETWEEN.matcher(text);
+        if (between.find()) {
+            BigDecimal low = number(between.group(1), between.group(2));
+            BigDecimal high = number(between.group(3), between.group(4));
+            if (low != null && high != null) {
+                if (between.group(5) != null) {
+                    minStock = low.min(high).intValue();
+                    maxStock = low.max(high).intValue();
+                } else {
+                    minPrice = low.min(high);
+                    maxPrice = low.max(high);
+                }
+            }
+        }
+        Matcher atMost = AT_MOST.matcher(text);
+        if (atMost.find()) {
+            BigDecimal value = number(atMost.group(1), atMost.group(2));
+            if (value != null && atMost.group(3) != null) {
+                maxStock = value.intValue();
+            } else if (value != null) {
+                maxPrice = value;
+            }
+        }
+        Matcher atLeast = AT_LEAST.matcher(text);
+        if (atLeast.find()) {
+            BigDecimal value = number(atLeast.group(1), atLeast.group(2));
+            if (value != null && atLeast.group(3) != null) {
+                minStock = value.intValue();
+            } else if (value != null) {
+                minPrice = value;
+            }
+        }
+        
+        if (OUT_OF_STOCK.matcher(text).find()) {
+            maxStock = 0;
+        } else if (maxStock == null && LOW_STOCK.matcher(text).find()) {
+            maxStock = lowStockThreshold - 1;
+        }
+        
+        Ordering ordering = Ordering.RELEVANCE;
+        if (CHEAPEST.matcher(text).find()) {
+            ordering = Ordering.CHEAPEST;
+        } else if (PRICIEST.matcher(text).find()) {
+            ordering = Ordering.PRICIEST;
+        } else if (HIGHEST_STOCK.matcher(text).find()) {
+            ordering = Ordering.HIGHEST_STOCK;
+        } else if (LOWEST_STOCK.matcher(text).find()) {
+            ordering = Ordering.LOWEST_STOCK;
+        }
+        
+        return new CatalogQuery(Set.copyOf(categories), minPrice, maxPrice, minStock, maxStock, ordering);
+    }
+    
+    public boolean hasHints() {
+        return !categories.isEmpty() || minPrice != null || maxPrice != null || minStock != null || maxStock != null;
+    }
+    
+    // One point per hint the product satisfies, minus one per hint it contradicts
+    public int score(ProductResponse product) {
+        int score = 0;
+        if (!categories.isEmpty()) {
+            score += categories.contains(product.category()) ? 1 : -1;
+        }
+        if (minPrice != null || maxPrice != null) {
+            boolean inRange = (minPrice == null || product.price().compareTo(minPrice) >= 0)
+                    && (maxPrice == null || product.price().compareTo(maxPrice) <= 0);
+            score += inRange ? 1 : -1;
+        }
+        if (minStock != null || maxStock != null) {
+            boolean inRange = (minStock == null || product.stock() >= minStock)
+                    && (maxStock == null || product.stock() <= maxStock);
+            score += inRange ? 1 : -1;
+        }
+        return score;
+    }
+    
+    public Comparator<ProductResponse> tieBreaker() {
+        return switch (ordering) {
+            case CHEAPEST -> Comparator.comparing(ProductResponse::price);
+            case PRICIEST -> Comparator.comparing(ProductResponse::price).reversed();
+            case LOWEST_STOCK -> Comparator.comparing(ProductResponse::stock);
+            case HIGHEST_STOCK -> Comparator.comparing(ProductResponse::stock).reversed();
+            case RELEVANCE -> (a, b) -> 0;
+        };
+    }
+    
+    // Accepts "1500", "1.500,00", "1500.50", "2 mil" and "3k"
+    public static BigDecimal number(String digits, String multiplier) {
+        String normalized = digits.replaceAll("[.,]$", "");
+        if (normalized.contains(",")) {
+            normalized = normalized.replace(".", "").replace(',', '.');
+        } else if (normalized.matches("\\d{1,3}(\\.\\d{3})+")) {
+            normalized = normalized.replace(".", "");
+        }
+        try {
+            BigDecimal value = new BigDecimal(normalized);
+            return multiplier != null ? value.multiply(BigDecimal.valueOf(1000)) : value;
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,4 @@
+package br.com.partnerpro.product_manager.domain.model;
+
+public record CatalogSelection(long version, int included, int omitted, String text) {
+}
@@ -1,39 +1,36 @@
 package br.com.partnerpro.product_manager.domain.model;
 
 import lombok.Data;
-import org.springframework.ai.chat.messages.Message;
-import org.springframework.ai.chat.messages.UserMessage;
 
 import java.time.LocalDateTime;
-import java.util.ArrayList;
-import java.util.List;
 import java.util.UUID;
 
 @Data
 public class ChatSession {
     private String sessionId;
-    private List<Message> conversationHistory;
+    private ConversationMemory memory;
     private UUID lastProductId;
     private String lastProductName; 
     private LocalDateTime createdAt;
     private LocalDateTime lastActivity;
     
     public ChatSession() {
-        this.sessionId = UUID.randomUUID().toString();
-        this.conversationHistory = new ArrayList<>();
-        this.createdAt = LocalDateTime.now();
-        this.lastActivity = LocalDateTime.now();
+        this(UUID.randomUUID().toString());
     }
     
     public ChatSession(String sessionId) {
+        this(sessionId, new ConversationMemory());
+    }
+    
+    public ChatSession(String sessionId, ConversationMemory memory) {
         this.sessionId = sessionId;
-        this.conversationHistory = new ArrayList<>();
+        this.memory = memory;
         this.createdAt = LocalDateTime.now();
         this.lastActivity = LocalDateTime.now();
     }
     
-    public void addMessage(Message message) {
-        this.conversationHistory.add(message);
+    public void addTurn(String userMessage, String assistantMessage) {
+        this.memory.add(userMessage, assistantMessage);
         this.lastActivity = LocalDateTime.now();
     }
     
@@ -0,0 +1,121 @@
+package br.com.partnerpro.product_manager.domain.model;
+
+import br.com.partnerpro.product_manager.framework.text.PromptText;
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.messages.Message;
+import org.springframework.ai.chat.messages.SystemMessage;
+import org.springframework.ai.chat.messages.UserMessage;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+
+// The last turns verbatim plus a rolling digest of older ones, both bounded, so a long chat keeps constant memory
+public class ConversationMemory {
+    
+    public static final int DEFAULT_MAX_TURNS = 6;
+    public static final int DEFAULT_MAX_SUMMARY_TOKENS = 300;
+    private static final int DIGEST_CHARS = 120;
+    
+    private final int maxTurns;
+    private final int maxSummaryTokens;
+    private final Deque<Turn> recent = new ArrayDeque<>();
+    private final Deque<String> digests = new ArrayDeque<>();
+    private int summaryTokens;
+    private int forgottenTurns;
+    
+    public ConversationMemory() {
+        this(DEFAULT_MAX_TURNS, DEFAULT_MAX_SUMMARY_TOKENS);
+    }
+    
+    public ConversationMemory(int maxTurns, int maxSummaryTokens) {
+        this.maxTurns = maxTurns;
+        this.maxSummaryTokens = maxSummaryTokens;
+    }
+    
+    public synchronized void add(String userMessage, String assistantMessage) {
+        recent.addLast(new Turn(userMessage, assistantMessage));
+        while (recent.size() > maxTurns) {
+            fold(recent.removeFirst());
+        }
+    }
+    
+    // Newest turns win the budget; the digest of older turns goes in first only if it still fits after them
+    public synchronized List<Message> toMessages(int tokenBudget) {
+        List<Turn> included = new ArrayList<>();
+        int used = 0;
+        for (Iterator<Turn> turns = recent.descendingIterator(); turns.hasNext(); ) {
+            Turn turn = turns.next();
+            int cost = turn.tokens();
+            if (used + cost > tokenBudget) {
+                break;
+            }
+            included.add(turn);
+            used += cost;
+        }
+        Collections.reverse(included);
+        
+        List<Message> messages = new ArrayList<>(included.size() * 2 + 1);
+        String summary = summary(included.size() < recent.size() ? recent.size() - included.size() : 0);
+        if (summary != null && used + PromptText.estimateTokens(summary) <= tokenBudget) {
+            messages.add(new SystemMessage(summary));
+        }
+        for (Turn turn : included) {
+            messages.add(new UserMessage(turn.user()));
+            messages.add(new AssistantMessage(turn.assistant()));
+        }
+        return messages;
+    }
+    
+    public synchronized int size() {
+        return recent.size();
+    }
+    
+    public synchronized void clear() {
+        recent.clear();
+        digests.clear();
+        summaryTokens = 0;
+        forgottenTurns = 0;
+    }
+    
+    private void fold(Turn turn) {
+        String digest = "- Usuário: " + shorten(turn.user()) + " / Assistente: " + shorten(turn.assistant());
+        digests.addLast(digest);
+        summaryTokens += PromptText.estimateTokens(digest);
+        while (summaryTokens > maxSummaryTokens && !digests.isEmpty()) {
+            summaryTokens -= PromptText.estimateTokens(digests.removeFirst());
+            forgottenTurns++;
+        }
+    }
+    
+    private String summary(int skippedRecentTurns) {
+        if (digests.isEmpty() && forgottenTurns == 0 && skippedRecentTurns == 0) {
+            return null;
+        }
+        
+        StringBuilder summary = new StringBuilder("Resumo da conversa anterior:\n");
+        if (forgottenTurns > 0) {
+            summary.append("- (").append(forgottenTurns).append(" trocas mais antigas omitidas)\n");
+        }
+        digests.forEach(digest -> summary.append(digest).append('\n'));
+        if (skippedRecentTurns > 0) {
+            summary.append("- (").append(skippedRecentTurns).append(" trocas recentes omitidas por tamanho)\n");
+        }
+        return summary.toString();
+    }
+    
+    private static String shorten(String text) {
+        String compact = text == null ? "" : text.strip().replaceAll("\\s+", " ");
+        return compact.length() > DIGEST_CHARS ? compact.substring(0, DIGEST_CHARS - 1) + "…" : compact;
+    }
+    
+    private record Turn(String user, String assistant) {
+        
+        private int tokens() {
+            return PromptText.estimateTokens(user) + PromptText.estimateTokens(assistant);
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package br.com.partnerpro.product_manager.domain.model;
+
+import br.com.partnerpro.product_manager.framework.dto.ProductResponse;
+
+import java.util.UUID;
+
+public record ProductChange(ProductResponse before, ProductResponse after) {
+    
+    public UUID id() {
+        return after != null ? after.id() : before.id();
+    }
+    
+    public boolean isCreate() {
+        return before == null && after != null;
+    }
+    
+    public boolean isDelete() {
+        return before != null && after == null;
+    }
+    
+    public boolean isNoop() {
+        return before == null && after == null;
+    }
+    
+    public ProductChange then(ProductChange next) {
+        return new ProductChange(before, next.after);
+    }
+}
@@ -0,0 +1,41 @@
+package br.com.partnerpro.product_manager.domain.model;
+
+import br.com.partnerpro.product_manager.domain.entity.Product;
+import br.com.partnerpro.product_manager.framework.dto.ProductResponse;
+import br.com.partnerpro.product_manager.framework.exception.InvalidCursorException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.UUID;
+
+public record ProductCursor(LocalDateTime createdAt, UUID id) {
+    
+    private static final String SEPARATOR = "|";
+    
+    public static ProductCursor of(Product product) {
+        return new ProductCursor(product.getCreatedAt(), product.getId());
+    }
+    
+    public static ProductCursor of(ProductResponse product) {
+        return new ProductCursor(product.createdAt(), product.id());
+    }
+    
+    public String encode() {
+        String raw = createdAt + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+    
+    public static ProductCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = raw.indexOf(SEPARATOR);
+            return new ProductCursor(
+                    LocalDateTime.parse(raw.substring(0, separator)),
+                    UUID.fromString(raw.substring(separator + 1))
+            );
+        } catch (RuntimeException e) {
+            throw new InvalidCursorException(token, e);
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package br.com.partnerpro.product_manager.domain.model;
+
+import br.com.partnerpro.product_manager.framework.dto.ProductFilterRequest;
+import org.springframework.data.domain.Sort;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Set;
+
+public record ProductQuery(ProductFilterRequest filters, int limit) {
+    
+    private static final Set<String> SORTABLE = Set.of("name", "price", "stock", "category", "createdAt");
+    
+    // Bounds come from untrusted text: negative values are dropped, inverted ranges swapped, unknown sorts ignored
+    public static ProductQuery validated(ProductFilterRequest raw, Integer limit, int defaultLimit, int maxLimit) {
+        BigDecimal minPrice = nonNegative(raw.minPrice());
+        BigDecimal maxPrice = nonNegative(raw.maxPrice());
+        if (minPrice != null && maxPrice != null && minPrice.compareTo(maxPrice) > 0) {
+            BigDecimal swap = minPrice;
+            minPrice = maxPrice;
+            maxPrice = swap;
+        }
+        
+        Integer minStock = nonNegative(raw.minStock());
+        Integer maxStock = nonNegative(raw.maxStock());
+        if (minStock != null && maxStock != null && minStock > maxStock) {
+            Integer swap = minStock;
+            minStock = maxStock;
+            maxStock = swap;
+        }
+        
+        LocalDateTime startDate = raw.startDate();
+        LocalDateTime endDate = raw.endDate();
+        if (startDate != null && endDate != null && startDate.isAfter(endDate)) {
+            LocalDateTime swap = startDate;
+            startDate = endDate;
+            endDate = swap;
+        }
+        
+        String sortBy = raw.sortBy() != null && SORTABLE.contains(raw.sortBy()) ? raw.sortBy() : null;
+        String sortDirection = sortBy == null ? null : "desc".equalsIgnoreCase(raw.sortDirection()) ? "desc" : "asc";
+        
+        ProductFilterRequest filters = ProductFilterRequest.builder()
+                .name(blankToNull(raw.name()))
+                .category(blankToNull(raw.category()))
+                .minPrice(minPrice)
+                .maxPrice(maxPrice)
+                .minStock(minStock)
+                .maxStock(maxStock)
+                .startDate(startDate)
+                .endDate(endDate)
+                .sortBy(sortBy)
+                .sortDirection(sortDirection)
+                .build();
+        int size = limit == null || limit < 1 ? defaultLimit : Math.min(limit, maxLimit);
+        return new ProductQuery(filters, size);
+    }
+    
+    public Sort sort() {
+        if (filters.sortBy() == null) {
+            return Sort.unsorted();
+        }
+        Sort.Direction direction = "desc".equals(filters.sortDirection()) ? Sort.Direction.DESC : Sort.Direction.ASC;
+        return Sort.by(direction, filters.sortBy());
+    }
+    
+    private static BigDecimal nonNegative(BigDecimal value) {
+        return value == null || value.signum() < 0 ? null : value;
+    }
+    
+    private static Integer nonNegative(Integer value) {
+        return value == null || value < 0 ? null : value;
+    }
+    
+    private static String blankToNull(String value) {
+        return value == null || value.isBlank() ? null : value.trim();
+    }
+}
@@ -0,0 +1,21 @@
+package br.com.partnerpro.product_manager.domain.repository;
+
+import br.com.partnerpro.product_manager.domain.entity.CacheInvalidationEntry;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface CacheInvalidationRepository extends JpaRepository<CacheInvalidationEntry, Long> {
+    
+    List<CacheInvalidationEntry> findByCreatedAtAfterOrderByIdAsc(LocalDateTime since);
+    
+    @Modifying
+    @Query("DELETE FROM CacheInvalidationEntry e WHERE e.createdAt < :cutoff")
+    int deleteCreatedBefore(@Param("cutoff") LocalDateTime cutoff);
+}
@@ -0,0 +1,30 @@
+package br.com.partnerpro.product_manager.domain.repository;
+
+import br.com.partnerpro.product_manager.domain.entity.ProductOutboxEntry;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface ProductOutboxRepository extends JpaRepository<ProductOutboxEntry, Long> {
+    
+    // Keyset over (createdAt, id): writers lock the product before changing it (ProductRepository.findByIdForUpdate),
+    // so the rows of one product are stamped in commit order
+    @Query("SELECT e FROM ProductOutboxEntry e WHERE e.createdAt > :createdAt OR (e.createdAt = :createdAt AND e.id > :id) "
+            + "ORDER BY e.createdAt, e.id")
+    List<ProductOutboxEntry> findWrittenAfter(@Param("createdAt") LocalDateTime createdAt, @Param("id") long id,
+                                              Limit limit);
+    
+    @Query("SELECT e.id FROM ProductOutboxEntry e WHERE e.createdAt > :since")
+    List<Long> findIdsWrittenAfter(@Param("since") LocalDateTime since);
+    
+    @Modifying
+    @Query("DELETE FROM ProductOutboxEntry e WHERE e.createdAt < :cutoff")
+    int deleteCreatedBefore(@Param("cutoff") LocalDateTime cutoff);
+}
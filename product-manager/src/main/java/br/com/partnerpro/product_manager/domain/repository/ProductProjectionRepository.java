@@ -0,0 +1,19 @@
+package br.com.partnerpro.product_manager.domain.repository;
+
+import br.com.partnerpro.product_manager.domain.entity.Product;
+import br.com.partnerpro.product_manager.framework.dto.ProductResponse;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+
+public interface ProductProjectionRepository {
+    
+    Page<ProductResponse> findResponses(Specification<Product> spec, Pageable pageable);
+    
+    List<ProductResponse> findResponses(Specification<Product> spec, Sort sort, int limit);
+    
+    List<ProductResponse> findResponses(Specification<Product> spec, Sort sort, int offset, int limit);
+}
@@ -0,0 +1,94 @@
+package br.com.partnerpro.product_manager.domain.repository;
+
+import br.com.partnerpro.product_manager.domain.entity.Product;
+import br.com.partnerpro.product_manager.framework.dto.ProductResponse;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.data.support.PageableExecutionUtils;
+
+import java.util.List;
+
+class ProductProjectionRepositoryImpl implements ProductProjectionRepository {
+    
+    @PersistenceContext
+    private EntityManager entityManager;
+    
+    @Override
+    public Page<ProductResponse> findResponses(Specification<Product> spec, Pageable pageable) {
+        TypedQuery<ProductResponse> query = entityManager.createQuery(select(spec, pageable.getSort()));
+        if (pageable.isPaged()) {
+            query.setFirstResult((int) pageable.getOffset());
+            query.setMaxResults(pageable.getPageSize());
+        }
+        
+        return PageableExecutionUtils.getPage(query.getResultList(), pageable, () -> count(spec));
+    }
+    
+    @Override
+    public List<ProductResponse> findResponses(Specification<Product> spec, Sort sort, int limit) {
+        return findResponses(spec, sort, 0, limit);
+    }
+    
+    @Override
+    public List<ProductResponse> findResponses(Specification<Product> spec, Sort sort, int offset, int limit) {
+        return entityManager.createQuery(select(spec, sort))
+                .setFirstResult(offset)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+    
+    private CriteriaQuery<ProductResponse> select(Specification<Product> spec, Sort sort) {
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<ProductResponse> query = criteriaBuilder.createQuery(ProductResponse.class);
+        Root<Product> root = query.from(Product.class);
+        
+        query.select(criteriaBuilder.construct(ProductResponse.class,
+                root.get("id"),
+                root.get("name"),
+                root.get("description"),
+                root.get("price"),
+                root.get("category"),
+                root.get("stock"),
+                root.get("createdAt")
+        ));
+        applySpecification(spec, root, query, criteriaBuilder);
+        
+        if (sort.isSorted()) {
+            query.orderBy(QueryUtils.toOrders(sort, root, criteriaBuilder));
+        }
+        return query;
+    }
+    
+    private long count(Specification<Product> spec) {
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = criteriaBuilder.createQuery(Long.class);
+        Root<Product> root = query.from(Product.class);
+        
+        query.select(criteriaBuilder.count(root));
+        applySpecification(spec, root, query, criteriaBuilder);
+        
+        return entityManager.createQuery(query).getSingleResult();
+    }
+    
+    private void applySpecification(Specification<Product> spec, Root<Product> root,
+                                    CriteriaQuery<?> query, CriteriaBuilder criteriaBuilder) {
+        if (spec == null) {
+            return;
+        }
+        
+        Predicate predicate = spec.toPredicate(root, query, criteriaBuilder);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+    }
+}
@@ -1,19 +1,55 @@
 package br.com.partnerpro.product_manager.domain.repository;
 
 import br.com.partnerpro.product_manager.domain.entity.Product;
+import br.com.partnerpro.product_manager.framework.dto.CategoryTotals;
+import br.com.partnerpro.product_manager.framework.dto.InventorySummary;
+import br.com.partnerpro.product_manager.framework.dto.ProductResponse;
+import br.com.partnerpro.product_manager.framework.dto.ProductTotals;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.stereotype.Repository;
 
 import java.math.BigDecimal;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 @Repository
-public interface ProductRepository extends JpaRepository<Product, UUID>, JpaSpecificationExecutor<Product> {
+public interface ProductRepository extends JpaRepository<Product, UUID>, JpaSpecificationExecutor<Product>,
+        ProductProjectionRepository {
     
-    List<Product> findByCategory(String category);
+    String RESPONSE_PROJECTION = "new br.com.partnerpro.product_manager.framework.dto.ProductResponse("
+            + "p.id, p.name, p.description, p.price, p.category, p.stock, p.createdAt)";
+    
+    @Query("SELECT " + RESPONSE_PROJECTION + " FROM Product p")
+    List<ProductResponse> findAllResponses();
+    
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT " + RESPONSE_PROJECTION + " FROM Product p ORDER BY p.createdAt DESC, p.id DESC")
+    Stream<ProductResponse> streamAllResponses();
+    
+    @Query("SELECT " + RESPONSE_PROJECTION + " FROM Product p WHERE p.category = :category")
+    List<ProductResponse> findResponsesByCategory(@Param("category") String category);
+    
+    // For writes: a second writer of the same product waits for the first to commit before reading it, so its
+    // outbox row is stamped later and the relay delivers the two changes in commit order
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT p FROM Product p WHERE p.id = :id")
+    Optional<Product> findByIdForUpdate(@Param("id") UUID id);
+    
+    // Locked in id order, so two batches sharing products queue up instead of deadlocking within a chunk
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT p FROM Product p WHERE p.id IN :ids ORDER BY p.id")
+    List<Product> findAllByIdForUpdate(@Param("ids") Collection<UUID> ids);
     
     List<Product> findByOrderByPriceAsc();
     
@@ -24,4 +60,31 @@ public interface ProductRepository extends JpaRepository<Product, UUID>, JpaSpec
     
     @Query("SELECT COUNT(p) FROM Product p")
     Long countProducts();
+    
+    @Query("SELECT new br.com.partnerpro.product_manager.framework.dto.ProductTotals("
+            + "COUNT(p), COALESCE(SUM(p.stock), 0), COALESCE(SUM(p.price * p.stock), 0)) FROM Product p")
+    ProductTotals findTotals();
+    
+    @Query("SELECT new br.com.partnerpro.product_manager.framework.dto.InventorySummary("
+            + "COUNT(p), "
+            + "COALESCE(SUM(p.stock), 0), "
+            + "COALESCE(SUM(p.price * p.stock), 0), "
+            + "COALESCE(SUM(p.price), 0), "
+            + "COUNT(CASE WHEN p.stock < 10 THEN 1 END), "
+            + "COUNT(CASE WHEN p.stock = 0 THEN 1 END), "
+            + "COUNT(CASE WHEN p.stock > 0 AND p.stock < 10 THEN 1 END), "
+            + "COUNT(CASE WHEN p.stock >= 10 AND p.stock < 50 THEN 1 END), "
+            + "COUNT(CASE WHEN p.stock >= 50 THEN 1 END), "
+            + "COUNT(CASE WHEN p.price < 500 THEN 1 END), "
+            + "COUNT(CASE WHEN p.price >= 500 AND p.price < 1000 THEN 1 END), "
+            + "COUNT(CASE WHEN p.price >= 1000 AND p.price < 2000 THEN 1 END), "
+            + "COUNT(CASE WHEN p.price >= 2000 AND p.price < 3000 THEN 1 END), "
+            + "COUNT(CASE WHEN p.price >= 3000 THEN 1 END)) "
+            + "FROM Product p")
+    InventorySummary findInventorySummary();
+    
+    @Query("SELECT new br.com.partnerpro.product_manager.framework.dto.CategoryTotals("
+            + "p.category, COUNT(p), COALESCE(SUM(p.price * p.stock), 0), COALESCE(SUM(p.price), 0)) "
+            + "FROM Product p GROUP BY p.category")
+    List<CategoryTotals> findCategoryTotals();
 }
@@ -1,32 +1,43 @@
 package br.com.partnerpro.product_manager.domain.specification;
 
 import br.com.partnerpro.product_manager.domain.entity.Product;
+import br.com.partnerpro.product_manager.domain.model.ProductCursor;
 import br.com.partnerpro.product_manager.framework.dto.ProductFilterRequest;
 import jakarta.persistence.criteria.Predicate;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.Locale;
+import java.util.UUID;
 
 public class ProductSpecification {
     
+    public static final Sort KEYSET_SORT = Sort.by(Sort.Direction.DESC, "createdAt", "id");
+    
+    private static final char LIKE_ESCAPE = '\\';
+    
     public static Specification<Product> withFilters(ProductFilterRequest filters) {
         return (root, query, criteriaBuilder) -> {
             List<Predicate> predicates = new ArrayList<>();
             
             
-            if (filters.name() != null && !filters.name().isEmpty()) {
+            // lower(name) and lower(category) match the expression indexes created in V4
+            if (filters.name() != null && !filters.name().isBlank()) {
                 predicates.add(criteriaBuilder.like(
                     criteriaBuilder.lower(root.get("name")),
-                    "%" + filters.name().toLowerCase() + "%"
+                    "%" + escapeLike(normalize(filters.name())) + "%",
+                    LIKE_ESCAPE
                 ));
             }
             
             
-            if (filters.category() != null && !filters.category().isEmpty()) {
+            if (filters.category() != null && !filters.category().isBlank()) {
                 predicates.add(criteriaBuilder.equal(
                     criteriaBuilder.lower(root.get("category")),
-                    filters.category().toLowerCase()
+                    normalize(filters.category())
                 ));
             }
             
@@ -47,6 +58,22 @@ public class ProductSpecification {
             }
             
             
+            if (filters.minStock() != null) {
+                predicates.add(criteriaBuilder.greaterThanOrEqualTo(
+                    root.get("stock"),
+                    filters.minStock()
+                ));
+            }
+            
+            
+            if (filters.maxStock() != null) {
+                predicates.add(criteriaBuilder.lessThanOrEqualTo(
+                    root.get("stock"),
+                    filters.maxStock()
+                ));
+            }
+            
+            
             if (filters.startDate() != null) {
                 predicates.add(criteriaBuilder.greaterThanOrEqualTo(
                     root.get("createdAt"),
@@ -65,4 +92,43 @@ public class ProductSpecification {
             return criteriaBuilder.and(predicates.toArray(new Predicate[0]));
         };
     }
+    
+    public static Specification<Product> after(ProductCursor cursor) {
+        return (root, query, criteriaBuilder) -> {
+            if (cursor == null) {
+                return criteriaBuilder.conjunction();
+            }
+            
+            // The leading bound is redundant but gives the planner an index range start on (created_at, id)
+            return criteriaBuilder.and(
+                    criteriaBuilder.lessThanOrEqualTo(root.get("createdAt"), cursor.createdAt()),
+                    criteriaBuilder.or(
+                            criteriaBuilder.lessThan(root.get("createdAt"), cursor.createdAt()),
+                            criteriaBuilder.and(
+                                    criteriaBuilder.equal(root.get("createdAt"), cursor.createdAt()),
+                                    criteriaBuilder.lessThan(root.get("id"), cursor.id())
+                            )
+                    )
+            );
+        };
+    }
+    
+    public static Specification<Product> stockBelow(int threshold) {
+        return (root, query, criteriaBuilder) -> criteriaBuilder.lessThan(root.get("stock"), threshold);
+    }
+    
+    public static Specification<Product> withIds(Collection<UUID> ids) {
+        return (root, query, criteriaBuilder) -> root.get("id").in(ids);
+    }
+    
+    private static String normalize(String value) {
+        return value.trim().toLowerCase(Locale.ROOT);
+    }
+    
+    private static String escapeLike(String value) {
+        return value
+                .replace(String.valueOf(LIKE_ESCAPE), String.valueOf(LIKE_ESCAPE) + LIKE_ESCAPE)
+                .replace("%", LIKE_ESCAPE + "%")
+                .replace("_", LIKE_ESCAPE + "_");
+    }
 }
@@ -0,0 +1,36 @@
+package br.com.partnerpro.product_manager.framework.cache;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+
+public record CacheInvalidation(String origin, List<UUID> productIds) {
+    
+    private static final String ORIGIN_SEPARATOR = ";";
+    private static final String ID_SEPARATOR = ",";
+    
+    // No ids means the receiver lost track of what changed and has to drop everything
+    public static CacheInvalidation everything(String origin) {
+        return new CacheInvalidation(origin, List.of());
+    }
+    
+    public boolean isEverything() {
+        return productIds.isEmpty();
+    }
+    
+    public String encode() {
+        return origin + ORIGIN_SEPARATOR + String.join(ID_SEPARATOR, productIds.stream().map(UUID::toString).toList());
+    }
+    
+    public static CacheInvalidation decode(String payload) {
+        int separator = payload.indexOf(ORIGIN_SEPARATOR);
+        if (separator < 0) {
+            throw new IllegalArgumentException("Invalid cache invalidation payload: " + payload);
+        }
+        String ids = payload.substring(separator + 1);
+        return new CacheInvalidation(
+                payload.substring(0, separator),
+                ids.isEmpty() ? List.of() : Arrays.stream(ids.split(ID_SEPARATOR)).map(UUID::fromString).toList()
+        );
+    }
+}
@@ -0,0 +1,11 @@
+package br.com.partnerpro.product_manager.framework.cache;
+
+import java.util.function.Consumer;
+
+public interface CacheInvalidationTransport {
+    
+    // Joins the caller's transaction when there is one, so other nodes only hear about committed changes
+    void send(CacheInvalidation invalidation);
+    
+    void subscribe(Consumer<CacheInvalidation> listener);
+}
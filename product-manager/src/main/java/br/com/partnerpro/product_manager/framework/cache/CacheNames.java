@@ -0,0 +1,13 @@
+package br.com.partnerpro.product_manager.framework.cache;
+
+// The only caches CacheConfig registers; shared by the config and the code reading or evicting them
+public final class CacheNames {
+    
+    public static final String PRODUCT = "product";
+    public static final String PRODUCTS = "products";
+    public static final String AI_REPORTS = "aiReports";
+    public static final String AI_QUERIES = "aiQueries";
+    
+    private CacheNames() {
+    }
+}
@@ -0,0 +1,80 @@
+package br.com.partnerpro.product_manager.framework.cache;
+
+import br.com.partnerpro.product_manager.domain.entity.CacheInvalidationEntry;
+import br.com.partnerpro.product_manager.domain.repository.CacheInvalidationRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+// For databases without LISTEN/NOTIFY: invalidations go through a table every node polls
+@Component
+@ConditionalOnProperty(name = "product.cache.invalidation.transport", havingValue = "jdbc")
+@RequiredArgsConstructor
+@Slf4j
+public class JdbcCacheInvalidationTransport implements CacheInvalidationTransport {
+    
+    private final CacheInvalidationRepository cacheInvalidationRepository;
+    private final List<Consumer<CacheInvalidation>> listeners = new CopyOnWriteArrayList<>();
+    // Rows are re-read for the whole window, ids already delivered are remembered until they fall out of it
+    private final Map<Long, LocalDateTime> delivered = new HashMap<>();
+    
+    @Value("${product.cache.invalidation.window-ms:60000}")
+    private long windowMs;
+    
+    @Override
+    public void send(CacheInvalidation invalidation) {
+        cacheInvalidationRepository.save(CacheInvalidationEntry.builder()
+                .payload(invalidation.encode())
+                .build());
+    }
+    
+    @Override
+    public void subscribe(Consumer<CacheInvalidation> listener) {
+        listeners.add(listener);
+    }
+    
+    @Scheduled(fixedDelayString = "${product.cache.invalidation.poll-interval-ms:1000}")
+    @Transactional
+    public synchronized void poll() {
+        LocalDateTime since = LocalDateTime.now().minus(windowMs, ChronoUnit.MILLIS);
+        
+        for (CacheInvalidationEntry entry : cacheInvalidationRepository.findByCreatedAtAfterOrderByIdAsc(since)) {
+            if (delivered.putIfAbsent(entry.getId(), entry.getCreatedAt()) == null) {
+                receive(entry.getPayload());
+            }
+        }
+        
+        delivered.values().removeIf(createdAt -> createdAt.isBefore(since));
+        cacheInvalidationRepository.deleteCreatedBefore(since.minus(windowMs, ChronoUnit.MILLIS));
+    }
+    
+    private void receive(String payload) {
+        CacheInvalidation invalidation;
+        try {
+            invalidation = CacheInvalidation.decode(payload);
+        } catch (IllegalArgumentException e) {
+            log.warn("Ignoring malformed cache invalidation: {}", payload);
+            return;
+        }
+        
+        for (Consumer<CacheInvalidation> listener : listeners) {
+            try {
+                listener.accept(invalidation);
+            } catch (RuntimeException e) {
+                log.error("Error applying cache invalidation from {}", invalidation.origin(), e);
+            }
+        }
+    }
+}
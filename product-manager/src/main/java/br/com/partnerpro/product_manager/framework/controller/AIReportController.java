@@ -7,8 +7,11 @@ import br.com.partnerpro.product_manager.domain.model.ChatSession;
 import br.com.partnerpro.product_manager.framework.dto.*;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
 
 import java.util.List;
 
@@ -55,6 +58,18 @@ public class AIReportController {
                 .build());
     }
     
+    @PostMapping(value = "/chat/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Flux<ServerSentEvent<ChatStreamEvent>> chatStream(@Valid @RequestBody ChatRequest request) {
+        String sessionId = sessionManager.getOrCreateSession(request.sessionId()).getSessionId();
+        
+        return aiAssistantService.chatStream(sessionId, request.message())
+                .map(event -> ServerSentEvent.builder(event).event(event.done() ? "done" : "token").build())
+                .onErrorResume(e -> Flux.just(ServerSentEvent.<ChatStreamEvent>builder()
+                        .event("error")
+                        .data(ChatStreamEvent.done(sessionId, "Desculpe, ocorreu um erro: " + e.getMessage()))
+                        .build()));
+    }
+    
     @PostMapping("/chat/clear")
     public ResponseEntity<String> clearChatHistory(@RequestParam(required = false) String sessionId) {
         if (sessionId != null && !sessionId.isEmpty()) {
@@ -6,6 +6,7 @@ import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.io.IOException;
 import java.time.LocalDateTime;
@@ -21,34 +22,23 @@ public class ExportController {
     private static final DateTimeFormatter FILE_DATE_FORMAT = DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss");
     
     @GetMapping("/products/csv")
-    public ResponseEntity<String> exportProductsToCSV() {
-        try {
-            String csv = exportService.exportProductsToCSV();
-            String filename = "produtos_" + LocalDateTime.now().format(FILE_DATE_FORMAT) + ".csv";
-            
-            return ResponseEntity.ok()
-                    .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + filename + "\"")
-                    .contentType(MediaType.parseMediaType("text/csv"))
-                    .body(csv);
-        } catch (IOException e) {
-            return ResponseEntity.internalServerError()
-                    .body("Erro ao gerar CSV: " + e.getMessage());
-        }
+    public ResponseEntity<StreamingResponseBody> exportProductsToCSV() {
+        String filename = "produtos_" + LocalDateTime.now().format(FILE_DATE_FORMAT) + ".csv";
+        
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + filename + "\"")
+                .contentType(MediaType.parseMediaType("text/csv"))
+                .body(exportService::writeProductsCsv);
     }
     
     @GetMapping("/products/pdf")
-    public ResponseEntity<byte[]> exportProductsToPDF() {
-        try {
-            byte[] pdf = exportService.exportProductsToPDF();
-            String filename = "produtos_" + LocalDateTime.now().format(FILE_DATE_FORMAT) + ".pdf";
-            
-            return ResponseEntity.ok()
-                    .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + filename + "\"")
-                    .contentType(MediaType.APPLICATION_PDF)
-                    .body(pdf);
-        } catch (IOException e) {
-            return ResponseEntity.internalServerError().build();
-        }
+    public ResponseEntity<StreamingResponseBody> exportProductsToPDF() {
+        String filename = "produtos_" + LocalDateTime.now().format(FILE_DATE_FORMAT) + ".pdf";
+        
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + filename + "\"")
+                .contentType(MediaType.APPLICATION_PDF)
+                .body(exportService::writeProductsPdf);
     }
     
     @GetMapping("/dashboard/pdf")
@@ -2,7 +2,10 @@ package br.com.partnerpro.product_manager.framework.controller;
 
 import br.com.partnerpro.product_manager.application.service.ExportService;
 import br.com.partnerpro.product_manager.application.usecase.ProductUseCase;
+import br.com.partnerpro.product_manager.framework.dto.BatchCreateProductRequest;
+import br.com.partnerpro.product_manager.framework.dto.BatchUpdateProductRequest;
 import br.com.partnerpro.product_manager.framework.dto.CreateProductRequest;
+import br.com.partnerpro.product_manager.framework.dto.CursorPageResponse;
 import br.com.partnerpro.product_manager.framework.dto.ProductFilterRequest;
 import br.com.partnerpro.product_manager.framework.dto.ProductResponse;
 import br.com.partnerpro.product_manager.framework.dto.UpdateProductRequest;
@@ -25,6 +28,7 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 import java.util.UUID;
@@ -39,6 +43,8 @@ public class ProductController {
     private final ProductUseCase productUseCase;
     private final ExportService exportService;
 
+    private static final int MAX_CURSOR_PAGE_SIZE = 200;
+
     @Operation(summary = "Listar todos os produtos", description = "Retorna uma lista paginada de todos os produtos")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Lista de produtos retornada com sucesso",
@@ -52,6 +58,34 @@ public class ProductController {
         return ResponseEntity.ok(products);
     }
 
+    @Operation(summary = "Listar produtos por cursor",
+            description = "Paginação por cursor ordenada por data de criação; envie cursor vazio para a primeira página")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Página de produtos retornada com sucesso",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = CursorPageResponse.class))),
+            @ApiResponse(responseCode = "400", description = "Cursor inválido")
+    })
+    @GetMapping(params = "cursor")
+    public ResponseEntity<CursorPageResponse<ProductResponse>> getProductsByCursor(
+            @Parameter(description = "Cursor retornado pela página anterior") @RequestParam String cursor,
+            @Parameter(description = "Tamanho da página") @RequestParam(defaultValue = "20") int size) {
+        log.info("GET /api/products?cursor - Listing products with keyset pagination");
+        return ResponseEntity.ok(productUseCase.getProductsAfter(cursor, clampPageSize(size)));
+    }
+
+    @Operation(summary = "Pesquisar produtos por texto",
+            description = "Busca textual em nome, descrição e categoria ordenada por relevância")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Produtos encontrados ordenados por relevância")
+    })
+    @GetMapping("/search")
+    public ResponseEntity<List<ProductResponse>> searchProducts(
+            @Parameter(description = "Texto da busca") @RequestParam("q") String query,
+            @Parameter(description = "Quantidade máxima de resultados") @RequestParam(defaultValue = "20") int limit) {
+        log.info("GET /api/products/search - Searching products: {}", query);
+        return ResponseEntity.ok(productUseCase.fullTextSearch(query, clampPageSize(limit)));
+    }
+
     @Operation(summary = "Buscar produto por ID", description = "Retorna um produto específico pelo seu ID")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Produto encontrado",
@@ -79,6 +113,31 @@ public class ProductController {
         return ResponseEntity.status(HttpStatus.CREATED).body(product);
     }
 
+    @Operation(summary = "Criar produtos em lote", description = "Cria uma lista de produtos em uma única transação")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "201", description = "Produtos criados com sucesso"),
+            @ApiResponse(responseCode = "400", description = "Dados inválidos em algum item do lote")
+    })
+    @PostMapping("/batch")
+    public ResponseEntity<List<ProductResponse>> createProducts(@Valid @RequestBody BatchCreateProductRequest request) {
+        log.info("POST /api/products/batch - Creating {} products", request.products().size());
+        List<ProductResponse> products = productUseCase.createProducts(request.products());
+        return ResponseEntity.status(HttpStatus.CREATED).body(products);
+    }
+
+    @Operation(summary = "Atualizar produtos em lote", description = "Atualiza uma lista de produtos em uma única transação")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Produtos atualizados com sucesso"),
+            @ApiResponse(responseCode = "404", description = "Algum produto do lote não foi encontrado"),
+            @ApiResponse(responseCode = "400", description = "Dados inválidos em algum item do lote")
+    })
+    @PutMapping("/batch")
+    public ResponseEntity<List<ProductResponse>> updateProducts(@Valid @RequestBody BatchUpdateProductRequest request) {
+        log.info("PUT /api/products/batch - Updating {} products", request.products().size());
+        List<ProductResponse> products = productUseCase.updateProducts(request.products());
+        return ResponseEntity.ok(products);
+    }
+
     @Operation(summary = "Atualizar produto", description = "Atualiza os dados de um produto existente")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Produto atualizado com sucesso",
@@ -122,27 +181,37 @@ public class ProductController {
         return ResponseEntity.ok(products);
     }
 
+    @Operation(summary = "Filtrar produtos por cursor",
+            description = "Busca produtos com filtros avançados usando paginação por cursor")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Produtos filtrados retornados com sucesso",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = CursorPageResponse.class))),
+            @ApiResponse(responseCode = "400", description = "Cursor inválido")
+    })
+    @PostMapping(value = "/filter", params = "cursor")
+    public ResponseEntity<CursorPageResponse<ProductResponse>> filterProductsByCursor(
+            @RequestBody ProductFilterRequest filter,
+            @Parameter(description = "Cursor retornado pela página anterior") @RequestParam String cursor,
+            @Parameter(description = "Tamanho da página") @RequestParam(defaultValue = "20") int size) {
+        log.info("POST /api/products/filter?cursor - Filtering products with keyset pagination");
+        return ResponseEntity.ok(productUseCase.filterProductsAfter(filter, cursor, clampPageSize(size)));
+    }
+
     @Operation(summary = "Exportar produtos para CSV", description = "Gera um arquivo CSV com todos os produtos")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "CSV gerado com sucesso")
     })
     @GetMapping("/export/csv")
-    public ResponseEntity<byte[]> exportToCsv() {
+    public ResponseEntity<StreamingResponseBody> exportToCsv() {
         log.info("GET /api/products/export/csv - Exporting products to CSV");
-        try {
-            String csvData = exportService.exportProductsToCSV();
-            
-            HttpHeaders headers = new HttpHeaders();
-            headers.setContentType(MediaType.parseMediaType("text/csv"));
-            headers.setContentDispositionFormData("attachment", "produtos.csv");
-            
-            return ResponseEntity.ok()
-                    .headers(headers)
-                    .body(csvData.getBytes(java.nio.charset.StandardCharsets.UTF_8));
-        } catch (Exception e) {
-            log.error("Error exporting to CSV", e);
-            return ResponseEntity.internalServerError().build();
-        }
+        
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.parseMediaType("text/csv"));
+        headers.setContentDispositionFormData("attachment", "produtos.csv");
+        
+        return ResponseEntity.ok()
+                .headers(headers)
+                .body(exportService::writeProductsCsv);
     }
 
     @Operation(summary = "Exportar produtos para PDF", description = "Gera um arquivo PDF com todos os produtos")
@@ -150,21 +219,19 @@ public class ProductController {
             @ApiResponse(responseCode = "200", description = "PDF gerado com sucesso")
     })
     @GetMapping("/export/pdf")
-    public ResponseEntity<byte[]> exportToPdf() {
+    public ResponseEntity<StreamingResponseBody> exportToPdf() {
         log.info("GET /api/products/export/pdf - Exporting products to PDF");
-        try {
-            byte[] pdfData = exportService.exportProductsToPDF();
-            
-            HttpHeaders headers = new HttpHeaders();
-            headers.setContentType(MediaType.APPLICATION_PDF);
-            headers.setContentDispositionFormData("attachment", "produtos.pdf");
-            
-            return ResponseEntity.ok()
-                    .headers(headers)
-                    .body(pdfData);
-        } catch (Exception e) {
-            log.error("Error exporting to PDF", e);
-            return ResponseEntity.internalServerError().build();
-        }
+        
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_PDF);
+        headers.setContentDispositionFormData("attachment", "produtos.pdf");
+        
+        return ResponseEntity.ok()
+                .headers(headers)
+                .body(exportService::writeProductsPdf);
+    }
+
+    private int clampPageSize(int size) {
+        return Math.max(1, Math.min(size, MAX_CURSOR_PAGE_SIZE));
     }
 }
@@ -0,0 +1,13 @@
+package br.com.partnerpro.product_manager.framework.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+public record BatchCreateProductRequest(
+        @NotEmpty(message = "Products are required")
+        @Size(max = 10000, message = "A batch accepts at most 10000 products")
+        List<@Valid CreateProductRequest> products
+) {}
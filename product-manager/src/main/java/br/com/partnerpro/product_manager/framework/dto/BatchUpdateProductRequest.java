@@ -0,0 +1,38 @@
+package br.com.partnerpro.product_manager.framework.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.Size;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+
+public record BatchUpdateProductRequest(
+        @NotEmpty(message = "Products are required")
+        @Size(max = 10000, message = "A batch accepts at most 10000 products")
+        List<@Valid Item> products
+) {
+    public record Item(
+            @NotNull(message = "Id is required")
+            UUID id,
+            
+            @NotBlank(message = "Name is required")
+            String name,
+            
+            String description,
+            
+            @NotNull(message = "Price is required")
+            @Positive(message = "Price must be positive")
+            BigDecimal price,
+            
+            @NotBlank(message = "Category is required")
+            String category,
+            
+            @NotNull(message = "Stock is required")
+            Integer stock
+    ) {}
+}
@@ -0,0 +1,10 @@
+package br.com.partnerpro.product_manager.framework.dto;
+
+import java.math.BigDecimal;
+
+public record CategoryStats(
+        String category,
+        Long productCount,
+        BigDecimal totalValue,
+        Double averagePrice
+) {}
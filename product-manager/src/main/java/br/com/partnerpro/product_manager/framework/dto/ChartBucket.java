@@ -0,0 +1,6 @@
+package br.com.partnerpro.product_manager.framework.dto;
+
+public record ChartBucket(
+        String label,
+        Long count
+) {}
@@ -0,0 +1,20 @@
+package br.com.partnerpro.product_manager.framework.dto;
+
+import lombok.Builder;
+
+// Either a piece of the reply as the model produces it, or the final reply once any action in it has run
+@Builder
+public record ChatStreamEvent(
+        String sessionId,
+        String delta,
+        String response,
+        boolean done
+) {
+    public static ChatStreamEvent token(String sessionId, String delta) {
+        return ChatStreamEvent.builder().sessionId(sessionId).delta(delta).build();
+    }
+    
+    public static ChatStreamEvent done(String sessionId, String response) {
+        return ChatStreamEvent.builder().sessionId(sessionId).response(response).done(true).build();
+    }
+}
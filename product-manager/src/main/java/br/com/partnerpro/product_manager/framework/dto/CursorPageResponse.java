@@ -0,0 +1,13 @@
+package br.com.partnerpro.product_manager.framework.dto;
+
+import lombok.Builder;
+
+import java.util.List;
+
+@Builder
+public record CursorPageResponse<T>(
+        List<T> content,
+        int size,
+        String nextCursor,
+        boolean hasNext
+) {}
@@ -3,9 +3,20 @@ package br.com.partnerpro.product_manager.framework.dto;
 import lombok.Builder;
 
 import java.math.BigDecimal;
+import java.util.List;
 
 @Builder
 public record DashboardResponse(
         Long totalProducts,
-        BigDecimal averagePrice
+        BigDecimal averagePrice,
+        Long totalStock,
+        BigDecimal totalValue,
+        Long lowStockCount,
+        Long outOfStockCount,
+        List<CategoryStats> categories,
+        List<ChartBucket> priceDistribution,
+        List<ChartBucket> stockLevels,
+        List<ProductResponse> recentProducts,
+        List<ProductResponse> mostExpensiveProducts,
+        List<ProductResponse> lowStockProducts
 ) {}
@@ -0,0 +1,41 @@
+package br.com.partnerpro.product_manager.framework.dto;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+public record InventorySummary(
+        Long totalProducts,
+        Long totalStock,
+        BigDecimal totalValue,
+        BigDecimal totalPrice,
+        Long lowStock,
+        Long outOfStock,
+        Long stockFrom1To9,
+        Long stockFrom10To49,
+        Long stockFrom50,
+        Long priceBelow500,
+        Long priceFrom500To1000,
+        Long priceFrom1000To2000,
+        Long priceFrom2000To3000,
+        Long priceFrom3000
+) {
+    
+    public List<ChartBucket> priceDistribution() {
+        return List.of(
+                new ChartBucket("0-500", priceBelow500),
+                new ChartBucket("500-1K", priceFrom500To1000),
+                new ChartBucket("1K-2K", priceFrom1000To2000),
+                new ChartBucket("2K-3K", priceFrom2000To3000),
+                new ChartBucket("3K+", priceFrom3000)
+        );
+    }
+    
+    public List<ChartBucket> stockLevels() {
+        return List.of(
+                new ChartBucket("Sem Estoque", outOfStock),
+                new ChartBucket("Baixo (1-9)", stockFrom1To9),
+                new ChartBucket("Médio (10-49)", stockFrom10To49),
+                new ChartBucket("Alto (50+)", stockFrom50)
+        );
+    }
+}
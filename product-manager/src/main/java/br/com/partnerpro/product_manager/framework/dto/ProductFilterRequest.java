@@ -11,6 +11,8 @@ public record ProductFilterRequest(
         String category,
         BigDecimal minPrice,
         BigDecimal maxPrice,
+        Integer minStock,
+        Integer maxStock,
         LocalDateTime startDate,
         LocalDateTime endDate,
         String sortBy,
@@ -19,6 +21,7 @@ public record ProductFilterRequest(
     public boolean hasFilters() {
         return name != null || category != null || 
                minPrice != null || maxPrice != null ||
+               minStock != null || maxStock != null ||
                startDate != null || endDate != null;
     }
 }
@@ -0,0 +1,9 @@
+package br.com.partnerpro.product_manager.framework.dto;
+
+import java.math.BigDecimal;
+
+public record ProductTotals(
+        Long totalProducts,
+        Long totalStock,
+        BigDecimal totalValue
+) {}
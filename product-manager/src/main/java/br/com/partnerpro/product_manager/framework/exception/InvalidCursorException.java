@@ -0,0 +1,8 @@
+package br.com.partnerpro.product_manager.framework.exception;
+
+public class InvalidCursorException extends IllegalArgumentException {
+    
+    public InvalidCursorException(String token, Throwable cause) {
+        super("Invalid pagination cursor: " + token, cause);
+    }
+}
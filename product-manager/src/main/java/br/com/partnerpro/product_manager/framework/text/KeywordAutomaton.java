@@ -0,0 +1,61 @@
+package br.com.partnerpro.product_manager.framework.text;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+// A trie over folded words: one walk per word of the text finds every keyword phrase, however many are registered
+public final class KeywordAutomaton<T> {
+    
+    private static final Pattern WORD_SEPARATOR = Pattern.compile("[^\\p{Alnum}]+");
+    
+    private final Node<T> root = new Node<>();
+    
+    private KeywordAutomaton() {
+    }
+    
+    public static <T> KeywordAutomaton<T> of(Map<String, T> phrases) {
+        KeywordAutomaton<T> automaton = new KeywordAutomaton<>();
+        phrases.forEach((phrase, label) -> {
+            Node<T> node = automaton.root;
+            for (String word : words(phrase)) {
+                node = node.next.computeIfAbsent(word, key -> new Node<>());
+            }
+            node.label = label;
+        });
+        return automaton;
+    }
+    
+    // Labels in text order, once per occurrence
+    public List<T> match(String text) {
+        List<String> words = words(text);
+        List<T> labels = new ArrayList<>();
+        for (int start = 0; start < words.size(); start++) {
+            Node<T> node = root;
+            for (int i = start; i < words.size(); i++) {
+                node = node.next.get(words.get(i));
+                if (node == null) {
+                    break;
+                }
+                if (node.label != null) {
+                    labels.add(node.label);
+                }
+            }
+        }
+        return labels;
+    }
+    
+    public static List<String> words(String text) {
+        return Arrays.stream(WORD_SEPARATOR.split(PromptText.fold(text)))
+                .filter(word -> !word.isEmpty())
+                .toList();
+    }
+    
+    private static final class Node<T> {
+        private final Map<String, Node<T>> next = new HashMap<>();
+        private T label;
+    }
+}
@@ -0,0 +1,47 @@
+package br.com.partnerpro.product_manager.framework.text;
+
+import java.text.Normalizer;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+public final class PromptText {
+    
+    // Close enough to BPE tokenizers for Portuguese and English text to size prompts, without shipping a tokenizer
+    private static final int CHARS_PER_TOKEN = 4;
+    private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+    
+    private PromptText() {
+    }
+    
+    // Lower case, accents stripped and whitespace collapsed, so "Gráfico  de ESTOQUE" and "grafico de estoque" compare equal
+    public static String fold(String text) {
+        if (text == null) {
+            return "";
+        }
+        String stripped = MARKS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("");
+        return WHITESPACE.matcher(stripped.toLowerCase(Locale.ROOT)).replaceAll(" ").strip();
+    }
+    
+    // Same folding one character at a time with nothing collapsed, so match offsets also index the original text
+    public static String foldInPlace(String text) {
+        if (text == null) {
+            return "";
+        }
+        StringBuilder folded = new StringBuilder(text.length());
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (Character.isWhitespace(c)) {
+                folded.append(' ');
+            } else {
+                String base = Normalizer.normalize(String.valueOf(c), Normalizer.Form.NFD);
+                folded.append(Character.toLowerCase(base.charAt(0)));
+            }
+        }
+        return folded.toString();
+    }
+    
+    public static int estimateTokens(String text) {
+        return text == null ? 0 : (text.length() + CHARS_PER_TOKEN - 1) / CHARS_PER_TOKEN;
+    }
+}
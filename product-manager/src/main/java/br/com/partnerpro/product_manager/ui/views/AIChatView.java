@@ -3,7 +3,9 @@ package br.com.partnerpro.product_manager.ui.views;
 import br.com.partnerpro.product_manager.application.service.AIAssistantService;
 import br.com.partnerpro.product_manager.framework.dto.ChatRequest;
 import br.com.partnerpro.product_manager.framework.dto.ChatResponse;
+import br.com.partnerpro.product_manager.framework.dto.ChatStreamEvent;
 import br.com.partnerpro.product_manager.ui.MainLayout;
+import com.vaadin.flow.component.DetachEvent;
 import com.vaadin.flow.component.Html;
 import com.vaadin.flow.component.UI;
 import com.vaadin.flow.component.button.Button;
@@ -22,8 +24,13 @@ import com.vaadin.flow.component.textfield.TextField;
 import com.vaadin.flow.router.PageTitle;
 import com.vaadin.flow.router.Route;
 import com.vaadin.flow.server.VaadinSession;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
 
+import java.time.Duration;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 @Route(value = "ai-chat", layout = MainLayout.class)
@@ -32,11 +39,14 @@ import java.util.UUID;
 public class AIChatView extends VerticalLayout {
     
     private static final String SESSION_ID_KEY = "ai.chat.session.id";
+    private static final int STREAM_BATCH_SIZE = 32;
+    private static final Duration STREAM_BATCH_INTERVAL = Duration.ofMillis(50);
     
     private final AIAssistantService aiAssistantService;
     private final VerticalLayout chatContainer;
     private final TextField messageField;
     private String sessionId;
+    private Disposable streaming;
     
     public AIChatView(AIAssistantService aiAssistantService) {
         this.aiAssistantService = aiAssistantService;
@@ -109,6 +119,8 @@ public class AIChatView extends VerticalLayout {
     }
     
     private void startNewChat() {
+        stopStreaming();
+        messageField.setEnabled(true);
         sessionId = UUID.randomUUID().toString();
         VaadinSession.getCurrent().setAttribute(SESSION_ID_KEY, sessionId);
         chatContainer.removeAll();
@@ -134,48 +146,76 @@ public class AIChatView extends VerticalLayout {
         
         chatContainer.getElement().executeJs("this.scrollTop = this.scrollHeight");
         
+        Div aiMessage = createMessageBubble("", false);
+        Paragraph aiText = (Paragraph) aiMessage.getComponentAt(0);
+        StringBuilder reply = new StringBuilder();
         UI ui = UI.getCurrent();
-        
-        new Thread(() -> {
-            try {
-                br.com.partnerpro.product_manager.framework.dto.AIResponse response = 
-                        aiAssistantService.chatWithCharts(sessionId, message);
-                
-                ui.access(() -> {
-                    chatContainer.remove(loadingMessage);
-                    
-                    Div aiMessage = createMessageBubble(response.message(), false);
-                    chatContainer.add(aiMessage);
-                    
-                    if (response.hasChart()) {
-                        Div chartDiv = createChartVisualization(response.chartData());
-                        chatContainer.add(chartDiv);
-                    }
-                    
-                    chatContainer.getElement().executeJs("this.scrollTop = this.scrollHeight");
-                    
-                    messageField.setEnabled(true);
-                    messageField.focus();
-                });
-                
-            } catch (Exception e) {
-                e.printStackTrace();
-                ui.access(() -> {
-                    chatContainer.remove(loadingMessage);
-                    Div errorMessage = createMessageBubble(
-                            "Desculpe, ocorreu um erro: " + e.getMessage(),
-                            false
-                    );
-                    errorMessage.getStyle().set("border-color", "var(--lumo-error-color)");
-                    chatContainer.add(errorMessage);
-                    
-                    messageField.setEnabled(true);
-                    messageField.focus();
-                    
-                    showNotification("Erro: " + e.getMessage(), NotificationVariant.LUMO_ERROR);
-                });
-            }
-        }).start();
+        // Detecting a chart may reload the aggregates, so it runs off the UI thread and joins the final batch
+        Mono<Optional<br.com.partnerpro.product_manager.framework.dto.ChartData>> chart = Mono
+                .fromCallable(() -> Optional.ofNullable(aiAssistantService.detectChart(message)))
+                .subscribeOn(Schedulers.boundedElastic());
+        
+        // Tokens are pushed in small batches so a fast model does not cost one round trip per token
+        streaming = aiAssistantService.chatStream(sessionId, message)
+                .bufferTimeout(STREAM_BATCH_SIZE, STREAM_BATCH_INTERVAL)
+                .concatMap(events -> events.get(events.size() - 1).done()
+                        ? chart.map(found -> new StreamBatch(events, found.orElse(null)))
+                        : Mono.just(new StreamBatch(events, null)))
+                .subscribe(
+                        batch -> ui.access(() -> {
+                            boolean done = false;
+                            for (ChatStreamEvent event : batch.events()) {
+                                if (event.done()) {
+                                    reply.setLength(0);
+                                    reply.append(event.response());
+                                    done = true;
+                                } else {
+                                    reply.append(event.delta());
+                                }
+                            }
+                            
+                            if (loadingMessage.getParent().isPresent() && (done || !reply.isEmpty())) {
+                                chatContainer.replace(loadingMessage, aiMessage);
+                            }
+                            aiText.setText(reply.toString());
+                            
+                            if (done) {
+                                if (batch.chart() != null) {
+                                    chatContainer.add(createChartVisualization(batch.chart()));
+                                }
+                                messageField.setEnabled(true);
+                                messageField.focus();
+                            }
+                            chatContainer.getElement().executeJs("this.scrollTop = this.scrollHeight");
+                        }),
+                        e -> ui.access(() -> {
+                            chatContainer.remove(loadingMessage, aiMessage);
+                            Div errorMessage = createMessageBubble(
+                                    "Desculpe, ocorreu um erro: " + e.getMessage(),
+                                    false
+                            );
+                            errorMessage.getStyle().set("border-color", "var(--lumo-error-color)");
+                            chatContainer.add(errorMessage);
+                            
+                            messageField.setEnabled(true);
+                            messageField.focus();
+                            
+                            showNotification("Erro: " + e.getMessage(), NotificationVariant.LUMO_ERROR);
+                        })
+                );
+    }
+    
+    @Override
+    protected void onDetach(DetachEvent detachEvent) {
+        stopStreaming();
+        super.onDetach(detachEvent);
+    }
+    
+    private void stopStreaming() {
+        if (streaming != null) {
+            streaming.dispose();
+            streaming = null;
+        }
     }
     
     private Div createMessageBubble(String text, boolean isUser) {
@@ -423,4 +463,8 @@ public class AIChatView extends VerticalLayout {
         notification.setPosition(Notification.Position.TOP_END);
         notification.open();
     }
+    
+    private record StreamBatch(List<ChatStreamEvent> events,
+                               br.com.partnerpro.product_manager.framework.dto.ChartData chart) {
+    }
 }
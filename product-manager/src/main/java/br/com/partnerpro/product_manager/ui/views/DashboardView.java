@@ -1,11 +1,19 @@
 package br.com.partnerpro.product_manager.ui.views;
 
 import br.com.partnerpro.product_manager.application.service.ExportService;
+import br.com.partnerpro.product_manager.application.service.ProductChangeBroadcaster;
 import br.com.partnerpro.product_manager.application.usecase.DashboardUseCase;
-import br.com.partnerpro.product_manager.domain.entity.Product;
-import br.com.partnerpro.product_manager.domain.repository.ProductRepository;
+import br.com.partnerpro.product_manager.domain.model.ProductChange;
+import br.com.partnerpro.product_manager.framework.dto.CategoryStats;
+import br.com.partnerpro.product_manager.framework.dto.ChartBucket;
 import br.com.partnerpro.product_manager.framework.dto.DashboardResponse;
+import br.com.partnerpro.product_manager.framework.dto.InventorySummary;
+import br.com.partnerpro.product_manager.framework.dto.ProductResponse;
 import br.com.partnerpro.product_manager.ui.MainLayout;
+import com.vaadin.flow.component.AttachEvent;
+import com.vaadin.flow.component.DetachEvent;
+import com.vaadin.flow.component.UI;
+import com.vaadin.flow.component.UIDetachedException;
 import com.vaadin.flow.component.button.Button;
 import com.vaadin.flow.component.button.ButtonVariant;
 import com.vaadin.flow.component.dialog.Dialog;
@@ -21,10 +29,15 @@ import com.vaadin.flow.component.orderedlayout.HorizontalLayout;
 import com.vaadin.flow.component.orderedlayout.VerticalLayout;
 import com.vaadin.flow.router.PageTitle;
 import com.vaadin.flow.router.Route;
+import com.vaadin.flow.server.Command;
 import com.vaadin.flow.server.StreamResource;
 import com.vaadin.flow.theme.lumo.LumoUtility;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.AsyncTaskExecutor;
 
 import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
@@ -35,13 +48,35 @@ import java.util.stream.Collectors;
 public class DashboardView extends VerticalLayout {
     
     private final DashboardUseCase dashboardUseCase;
-    private final ProductRepository productRepository;
     private final ExportService exportService;
+    private final AsyncTaskExecutor taskExecutor;
+    private final ProductChangeBroadcaster productChangeBroadcaster;
     
-    public DashboardView(DashboardUseCase dashboardUseCase, ProductRepository productRepository, ExportService exportService) {
+    private final HorizontalLayout cardsLayout = new HorizontalLayout();
+    private Div categoryChart;
+    private Div priceDistributionChart;
+    private Div stockChart;
+    private Div valueByCategoryChart;
+    private Div recentProductsChart;
+    private Div averagePriceByCategoryChart;
+    
+    // Last rendered values, so pushed updates only redraw the parts that changed
+    private List<String> renderedCardValues;
+    private List<ChartBucket> priceDistribution;
+    private List<ChartBucket> stockLevels;
+    private List<CategoryStats> categories;
+    private List<ProductResponse> recentProducts;
+    private final List<ProductChange> pendingChanges = new ArrayList<>();
+    private boolean refreshing;
+    private Runnable unsubscribe;
+    
+    public DashboardView(DashboardUseCase dashboardUseCase, ExportService exportService,
+                         @Qualifier("applicationTaskExecutor") AsyncTaskExecutor taskExecutor,
+                         ProductChangeBroadcaster productChangeBroadcaster) {
         this.dashboardUseCase = dashboardUseCase;
-        this.productRepository = productRepository;
         this.exportService = exportService;
+        this.taskExecutor = taskExecutor;
+        this.productChangeBroadcaster = productChangeBroadcaster;
         
         setSizeFull();
         setPadding(true);
@@ -70,8 +105,106 @@ public class DashboardView extends VerticalLayout {
         
         add(header);
         
-        createStatisticsCards();
-        createCharts();
+        DashboardResponse data = dashboardUseCase.getDashboardData();
+        createStatisticsCards(data);
+        createCharts(data);
+    }
+    
+    @Override
+    protected void onAttach(AttachEvent attachEvent) {
+        super.onAttach(attachEvent);
+        UI ui = attachEvent.getUI();
+        unsubscribe = productChangeBroadcaster.subscribe(changes -> access(ui, () -> {
+            pendingChanges.addAll(changes);
+            refresh(ui);
+        }));
+    }
+    
+    @Override
+    protected void onDetach(DetachEvent detachEvent) {
+        if (unsubscribe != null) {
+            unsubscribe.run();
+            unsubscribe = null;
+        }
+        super.onDetach(detachEvent);
+    }
+    
+    // The summary and category stats may reconcile the aggregate and the recent products are a query, so they are
+    // loaded on the task executor and the session lock is only held to redraw. One load at a time: changes pushed
+    // meanwhile are gathered and loaded together once it lands
+    private void refresh(UI ui) {
+        if (refreshing || pendingChanges.isEmpty()) {
+            return;
+        }
+        refreshing = true;
+        boolean recentAffected = pendingChanges.stream().anyMatch(change -> change.isCreate()
+                || recentProducts.stream().anyMatch(product -> product.id().equals(change.id())));
+        pendingChanges.clear();
+        
+        taskExecutor.submit(() -> {
+            try {
+                InventorySummary summary = dashboardUseCase.getInventorySummary();
+                List<CategoryStats> latestCategories = dashboardUseCase.getCategoryStats();
+                List<ProductResponse> latestRecent = recentAffected ? dashboardUseCase.getRecentProducts() : null;
+                access(ui, () -> {
+                    refreshing = false;
+                    applyChanges(summary, latestCategories, latestRecent);
+                    refresh(ui);
+                });
+            } catch (Exception e) {
+                access(ui, () -> {
+                    refreshing = false;
+                    Notification notification = Notification.show("Erro ao atualizar dashboard: " + e.getMessage(),
+                            5000, Notification.Position.TOP_CENTER);
+                    notification.addThemeVariants(NotificationVariant.LUMO_ERROR);
+                    refresh(ui);
+                });
+            }
+        });
+    }
+    
+    private static void access(UI ui, Command command) {
+        try {
+            ui.access(command);
+        } catch (UIDetachedException e) {
+            // View was closed before the update was delivered
+        }
+    }
+    
+    private void applyChanges(InventorySummary summary, List<CategoryStats> latestCategories,
+                              List<ProductResponse> latestRecent) {
+        List<String> latestCardValues = cardValues(summary.totalProducts(), DashboardUseCase.averagePrice(summary),
+                summary.totalValue(), summary.lowStock());
+        if (!latestCardValues.equals(renderedCardValues)) {
+            fillCards(latestCardValues);
+        }
+        
+        if (!summary.priceDistribution().equals(priceDistribution)) {
+            priceDistribution = summary.priceDistribution();
+            priceDistributionChart = replace(priceDistributionChart, createPriceDistributionChart(priceDistribution));
+        }
+        
+        if (!summary.stockLevels().equals(stockLevels)) {
+            stockLevels = summary.stockLevels();
+            stockChart = replace(stockChart, createStockChart(stockLevels));
+        }
+        
+        if (!latestCategories.equals(categories)) {
+            categories = latestCategories;
+            categoryChart = replace(categoryChart, createCategoryChart(categories));
+            valueByCategoryChart = replace(valueByCategoryChart, createValueByCategoryChart(categories));
+            averagePriceByCategoryChart = replace(averagePriceByCategoryChart, createAveragePriceByCategoryChart(categories));
+        }
+        
+        if (latestRecent != null) {
+            recentProducts = latestRecent;
+            recentProductsChart = replace(recentProductsChart, createRecentProductsChart(recentProducts));
+        }
+    }
+    
+    private Div replace(Div current, Div replacement) {
+        current.getParent().ifPresent(parent -> ((HorizontalLayout) parent).replace(current, replacement));
+        return replacement;
     }
     
     private void exportToPdf() {
@@ -103,10 +236,8 @@ public class DashboardView extends VerticalLayout {
     
     private void exportToCsv() {
         try {
-            String csvData = exportService.exportProductsToCSV();
-            
             StreamResource resource = new StreamResource("produtos.csv", 
-                () -> new java.io.ByteArrayInputStream(csvData.getBytes(java.nio.charset.StandardCharsets.UTF_8)));
+                (out, session) -> exportService.writeProductsCsv(out));
             resource.setContentType("text/csv");
             
             Anchor downloadLink = new Anchor(resource, "");
@@ -128,31 +259,35 @@ public class DashboardView extends VerticalLayout {
         }
     }
     
-    private void createStatisticsCards() {
-        DashboardResponse data = dashboardUseCase.getDashboardData();
-        List<Product> products = productRepository.findAll();
-        
-        long lowStock = products.stream().filter(p -> p.getStock() < 10).count();
-        long outOfStock = products.stream().filter(p -> p.getStock() == 0).count();
-        
-        BigDecimal totalValue = products.stream()
-                .map(p -> p.getPrice().multiply(BigDecimal.valueOf(p.getStock())))
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-        
-        HorizontalLayout cardsLayout = new HorizontalLayout();
+    private void createStatisticsCards(DashboardResponse data) {
         cardsLayout.setWidthFull();
         cardsLayout.setSpacing(true);
         
-        cardsLayout.add(
-                createCard("Total de Produtos", String.valueOf(data.totalProducts()), "success", "📦"),
-                createCard("Preço Médio", String.format("R$ %.2f", data.averagePrice()), "primary", "💰"),
-                createCard("Valor em Estoque", String.format("R$ %.2f", totalValue), "contrast", "💵"),
-                createCard("Estoque Baixo", String.valueOf(lowStock), "error", "⚠️")
-        );
+        fillCards(cardValues(data.totalProducts(), data.averagePrice(), data.totalValue(), data.lowStockCount()));
         
         add(cardsLayout);
     }
     
+    private List<String> cardValues(long totalProducts, BigDecimal averagePrice, BigDecimal totalValue, long lowStock) {
+        return List.of(
+                String.valueOf(totalProducts),
+                String.format("R$ %.2f", averagePrice),
+                String.format("R$ %.2f", totalValue),
+                String.valueOf(lowStock)
+        );
+    }
+    
+    private void fillCards(List<String> values) {
+        renderedCardValues = values;
+        cardsLayout.removeAll();
+        cardsLayout.add(
+                createCard("Total de Produtos", values.get(0), "success", "📦"),
+                createCard("Preço Médio", values.get(1), "primary", "💰"),
+                createCard("Valor em Estoque", values.get(2), "contrast", "💵"),
+                createCard("Estoque Baixo", values.get(3), "error", "⚠️")
+        );
+    }
+    
     private Div createCard(String title, String value, String theme, String icon) {
         Div card = new Div();
         card.addClassNames(
@@ -188,40 +323,41 @@ public class DashboardView extends VerticalLayout {
         return card;
     }
     
-    private void createCharts() {
-        List<Product> products = productRepository.findAll();
+    private void createCharts(DashboardResponse data) {
+        priceDistribution = data.priceDistribution();
+        stockLevels = data.stockLevels();
+        categories = data.categories();
+        recentProducts = data.recentProducts();
+        
+        categoryChart = createCategoryChart(categories);
+        priceDistributionChart = createPriceDistributionChart(priceDistribution);
+        stockChart = createStockChart(stockLevels);
+        valueByCategoryChart = createValueByCategoryChart(categories);
+        recentProductsChart = createRecentProductsChart(recentProducts);
+        averagePriceByCategoryChart = createAveragePriceByCategoryChart(categories);
         
         HorizontalLayout firstRow = new HorizontalLayout();
         firstRow.setWidthFull();
         firstRow.setSpacing(true);
         
-        firstRow.add(
-                createCategoryChart(products),
-                createPriceDistributionChart(products)
-        );
+        firstRow.add(categoryChart, priceDistributionChart);
         
         HorizontalLayout secondRow = new HorizontalLayout();
         secondRow.setWidthFull();
         secondRow.setSpacing(true);
         
-        secondRow.add(
-                createStockChart(products),
-                createValueByCategoryChart(products)
-        );
+        secondRow.add(stockChart, valueByCategoryChart);
         
         HorizontalLayout thirdRow = new HorizontalLayout();
         thirdRow.setWidthFull();
         thirdRow.setSpacing(true);
         
-        thirdRow.add(
-                createRecentProductsChart(products),
-                createAveragePriceByCategoryChart(products)
-        );
+        thirdRow.add(recentProductsChart, averagePriceByCategoryChart);
         
         add(firstRow, secondRow, thirdRow);
     }
     
-    private Div createCategoryChart(List<Product> products) {
+    private Div createCategoryChart(List<CategoryStats> categories) {
         Div container = new Div();
         container.setWidth("50%");
         container.addClassNames(
@@ -233,8 +369,9 @@ public class DashboardView extends VerticalLayout {
         H3 chartTitle = new H3("📊  Produtos por Categoria");
         chartTitle.getStyle().set("margin-top", "0");
         
-        Map<String, Long> categoryCount = products.stream()
-                .collect(Collectors.groupingBy(Product::getCategory, Collectors.counting()));
+        Map<String, Long> categoryCount = categories.stream()
+                .collect(Collectors.toMap(CategoryStats::category, CategoryStats::productCount,
+                        (a, b) -> a, LinkedHashMap::new));
         
         VerticalLayout barsContainer = new VerticalLayout();
         barsContainer.setSpacing(true);
@@ -298,7 +435,7 @@ public class DashboardView extends VerticalLayout {
         return container;
     }
     
-    private Div createPriceDistributionChart(List<Product> products) {
+    private Div createPriceDistributionChart(List<ChartBucket> buckets) {
         Div container = new Div();
         container.setWidth("50%");
         container.addClassNames(
@@ -310,16 +447,7 @@ public class DashboardView extends VerticalLayout {
         H3 chartTitle = new H3("💰  Distribuição de Preços");
         chartTitle.getStyle().set("margin-top", "0");
         
-        long range1 = products.stream().filter(p -> p.getPrice().compareTo(new BigDecimal("500")) < 0).count();
-        long range2 = products.stream().filter(p -> p.getPrice().compareTo(new BigDecimal("500")) >= 0 && 
-                                                      p.getPrice().compareTo(new BigDecimal("1000")) < 0).count();
-        long range3 = products.stream().filter(p -> p.getPrice().compareTo(new BigDecimal("1000")) >= 0 && 
-                                                      p.getPrice().compareTo(new BigDecimal("2000")) < 0).count();
-        long range4 = products.stream().filter(p -> p.getPrice().compareTo(new BigDecimal("2000")) >= 0 && 
-                                                      p.getPrice().compareTo(new BigDecimal("3000")) < 0).count();
-        long range5 = products.stream().filter(p -> p.getPrice().compareTo(new BigDecimal("3000")) >= 0).count();
-        
-        long maxValue = Math.max(Math.max(Math.max(Math.max(range1, range2), range3), range4), range5);
+        long maxValue = buckets.stream().mapToLong(ChartBucket::count).max().orElse(0);
         if (maxValue == 0) maxValue = 1;
         
         HorizontalLayout barsContainer = new HorizontalLayout();
@@ -328,13 +456,11 @@ public class DashboardView extends VerticalLayout {
         barsContainer.setJustifyContentMode(JustifyContentMode.AROUND);
         barsContainer.getStyle().set("height", "250px");
         
-        barsContainer.add(
-                createColumnBar("0-500", range1, maxValue, "#00E396"),
-                createColumnBar("500-1K", range2, maxValue, "#008FFB"),
-                createColumnBar("1K-2K", range3, maxValue, "#FEB019"),
-                createColumnBar("2K-3K", range4, maxValue, "#FF4560"),
-                createColumnBar("3K+", range5, maxValue, "#775DD0")
-        );
+        String[] colors = {"#00E396", "#008FFB", "#FEB019", "#FF4560", "#775DD0"};
+        for (int i = 0; i < buckets.size(); i++) {
+            ChartBucket bucket = buckets.get(i);
+            barsContainer.add(createColumnBar(bucket.label(), bucket.count(), maxValue, colors[i % colors.length]));
+        }
         
         container.add(chartTitle, barsContainer);
         return container;
@@ -372,7 +498,7 @@ public class DashboardView extends VerticalLayout {
         return column;
     }
     
-    private Div createStockChart(List<Product> products) {
+    private Div createStockChart(List<ChartBucket> stockLevels) {
         Div container = new Div();
         container.setWidth("50%");
         container.addClassNames(
@@ -384,22 +510,17 @@ public class DashboardView extends VerticalLayout {
         H3 chartTitle = new H3("📦  Níveis de Estoque");
         chartTitle.getStyle().set("margin-top", "0");
         
-        long outOfStock = products.stream().filter(p -> p.getStock() == 0).count();
-        long lowStock = products.stream().filter(p -> p.getStock() > 0 && p.getStock() < 10).count();
-        long mediumStock = products.stream().filter(p -> p.getStock() >= 10 && p.getStock() < 50).count();
-        long highStock = products.stream().filter(p -> p.getStock() >= 50).count();
-        
         VerticalLayout statsContainer = new VerticalLayout();
         statsContainer.setSpacing(true);
         statsContainer.setPadding(false);
         statsContainer.setWidthFull();
         
-        statsContainer.add(
-                createStockRow("Sem Estoque", outOfStock, "#FF4560", "🔴"),
-                createStockRow("Estoque Baixo (1-9)", lowStock, "#FEB019", "🟡"),
-                createStockRow("Estoque Médio (10-49)", mediumStock, "#00E396", "🟢"),
-                createStockRow("Estoque Alto (50+)", highStock, "#008FFB", "🔵")
-        );
+        String[] labels = {"Sem Estoque", "Estoque Baixo (1-9)", "Estoque Médio (10-49)", "Estoque Alto (50+)"};
+        String[] colors = {"#FF4560", "#FEB019", "#00E396", "#008FFB"};
+        String[] icons = {"🔴", "🟡", "🟢", "🔵"};
+        for (int i = 0; i < stockLevels.size() && i < labels.length; i++) {
+            statsContainer.add(createStockRow(labels[i], stockLevels.get(i).count(), colors[i], icons[i]));
+        }
         
         container.add(chartTitle, statsContainer);
         return container;
@@ -433,7 +554,7 @@ public class DashboardView extends VerticalLayout {
         return row;
     }
     
-    private Div createValueByCategoryChart(List<Product> products) {
+    private Div createValueByCategoryChart(List<CategoryStats> categories) {
         Div container = new Div();
         container.setWidth("50%");
         container.addClassNames(
@@ -445,15 +566,8 @@ public class DashboardView extends VerticalLayout {
         H3 chartTitle = new H3("💵  Valor Total por Categoria");
         chartTitle.getStyle().set("margin-top", "0");
         
-        Map<String, BigDecimal> categoryValues = products.stream()
-                .collect(Collectors.groupingBy(
-                        Product::getCategory,
-                        Collectors.reducing(
-                                BigDecimal.ZERO,
-                                p -> p.getPrice().multiply(BigDecimal.valueOf(p.getStock())),
-                                BigDecimal::add
-                        )
-                ));
+        Map<String, BigDecimal> categoryValues = categories.stream()
+                .collect(Collectors.toMap(CategoryStats::category, CategoryStats::totalValue));
         
         if (categoryValues.isEmpty()) {
             Span emptyMessage = new Span("Nenhum produto cadastrado");
@@ -535,7 +649,7 @@ public class DashboardView extends VerticalLayout {
         return container;
     }
     
-    private Div createRecentProductsChart(List<Product> products) {
+    private Div createRecentProductsChart(List<ProductResponse> recentProducts) {
         Div container = new Div();
         container.setWidth("50%");
         container.addClassNames(
@@ -547,11 +661,6 @@ public class DashboardView extends VerticalLayout {
         H3 chartTitle = new H3("🆕  Produtos Recentes");
         chartTitle.getStyle().set("margin-top", "0");
         
-        List<Product> recentProducts = products.stream()
-                .sorted((p1, p2) -> p2.getCreatedAt().compareTo(p1.getCreatedAt()))
-                .limit(5)
-                .collect(Collectors.toList());
-        
         if (recentProducts.isEmpty()) {
             Span emptyMessage = new Span("Nenhum produto cadastrado");
             emptyMessage.getStyle().set("color", "var(--lumo-secondary-text-color)");
@@ -564,7 +673,7 @@ public class DashboardView extends VerticalLayout {
         productsContainer.setPadding(false);
         productsContainer.setWidthFull();
         
-        for (Product product : recentProducts) {
+        for (ProductResponse product : recentProducts) {
             HorizontalLayout productRow = new HorizontalLayout();
             productRow.setWidthFull();
             productRow.setAlignItems(Alignment.CENTER);
@@ -582,21 +691,21 @@ public class DashboardView extends VerticalLayout {
             infoLayout.setPadding(false);
             infoLayout.setWidthFull();
             
-            Span nameSpan = new Span(product.getName().length() > 35 ? 
-                    product.getName().substring(0, 32) + "..." : product.getName());
+            Span nameSpan = new Span(product.name().length() > 35 ? 
+                    product.name().substring(0, 32) + "..." : product.name());
             nameSpan.getStyle().set("font-weight", "500");
             
             Span detailsSpan = new Span(String.format("%s • R$ %.2f • Estoque: %d",
-                    product.getCategory(),
-                    product.getPrice(),
-                    product.getStock()));
+                    product.category(),
+                    product.price(),
+                    product.stock()));
             detailsSpan.getStyle()
                     .set("font-size", "0.875rem")
                     .set("color", "var(--lumo-secondary-text-color)");
             
             infoLayout.add(nameSpan, detailsSpan);
             
-            Span dateSpan = new Span(product.getCreatedAt().format(
+            Span dateSpan = new Span(product.createdAt().format(
                     java.time.format.DateTimeFormatter.ofPattern("dd/MM/yyyy")));
             dateSpan.getStyle()
                     .set("font-size", "0.875rem")
@@ -611,7 +720,7 @@ public class DashboardView extends VerticalLayout {
         return container;
     }
     
-    private Div createAveragePriceByCategoryChart(List<Product> products) {
+    private Div createAveragePriceByCategoryChart(List<CategoryStats> categories) {
         Div container = new Div();
         container.setWidth("50%");
         container.addClassNames(
@@ -623,11 +732,8 @@ public class DashboardView extends VerticalLayout {
         H3 chartTitle = new H3("📊  Preço Médio por Categoria");
         chartTitle.getStyle().set("margin-top", "0");
         
-        Map<String, Double> categoryAvgPrice = products.stream()
-                .collect(Collectors.groupingBy(
-                        Product::getCategory,
-                        Collectors.averagingDouble(p -> p.getPrice().doubleValue())
-                ));
+        Map<String, Double> categoryAvgPrice = categories.stream()
+                .collect(Collectors.toMap(CategoryStats::category, CategoryStats::averagePrice));
         
         if (categoryAvgPrice.isEmpty()) {
             Span emptyMessage = new Span("Nenhum produto cadastrado");
@@ -1,12 +1,18 @@
 package br.com.partnerpro.product_manager.ui.views;
 
 import br.com.partnerpro.product_manager.application.service.ExportService;
+import br.com.partnerpro.product_manager.application.service.ProductChangeBroadcaster;
 import br.com.partnerpro.product_manager.application.usecase.ProductUseCase;
-import br.com.partnerpro.product_manager.domain.entity.Product;
-import br.com.partnerpro.product_manager.domain.repository.ProductRepository;
+import br.com.partnerpro.product_manager.domain.model.ProductChange;
 import br.com.partnerpro.product_manager.framework.dto.CreateProductRequest;
+import br.com.partnerpro.product_manager.framework.dto.ProductFilterRequest;
+import br.com.partnerpro.product_manager.framework.dto.ProductResponse;
 import br.com.partnerpro.product_manager.framework.dto.UpdateProductRequest;
 import br.com.partnerpro.product_manager.ui.MainLayout;
+import com.vaadin.flow.component.AttachEvent;
+import com.vaadin.flow.component.DetachEvent;
+import com.vaadin.flow.component.UI;
+import com.vaadin.flow.component.UIDetachedException;
 import com.vaadin.flow.component.button.Button;
 import com.vaadin.flow.component.button.ButtonVariant;
 import com.vaadin.flow.component.datepicker.DatePicker;
@@ -26,27 +32,50 @@ import com.vaadin.flow.component.orderedlayout.VerticalLayout;
 import com.vaadin.flow.component.textfield.BigDecimalField;
 import com.vaadin.flow.component.textfield.IntegerField;
 import com.vaadin.flow.component.textfield.TextField;
+import com.vaadin.flow.data.provider.CallbackDataProvider;
+import com.vaadin.flow.data.provider.ConfigurableFilterDataProvider;
+import com.vaadin.flow.data.provider.QuerySortOrder;
+import com.vaadin.flow.data.provider.SortDirection;
 import com.vaadin.flow.data.value.ValueChangeMode;
 import com.vaadin.flow.router.PageTitle;
+import com.vaadin.flow.server.Command;
 import com.vaadin.flow.router.Route;
 import com.vaadin.flow.server.StreamResource;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.data.domain.Sort;
 
 import java.math.BigDecimal;
-import java.time.LocalDate;
-import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Route(value = "", layout = MainLayout.class)
 @PageTitle("Produtos | Product Manager")
 @jakarta.annotation.security.PermitAll
 public class ProductsView extends VerticalLayout {
     
-    private final ProductRepository productRepository;
+    // Rows fetched together with the count so the first screen after a filter change needs no extra query,
+    // and how many more are read ahead while scrolling
+    private static final int PREFETCH_SIZE = 100;
+    // Rows kept per view; those scrolled past are dropped as new ones are read ahead
+    private static final int WINDOW_SIZE = 2 * PREFETCH_SIZE;
+    // Larger pushed batches reload the visible range instead of refreshing rows one by one
+    private static final int MAX_ROW_REFRESHES = 50;
+    
     private final ProductUseCase productUseCase;
     private final ExportService exportService;
-    private final Grid<Product> grid = new Grid<>(Product.class, false);
+    private final AsyncTaskExecutor taskExecutor;
+    private final ProductChangeBroadcaster productChangeBroadcaster;
+    private final Grid<ProductResponse> grid = new Grid<>(ProductResponse.class, false);
+    private final ConfigurableFilterDataProvider<ProductResponse, Void, GridQuery> dataProvider;
     
     private TextField nameFilter;
     private TextField categoryFilter;
@@ -57,12 +86,32 @@ public class ProductsView extends VerticalLayout {
     private DatePicker startDateFilter;
     private DatePicker endDateFilter;
     
-    private List<Product> allProducts;
+    private final AtomicLong filterGeneration = new AtomicLong();
+    private Future<?> pendingFilter;
+    private FilterResult prefetched;
+    private boolean loadingWindow;
+    private boolean waitingForRows;
+    private boolean resettingFilters;
+    private Runnable unsubscribe;
     
-    public ProductsView(ProductRepository productRepository, ProductUseCase productUseCase, ExportService exportService) {
-        this.productRepository = productRepository;
+    public ProductsView(ProductUseCase productUseCase, ExportService exportService,
+                        @Qualifier("applicationTaskExecutor") AsyncTaskExecutor taskExecutor,
+                        ProductChangeBroadcaster productChangeBroadcaster) {
         this.productUseCase = productUseCase;
         this.exportService = exportService;
+        this.taskExecutor = taskExecutor;
+        this.productChangeBroadcaster = productChangeBroadcaster;
+        
+        // Only the rows the grid asks for are loaded; filters, sorting and paging run in the database.
+        // The sort travels in the filter, so a new sort is loaded in the background like a new filter, and
+        // nothing is shown until the first load lands
+        this.dataProvider = new CallbackDataProvider<ProductResponse, GridQuery>(
+                query -> query.getFilter()
+                        .map(gridQuery -> fetch(gridQuery, query.getOffset(), query.getLimit()).stream())
+                        .orElseGet(Stream::empty),
+                query -> query.getFilter().map(this::count).orElse(0),
+                ProductResponse::id
+        ).withConfigurableFilter();
         
         setSizeFull();
         setPadding(true);
@@ -73,8 +122,39 @@ public class ProductsView extends VerticalLayout {
         Details filterPanel = createFilterPanel();
         
         add(toolbar, filterPanel, grid);
-        
-        updateList();
+    }
+    
+    @Override
+    protected void onAttach(AttachEvent attachEvent) {
+        super.onAttach(attachEvent);
+        UI ui = attachEvent.getUI();
+        unsubscribe = productChangeBroadcaster.subscribe(changes -> access(ui, () -> applyChanges(changes)));
+        reload(false);
+    }
+    
+    @Override
+    protected void onDetach(DetachEvent detachEvent) {
+        if (unsubscribe != null) {
+            unsubscribe.run();
+            unsubscribe = null;
+        }
+        super.onDetach(detachEvent);
+    }
+    
+    private void applyChanges(List<ProductChange> changes) {
+        // Inserts, removals, filters and sorting can move rows, so only plain edits are patched in place
+        boolean inPlace = changes.size() <= MAX_ROW_REFRESHES
+                && !hasActiveFilters()
+                && grid.getSortOrder().isEmpty()
+                && changes.stream().noneMatch(change -> change.isCreate() || change.isDelete());
+        if (inPlace) {
+            if (prefetched != null) {
+                prefetched = prefetched.withEdits(changes.stream().map(ProductChange::after).toList());
+            }
+            changes.forEach(change -> dataProvider.refreshItem(change.after()));
+        } else {
+            reload(false);
+        }
     }
     
     private HorizontalLayout createToolbar() {
@@ -108,10 +188,8 @@ public class ProductsView extends VerticalLayout {
     
     private void exportToCsv() {
         try {
-            String csvData = exportService.exportProductsToCSV();
-            
             StreamResource resource = new StreamResource("produtos.csv", 
-                () -> new java.io.ByteArrayInputStream(csvData.getBytes(java.nio.charset.StandardCharsets.UTF_8)));
+                (out, session) -> exportService.writeProductsCsv(out));
             resource.setContentType("text/csv");
             
             Anchor downloadLink = new Anchor(resource, "");
@@ -133,10 +211,8 @@ public class ProductsView extends VerticalLayout {
     
     private void exportToPdf() {
         try {
-            byte[] pdfData = exportService.exportProductsToPDF();
-            
             StreamResource resource = new StreamResource("produtos.pdf", 
-                () -> new java.io.ByteArrayInputStream(pdfData));
+                (out, session) -> exportService.writeProductsPdf(out));
             resource.setContentType("application/pdf");
             
             Anchor downloadLink = new Anchor(resource, "");
@@ -160,13 +236,13 @@ public class ProductsView extends VerticalLayout {
         grid.addClassName("product-grid");
         grid.setSizeFull();
         
-        grid.addColumn(Product::getName).setHeader("Nome").setSortable(true);
-        grid.addColumn(Product::getDescription).setHeader("Descrição");
-        grid.addColumn(p -> String.format("R$ %.2f", p.getPrice())).setHeader("Preço").setSortable(true);
-        grid.addColumn(Product::getCategory).setHeader("Categoria").setSortable(true);
-        grid.addColumn(Product::getStock).setHeader("Estoque").setSortable(true);
-        grid.addColumn(p -> p.getCreatedAt().format(java.time.format.DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm")))
-                .setHeader("Data de Criação").setSortable(true);
+        grid.addColumn(ProductResponse::name).setHeader("Nome").setSortProperty("name");
+        grid.addColumn(ProductResponse::description).setHeader("Descrição");
+        grid.addColumn(p -> String.format("R$ %.2f", p.price())).setHeader("Preço").setSortProperty("price");
+        grid.addColumn(ProductResponse::category).setHeader("Categoria").setSortProperty("category");
+        grid.addColumn(ProductResponse::stock).setHeader("Estoque").setSortProperty("stock");
+        grid.addColumn(p -> p.createdAt().format(java.time.format.DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm")))
+                .setHeader("Data de Criação").setSortProperty("createdAt");
         
         grid.addComponentColumn(product -> {
             Button editButton = new Button(VaadinIcon.EDIT.create());
@@ -179,9 +255,12 @@ public class ProductsView extends VerticalLayout {
             
             return new HorizontalLayout(editButton, deleteButton);
         }).setHeader("Ações").setWidth("150px").setFlexGrow(0);
+        
+        grid.setItems(dataProvider);
+        grid.addSortListener(e -> reload(false));
     }
     
-    private void openProductDialog(Product product) {
+    private void openProductDialog(ProductResponse product) {
         Dialog dialog = new Dialog();
         dialog.setHeaderTitle(product == null ? "Novo Produto" : "Editar Produto");
         
@@ -207,11 +286,11 @@ public class ProductsView extends VerticalLayout {
         stockField.setMin(0);
         
         if (product != null) {
-            nameField.setValue(product.getName());
-            descriptionField.setValue(product.getDescription() != null ? product.getDescription() : "");
-            priceField.setValue(product.getPrice());
-            categoryField.setValue(product.getCategory());
-            stockField.setValue(product.getStock());
+            nameField.setValue(product.name());
+            descriptionField.setValue(product.description() != null ? product.description() : "");
+            priceField.setValue(product.price());
+            categoryField.setValue(product.category());
+            stockField.setValue(product.stock());
         }
         
         formLayout.add(nameField, descriptionField, priceField, categoryField, stockField);
@@ -243,7 +322,7 @@ public class ProductsView extends VerticalLayout {
                 createProduct(nameField.getValue(), descriptionField.getValue(), 
                         priceField.getValue(), categoryField.getValue(), stockField.getValue());
             } else {
-                updateProduct(product.getId(), nameField.getValue(), descriptionField.getValue(),
+                updateProduct(product.id(), nameField.getValue(), descriptionField.getValue(),
                         priceField.getValue(), categoryField.getValue(), stockField.getValue());
             }
             dialog.close();
@@ -311,16 +390,16 @@ public class ProductsView extends VerticalLayout {
         return fullMessage;
     }
     
-    private void deleteProduct(Product product) {
+    private void deleteProduct(ProductResponse product) {
         Dialog confirmDialog = new Dialog();
         confirmDialog.setHeaderTitle("Confirmar Exclusão");
         
         VerticalLayout content = new VerticalLayout();
-        content.add(new Span("Tem certeza que deseja excluir o produto: " + product.getName() + "?"));
+        content.add(new Span("Tem certeza que deseja excluir o produto: " + product.name() + "?"));
         
         Button confirmButton = new Button("Excluir", e -> {
             try {
-                productUseCase.deleteProduct(product.getId());
+                productUseCase.deleteProduct(product.id());
                 showNotification("Produto excluído com sucesso!", NotificationVariant.LUMO_SUCCESS);
                 updateList();
             } catch (Exception ex) {
@@ -406,76 +485,150 @@ public class ProductsView extends VerticalLayout {
     }
     
     private void applyFilters() {
-        if (allProducts == null) {
-            return;
-        }
-        
-        List<Product> filtered = allProducts.stream()
-                .filter(this::matchesFilters)
-                .collect(Collectors.toList());
-        
-        grid.setItems(filtered);
-        
-        if (hasActiveFilters()) {
-            showNotification(
-                String.format("Encontrados %d produto(s)", filtered.size()),
-                NotificationVariant.LUMO_PRIMARY
-            );
+        if (!resettingFilters) {
+            reload(hasActiveFilters());
         }
     }
     
-    private boolean matchesFilters(Product product) {
-        if (nameFilter.getValue() != null && !nameFilter.getValue().isEmpty()) {
-            if (!product.getName().toLowerCase().contains(nameFilter.getValue().toLowerCase())) {
-                return false;
-            }
+    // Until the new rows land the grid keeps serving the previous ones
+    private void reload(boolean notify) {
+        GridQuery query = new GridQuery(buildFilters(), currentSort());
+        UI ui = UI.getCurrent();
+        
+        // A newer filter supersedes the running one: queued work is cancelled, late results are dropped
+        long generation = filterGeneration.incrementAndGet();
+        if (pendingFilter != null) {
+            pendingFilter.cancel(false);
         }
         
-        if (categoryFilter.getValue() != null && !categoryFilter.getValue().isEmpty()) {
-            if (!product.getCategory().toLowerCase().contains(categoryFilter.getValue().toLowerCase())) {
-                return false;
-            }
-        }
-        
-        if (minPriceFilter.getValue() != null) {
-            if (product.getPrice().compareTo(minPriceFilter.getValue()) < 0) {
-                return false;
+        pendingFilter = taskExecutor.submit(() -> {
+            try {
+                long total = productUseCase.countProducts(query.filters());
+                if (generation != filterGeneration.get()) {
+                    return;
+                }
+                List<ProductResponse> firstRows = productUseCase.findProducts(
+                        query.filters(), query.sort(), 0, PREFETCH_SIZE);
+                
+                access(ui, () -> {
+                    if (generation != filterGeneration.get()) {
+                        return;
+                    }
+                    prefetched = new FilterResult(query, total, 0, firstRows);
+                    dataProvider.setFilter(query);
+                    
+                    if (notify) {
+                        showNotification(
+                            String.format("Encontrados %d produto(s)", total),
+                            NotificationVariant.LUMO_PRIMARY
+                        );
+                    }
+                });
+            } catch (Exception e) {
+                if (generation == filterGeneration.get()) {
+                    access(ui, () -> showNotification("Erro ao filtrar produtos: " + e.getMessage(),
+                            NotificationVariant.LUMO_ERROR));
+                }
             }
+        });
+    }
+    
+    private static void access(UI ui, Command command) {
+        try {
+            ui.access(command);
+        } catch (UIDetachedException e) {
+            // View was closed before the background work finished
         }
-        
-        if (maxPriceFilter.getValue() != null) {
-            if (product.getPrice().compareTo(maxPriceFilter.getValue()) > 0) {
-                return false;
-            }
+    }
+    
+    // The grid is only ever served from the window; the database is queried in the background
+    private List<ProductResponse> fetch(GridQuery query, int offset, int limit) {
+        FilterResult cached = prefetched;
+        if (cached == null || !cached.query().equals(query)) {
+            return List.of();
         }
-        
-        if (minStockFilter.getValue() != null) {
-            if (product.getStock() < minStockFilter.getValue()) {
-                return false;
-            }
+        if (cached.covers(offset, limit)) {
+            readAhead(cached, offset + limit);
+            return cached.slice(offset, limit);
         }
-        
-        if (maxStockFilter.getValue() != null) {
-            if (product.getStock() > maxStockFilter.getValue()) {
-                return false;
-            }
+        // Outside the window, e.g. after dragging the scrollbar: the rows around the request are loaded and the
+        // grid asks again once they land
+        waitingForRows = true;
+        loadWindow(cached, Math.max(0, offset + limit / 2 - PREFETCH_SIZE), WINDOW_SIZE);
+        return List.of();
+    }
+    
+    // Scrolling into the end of the window loads the next rows, so steady scrolling finds them ready
+    private void readAhead(FilterResult cached, int end) {
+        if (!cached.isComplete() && end + PREFETCH_SIZE / 2 >= cached.end()) {
+            loadWindow(cached, cached.end(), PREFETCH_SIZE);
         }
-        
-        if (startDateFilter.getValue() != null) {
-            LocalDate productDate = product.getCreatedAt().toLocalDate();
-            if (productDate.isBefore(startDateFilter.getValue())) {
-                return false;
-            }
+    }
+    
+    // One load at a time; a request it does not cover is asked again when the grid refreshes after it
+    private void loadWindow(FilterResult cached, int from, int size) {
+        if (loadingWindow) {
+            return;
         }
+        loadingWindow = true;
+        UI ui = UI.getCurrent();
+        long generation = filterGeneration.get();
         
-        if (endDateFilter.getValue() != null) {
-            LocalDate productDate = product.getCreatedAt().toLocalDate();
-            if (productDate.isAfter(endDateFilter.getValue())) {
-                return false;
+        taskExecutor.submit(() -> {
+            try {
+                List<ProductResponse> rows = productUseCase.findProducts(
+                        cached.query().filters(), cached.query().sort(), from, size);
+                access(ui, () -> {
+                    loadingWindow = false;
+                    if (generation != filterGeneration.get()) {
+                        return;
+                    }
+                    prefetched = prefetched.loaded(from, size, rows);
+                    if (waitingForRows) {
+                        waitingForRows = false;
+                        dataProvider.refreshAll();
+                    }
+                });
+            } catch (Exception e) {
+                access(ui, () -> {
+                    loadingWindow = false;
+                    waitingForRows = false;
+                    showNotification("Erro ao carregar produtos: " + e.getMessage(), NotificationVariant.LUMO_ERROR);
+                });
             }
-        }
-        
-        return true;
+        });
+    }
+    
+    private int count(GridQuery query) {
+        FilterResult cached = prefetched;
+        return cached != null && cached.query().equals(query) ? Math.toIntExact(cached.total()) : 0;
+    }
+    
+    private Sort currentSort() {
+        return toSort(grid.getSortOrder().stream()
+                .flatMap(order -> order.getSorted().getSortOrder(order.getDirection()))
+                .toList());
+    }
+    
+    private static Sort toSort(List<QuerySortOrder> sortOrders) {
+        return Sort.by(sortOrders.stream()
+                .map(order -> order.getDirection() == SortDirection.DESCENDING
+                        ? Sort.Order.desc(order.getSorted())
+                        : Sort.Order.asc(order.getSorted()))
+                .toList());
+    }
+    
+    private ProductFilterRequest buildFilters() {
+        return ProductFilterRequest.builder()
+                .name(nameFilter.getValue())
+                .category(categoryFilter.getValue())
+                .minPrice(minPriceFilter.getValue())
+                .maxPrice(maxPriceFilter.getValue())
+                .minStock(minStockFilter.getValue())
+                .maxStock(maxStockFilter.getValue())
+                .startDate(startDateFilter.getValue() != null ? startDateFilter.getValue().atStartOfDay() : null)
+                .endDate(endDateFilter.getValue() != null ? endDateFilter.getValue().atTime(LocalTime.MAX) : null)
+                .build();
     }
     
     private boolean hasActiveFilters() {
@@ -490,22 +643,27 @@ public class ProductsView extends VerticalLayout {
     }
     
     private void clearFilters() {
-        nameFilter.clear();
-        categoryFilter.clear();
-        minPriceFilter.clear();
-        maxPriceFilter.clear();
-        minStockFilter.clear();
-        maxStockFilter.clear();
-        startDateFilter.clear();
-        endDateFilter.clear();
+        // Each cleared field fires its listener; the reset is loaded once, after the last one
+        resettingFilters = true;
+        try {
+            nameFilter.clear();
+            categoryFilter.clear();
+            minPriceFilter.clear();
+            maxPriceFilter.clear();
+            minStockFilter.clear();
+            maxStockFilter.clear();
+            startDateFilter.clear();
+            endDateFilter.clear();
+        } finally {
+            resettingFilters = false;
+        }
         
         applyFilters();
         showNotification("Filtros limpos!", NotificationVariant.LUMO_SUCCESS);
     }
     
     private void updateList() {
-        allProducts = productRepository.findAll();
-        applyFilters();
+        reload(false);
     }
     
     private void showNotification(String message, NotificationVariant variant) {
@@ -514,4 +672,50 @@ public class ProductsView extends VerticalLayout {
         notification.setPosition(Notification.Position.TOP_END);
         notification.open();
     }
+    
+    private record GridQuery(ProductFilterRequest filters, Sort sort) {
+    }
+    
+    // At most WINDOW_SIZE consecutive rows of the query's results, the first of them at offset
+    private record FilterResult(GridQuery query, long total, int offset, List<ProductResponse> rows) {
+        
+        int end() {
+            return offset + rows.size();
+        }
+        
+        boolean isComplete() {
+            return end() >= total;
+        }
+        
+        boolean covers(int offset, int limit) {
+            return offset >= this.offset && Math.min(offset + limit, total) <= end();
+        }
+        
+        List<ProductResponse> slice(int offset, int limit) {
+            return rows.subList(Math.min(offset - this.offset, rows.size()),
+                    Math.min(offset + limit - this.offset, rows.size()));
+        }
+        
+        // Rows right after the window extend it, dropping the oldest; any other range replaces it
+        FilterResult loaded(int from, int size, List<ProductResponse> loaded) {
+            // A short load means the results ended sooner than the count said, e.g. after a delete
+            long newTotal = loaded.size() < size ? from + loaded.size() : Math.max(total, from + loaded.size());
+            if (from != end()) {
+                return new FilterResult(query, newTotal, from, List.copyOf(loaded));
+            }
+            List<ProductResponse> all = new ArrayList<>(rows.size() + loaded.size());
+            all.addAll(rows);
+            all.addAll(loaded);
+            int dropped = Math.max(0, all.size() - WINDOW_SIZE);
+            return new FilterResult(query, newTotal, offset + dropped, List.copyOf(all.subList(dropped, all.size())));
+        }
+        
+        FilterResult withEdits(List<ProductResponse> edited) {
+            Map<UUID, ProductResponse> byId = edited.stream()
+                    .collect(Collectors.toMap(ProductResponse::id, Function.identity(), (first, last) -> last));
+            return new FilterResult(query, total, offset, rows.stream()
+                    .map(row -> byId.getOrDefault(row.id(), row))
+                    .toList());
+        }
+    }
 }
@@ -0,0 +1,6 @@
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+CREATE INDEX idx_products_name_trgm ON products USING gin (lower(name) gin_trgm_ops);
+CREATE INDEX idx_products_category_price ON products(lower(category), price);
+CREATE INDEX idx_products_category_created_at ON products(lower(category), created_at DESC);
+CREATE INDEX idx_products_price ON products(price);
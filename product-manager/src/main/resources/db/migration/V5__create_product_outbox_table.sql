@@ -0,0 +1,14 @@
+CREATE SEQUENCE product_outbox_seq INCREMENT BY 50;
+
+CREATE TABLE product_outbox (
+    id BIGINT PRIMARY KEY,
+    event_type VARCHAR(32) NOT NULL,
+    product_id UUID NOT NULL,
+    before_state TEXT,
+    after_state TEXT,
+    created_at TIMESTAMP NOT NULL,
+    processed_at TIMESTAMP
+);
+
+CREATE INDEX idx_product_outbox_pending ON product_outbox(id) WHERE processed_at IS NULL;
+CREATE INDEX idx_product_outbox_processed_at ON product_outbox(processed_at) WHERE processed_at IS NOT NULL;
@@ -0,0 +1,9 @@
+CREATE SEQUENCE cache_invalidation_seq INCREMENT BY 50;
+
+CREATE TABLE cache_invalidation (
+    id BIGINT PRIMARY KEY,
+    payload TEXT NOT NULL,
+    created_at TIMESTAMP NOT NULL
+);
+
+CREATE INDEX idx_cache_invalidation_created_at ON cache_invalidation(created_at);
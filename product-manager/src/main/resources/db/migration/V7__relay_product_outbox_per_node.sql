@@ -0,0 +1,6 @@
+-- Every node now relays every row itself, so there is no shared processed mark any more
+DROP INDEX idx_product_outbox_pending;
+DROP INDEX idx_product_outbox_processed_at;
+ALTER TABLE product_outbox DROP COLUMN processed_at;
+
+CREATE INDEX idx_product_outbox_created_at ON product_outbox(created_at, id);
@@ -0,0 +1,111 @@
+package br.com.partnerpro.product_manager.application.service;
+
+import br.com.partnerpro.product_manager.application.usecase.ProductUseCase;
+import br.com.partnerpro.product_manager.domain.model.CatalogSelection;
+import br.com.partnerpro.product_manager.domain.repository.ProductRepository;
+import br.com.partnerpro.product_manager.framework.dto.ChatStreamEvent;
+import br.com.partnerpro.product_manager.framework.dto.CreateProductRequest;
+import br.com.partnerpro.product_manager.framework.dto.ProductResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Answers;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.ai.chat.client.ChatClient;
+import org.springframework.ai.chat.prompt.Prompt;
+import reactor.core.publisher.Flux;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AIAssistantServiceTest {
+    
+    @Mock
+    private ChatClient.Builder chatClientBuilder;
+    
+    @Mock(answer = Answers.RETURNS_DEEP_STUBS)
+    private ChatClient chatClient;
+    
+    @Mock
+    private ProductRepository productRepository;
+    
+    @Mock
+    private ProductUseCase productUseCase;
+    
+    @Mock
+    private ChartGeneratorService chartGeneratorService;
+    
+    @Mock
+    private InventoryAggregateService inventoryAggregateService;
+    
+    @Mock
+    private CatalogRetrievalService catalogRetrievalService;
+    
+    @Mock
+    private ChatIntentRouter chatIntentRouter;
+    
+    private SessionManager sessionManager;
+    private AIAssistantService aiAssistantService;
+    
+    @BeforeEach
+    void setUp() {
+        when(chatClientBuilder.build()).thenReturn(chatClient);
+        sessionManager = new SessionManager();
+        aiAssistantService = new AIAssistantService(chatClientBuilder, productRepository, productUseCase,
+                new ObjectMapper(), sessionManager, chartGeneratorService, inventoryAggregateService,
+                catalogRetrievalService, chatIntentRouter, 1000);
+        lenient().when(catalogRetrievalService.select(anyString())).thenReturn(new CatalogSelection(1L, 0, 0, ""));
+    }
+    
+    @Test
+    void shouldStreamTextAndRememberTheTurn() {
+        when(chatClient.prompt(any(Prompt.class)).stream().content()).thenReturn(Flux.just("Temos ", "2 ", "notebooks."));
+        
+        List<ChatStreamEvent> events = aiAssistantService.chatStream("s1", "quantos notebooks?").collectList().block();
+        
+        assertEquals(List.of("Temos ", "2 ", "notebooks."),
+                events.stream().filter(event -> !event.done()).map(ChatStreamEvent::delta).toList());
+        ChatStreamEvent done = events.get(events.size() - 1);
+        assertTrue(done.done());
+        assertEquals("Temos 2 notebooks.", done.response());
+        assertEquals(1, sessionManager.getOrCreateSession("s1").getMemory().size());
+    }
+    
+    @Test
+    void shouldHoldBackJsonActionsAndSendOnlyTheirOutcome() {
+        when(chatClient.prompt(any(Prompt.class)).stream().content()).thenReturn(Flux.just(
+                " {\"action\": \"CREATE\", ", "\"name\": \"Mouse\", \"price\": 80, ", "\"category\": \"Acessórios\"}"));
+        ProductResponse created = new ProductResponse(UUID.randomUUID(), "Mouse", "", new BigDecimal("80"), "Acessórios", 0,
+                LocalDateTime.now());
+        when(productUseCase.createProduct(any(CreateProductRequest.class))).thenReturn(created);
+        
+        List<ChatStreamEvent> events = aiAssistantService.chatStream("s1", "cadastre um mouse de 80 reais").collectList().block();
+        
+        assertEquals(1, events.size());
+        assertTrue(events.get(0).done());
+        assertTrue(events.get(0).response().startsWith("✅ Produto adicionado com sucesso!"));
+        assertEquals(created.id(), sessionManager.getOrCreateSession("s1").getLastProductId());
+    }
+    
+    @Test
+    void shouldAnswerRoutedMessagesWithoutTheModel() {
+        when(chatIntentRouter.route("quantos produtos temos?")).thenReturn(Optional.of("📊 Você tem 3 produtos cadastrados."));
+        
+        List<ChatStreamEvent> events = aiAssistantService.chatStream("s1", "quantos produtos temos?").collectList().block();
+        
+        assertEquals(List.of(ChatStreamEvent.done("s1", "📊 Você tem 3 produtos cadastrados.")), events);
+        assertEquals(1, sessionManager.getOrCreateSession("s1").getMemory().size());
+        verify(chatClient, never()).prompt(any(Prompt.class));
+    }
+}
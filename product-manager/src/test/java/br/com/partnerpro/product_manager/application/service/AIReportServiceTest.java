@@ -0,0 +1,187 @@
+package br.com.partnerpro.product_manager.application.service;
+
+import br.com.partnerpro.product_manager.application.usecase.ProductUseCase;
+import br.com.partnerpro.product_manager.config.CacheConfig;
+import br.com.partnerpro.product_manager.domain.model.CatalogContext;
+import br.com.partnerpro.product_manager.domain.model.CatalogSelection;
+import br.com.partnerpro.product_manager.framework.dto.CategoryStats;
+import br.com.partnerpro.product_manager.framework.dto.ProductFilterRequest;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Answers;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.ai.chat.client.ChatClient;
+import org.springframework.ai.chat.prompt.Prompt;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.data.domain.Sort;
+
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AIReportServiceTest {
+    
+    @Mock
+    private ChatClient.Builder chatClientBuilder;
+    
+    @Mock(answer = Answers.RETURNS_DEEP_STUBS)
+    private ChatClient chatClient;
+    
+    @Mock
+    private ProductUseCase productUseCase;
+    
+    @Mock
+    private InventoryAggregateService inventoryAggregateService;
+    
+    @Mock
+    private CatalogRetrievalService catalogRetrievalService;
+    
+    @Mock
+    private CatalogContextService catalogContextService;
+    
+    @TempDir
+    private Path tempDir;
+    
+    @BeforeEach
+    void setUp() {
+        when(chatClientBuilder.build()).thenReturn(chatClient);
+        lenient().when(catalogRetrievalService.select(anyString())).thenReturn(new CatalogSelection(1L, 0, 0, ""));
+        lenient().when(catalogContextService.current()).thenReturn(catalog("abc"));
+    }
+    
+    @Test
+    void shouldReuseReportsForTheSameFoldedRequestAndCatalog() {
+        when(chatClient.prompt(any(Prompt.class)).call().content()).thenReturn("Relatório 1", "Relatório 2");
+        AIReportService service = service(cacheManager(), "");
+        
+        assertEquals("Relatório 1", service.generateNaturalLanguageReport("Produtos com  estoque BAIXO"));
+        assertEquals("Relatório 1", service.generateNaturalLanguageReport("produtos com estoque baixo "));
+        
+        when(catalogContextService.current()).thenReturn(catalog("def"));
+        assertEquals("Relatório 2", service.generateNaturalLanguageReport("produtos com estoque baixo"));
+        verify(catalogRetrievalService, times(2)).select(anyString());
+    }
+    
+    @Test
+    void shouldShareOneModelCallBetweenConcurrentIdenticalRequests() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(chatClient.prompt(any(Prompt.class)).call().content()).thenAnswer(invocation -> {
+            started.countDown();
+            release.await();
+            return "Relatório 1";
+        });
+        AIReportService service = service(cacheManager(), "");
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<String> first = executor.submit(() -> service.generateNaturalLanguageReport("estoque baixo"));
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+            Future<String> second = executor.submit(() -> service.generateNaturalLanguageReport("Estoque baixo"));
+            assertThrows(TimeoutException.class, () -> second.get(200, TimeUnit.MILLISECONDS));
+            
+            release.countDown();
+            assertEquals("Relatório 1", first.get(5, TimeUnit.SECONDS));
+            assertEquals("Relatório 1", second.get(5, TimeUnit.SECONDS));
+            verify(catalogRetrievalService, times(1)).select(anyString());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+    
+    @Test
+    void shouldSurfaceModelFailuresUnwrappedAndRetryThem() {
+        when(chatClient.prompt(any(Prompt.class)).call().content())
+                .thenThrow(new IllegalStateException("model unavailable"))
+                .thenReturn("Relatório 1");
+        AIReportService service = service(cacheManager(), "");
+        
+        IllegalStateException failure = assertThrows(IllegalStateException.class,
+                () -> service.generateNaturalLanguageReport("estoque baixo"));
+        assertEquals("model unavailable", failure.getMessage());
+        assertEquals("Relatório 1", service.generateNaturalLanguageReport("estoque baixo"));
+    }
+    
+    @Test
+    void shouldKeepReportsAcrossRestartsWhenAPathIsConfigured() {
+        when(chatClient.prompt(any(Prompt.class)).call().content()).thenReturn("Relatório 1", "Relatório 2");
+        String path = tempDir.resolve("reports/cache.json").toString();
+        
+        AIReportService before = service(cacheManager(), path);
+        before.generateNaturalLanguageReport("eletrônicos acima de R$ 1000");
+        before.persist();
+        AIReportService after = service(cacheManager(), path);
+        after.restore();
+        
+        assertEquals("Relatório 1", after.generateNaturalLanguageReport("eletronicos acima de r$ 1000"));
+        verify(catalogRetrievalService, times(1)).select(anyString());
+    }
+    
+    @Test
+    void shouldRunTranslatedFiltersInTheDatabaseAndCacheTheTranslation() {
+        when(inventoryAggregateService.categoryStats()).thenReturn(List.of(
+                new CategoryStats("Electronics", 3L, new BigDecimal("9000.00"), 3000.0)));
+        when(chatClient.prompt(any(Prompt.class)).call().content()).thenReturn("""
+                ```json
+                {"category": "Electronics", "maxPrice": 3000, "sortBy": "price", "sortDirection": "desc", "limit": 500}
+                ```""");
+        AIReportService service = service(cacheManager(), "");
+        
+        service.executeSmartQuery("Eletrônicos até 3 mil, mais caros primeiro");
+        service.executeSmartQuery("eletronicos ate 3 mil, mais caros primeiro");
+        
+        ArgumentCaptor<ProductFilterRequest> filters = ArgumentCaptor.forClass(ProductFilterRequest.class);
+        verify(productUseCase, times(2)).findProducts(filters.capture(),
+                eq(Sort.by(Sort.Direction.DESC, "price")), eq(0), eq(50));
+        assertEquals("Electronics", filters.getValue().category());
+        assertEquals(0, new BigDecimal("3000").compareTo(filters.getValue().maxPrice()));
+        verify(inventoryAggregateService, times(1)).categoryStats();
+    }
+    
+    @Test
+    void shouldRejectTranslationsThatAreNotAFilter() {
+        when(chatClient.prompt(any(Prompt.class)).call().content()).thenReturn("Não entendi a pergunta.");
+        AIReportService service = service(cacheManager(), "");
+        
+        assertThrows(IllegalArgumentException.class, () -> service.executeSmartQuery("algo estranho"));
+        verifyNoInteractions(productUseCase);
+    }
+    
+    private AIReportService service(CaffeineCacheManager cacheManager, String path) {
+        return new AIReportService(chatClientBuilder, productUseCase, catalogRetrievalService, catalogContextService,
+                inventoryAggregateService, cacheManager, new ObjectMapper().findAndRegisterModules(), path, 20, 50);
+    }
+    
+    private static CaffeineCacheManager cacheManager() {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager();
+        new CacheConfig()
+                .cachePolicies(new CacheConfig.ProductCacheProperties(10, Duration.ofMinutes(10)),
+                        new CacheConfig.ProductListCacheProperties(10, Duration.ofMinutes(5)),
+                        new CacheConfig.ReportCacheProperties(10, Duration.ofHours(12)),
+                        new CacheConfig.QueryCacheProperties(10, Duration.ofHours(1)))
+                .customize(cacheManager);
+        return cacheManager;
+    }
+    
+    private static CatalogContext catalog(String fingerprint) {
+        return new CatalogContext(1L, List.of(), "", fingerprint);
+    }
+}
@@ -0,0 +1,103 @@
+package br.com.partnerpro.product_manager.application.service;
+
+import br.com.partnerpro.product_manager.domain.event.ProductCreated;
+import br.com.partnerpro.product_manager.domain.event.ProductDeleted;
+import br.com.partnerpro.product_manager.domain.event.ProductUpdated;
+import br.com.partnerpro.product_manager.domain.model.CatalogContext;
+import br.com.partnerpro.product_manager.domain.repository.ProductRepository;
+import br.com.partnerpro.product_manager.framework.dto.ProductResponse;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CatalogContextServiceTest {
+    
+    @Mock
+    private ProductRepository productRepository;
+    
+    @InjectMocks
+    private CatalogContextService catalogContextService;
+    
+    @Test
+    void shouldRenderCatalogOnceAndReuseItWhileUnchanged() {
+        ProductResponse older = product("Mouse", new BigDecimal("80"), 30, LocalDateTime.now().minusDays(1));
+        ProductResponse newer = product("Notebook", new BigDecimal("2500.5"), 10, LocalDateTime.now());
+        when(productRepository.findResponses(any(), any(), anyInt())).thenReturn(List.of(newer, older));
+        
+        CatalogContext first = catalogContextService.current();
+        CatalogContext second = catalogContextService.current();
+        
+        assertSame(first, second);
+        assertEquals(2, first.productCount());
+        assertEquals(older.id() + " | Mouse | 80.00 | Electronics | 30\n"
+                + newer.id() + " | Notebook | 2500.50 | Electronics | 10", first.text());
+        verify(productRepository, times(1)).findResponses(any(), any(), anyInt());
+    }
+    
+    @Test
+    void shouldApplyProductEventsIncrementally() {
+        ProductResponse mouse = product("Mouse", new BigDecimal("80"), 30, LocalDateTime.now());
+        when(productRepository.findResponses(any(), any(), anyInt())).thenReturn(List.of(mouse));
+        CatalogContext before = catalogContextService.current();
+        
+        ProductResponse keyboard = product("Keyboard", new BigDecimal("150"), 5, LocalDateTime.now());
+        ProductResponse cheaperMouse = new ProductResponse(mouse.id(), "Mouse", null, new BigDecimal("70"),
+                "Electronics", 30, mouse.createdAt());
+        catalogContextService.onProductEvent(new ProductCreated(keyboard));
+        catalogContextService.onProductEvent(new ProductUpdated(mouse, cheaperMouse));
+        CatalogContext afterUpdates = catalogContextService.current();
+        catalogContextService.onProductEvent(new ProductDeleted(keyboard));
+        
+        assertTrue(afterUpdates.version() > before.version());
+        assertEquals(mouse.id() + " | Mouse | 70.00 | Electronics | 30\n"
+                + keyboard.id() + " | Keyboard | 150.00 | Electronics | 5", afterUpdates.text());
+        assertEquals(1, catalogContextService.current().productCount());
+        verify(productRepository, times(1)).findResponses(any(), any(), anyInt());
+    }
+    
+    @Test
+    void shouldReplayChangesMadeDuringTheReadInsteadOfReadingAgain() {
+        ProductResponse mouse = product("Mouse", new BigDecimal("80"), 30, LocalDateTime.now());
+        ProductResponse keyboard = product("Keyboard", new BigDecimal("150"), 5, LocalDateTime.now());
+        ProductResponse restocked = new ProductResponse(mouse.id(), "Mouse", null, new BigDecimal("80"),
+                "Electronics", 45, mouse.createdAt());
+        when(productRepository.findResponses(any(), any(), anyInt())).thenAnswer(invocation -> {
+            catalogContextService.onProductEvent(new ProductUpdated(mouse, restocked));
+            catalogContextService.onProductEvent(new ProductCreated(keyboard));
+            return List.of(mouse);
+        });
+        
+        CatalogContext context = catalogContextService.current();
+        
+        assertEquals(mouse.id() + " | Mouse | 80.00 | Electronics | 45\n"
+                + keyboard.id() + " | Keyboard | 150.00 | Electronics | 5", context.text());
+        verify(productRepository, times(1)).findResponses(any(), any(), anyInt());
+    }
+    
+    @Test
+    void shouldCompactLongDescriptions() {
+        ProductResponse product = new ProductResponse(UUID.randomUUID(), "Notebook", "  Dell\n  Inspiron " + "x".repeat(100),
+                new BigDecimal("2500"), "Electronics", 1, LocalDateTime.now());
+        
+        String line = CatalogContextService.render(product);
+        
+        assertTrue(line.endsWith(" | 1 | Dell Inspiron " + "x".repeat(65) + "…"));
+    }
+    
+    private static ProductResponse product(String name, BigDecimal price, int stock, LocalDateTime createdAt) {
+        return new ProductResponse(UUID.randomUUID(), name, null, price, "Electronics", stock, createdAt);
+    }
+}
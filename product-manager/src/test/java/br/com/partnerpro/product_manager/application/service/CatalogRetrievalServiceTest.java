@@ -0,0 +1,93 @@
+package br.com.partnerpro.product_manager.application.service;
+
+import br.com.partnerpro.product_manager.domain.model.CatalogContext;
+import br.com.partnerpro.product_manager.domain.model.CatalogEntry;
+import br.com.partnerpro.product_manager.domain.model.CatalogSelection;
+import br.com.partnerpro.product_manager.framework.dto.ProductResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CatalogRetrievalServiceTest {
+    
+    @Mock
+    private CatalogContextService catalogContextService;
+    
+    @Mock
+    private ProductSearchService productSearchService;
+    
+    private CatalogRetrievalService catalogRetrievalService;
+    private List<CatalogEntry> entries;
+    
+    @BeforeEach
+    void setUp() {
+        catalogRetrievalService = new CatalogRetrievalService(catalogContextService, productSearchService, 2000);
+        entries = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            entries.add(entry("Cabo " + i, "Acessórios", new BigDecimal("30"), 100));
+        }
+        entries.add(entry("Notebook Gamer", "Eletrônicos", new BigDecimal("4500"), 3));
+        entries.add(entry("Notebook Office", "Eletrônicos", new BigDecimal("2500"), 40));
+        String text = entries.stream().map(CatalogEntry::line).collect(Collectors.joining("\n"));
+        when(catalogContextService.current()).thenReturn(new CatalogContext(7L, List.copyOf(entries), text, "fingerprint"));
+    }
+    
+    @Test
+    void shouldSendWholeCatalogWhenItFitsTheBudget() {
+        CatalogSelection selection = catalogRetrievalService.select("oi", 1_000_000);
+        
+        assertEquals(202, selection.included());
+        assertEquals(0, selection.omitted());
+        verifyNoInteractions(productSearchService);
+    }
+    
+    @Test
+    void shouldPutMatchingProductsFirstAndSummarizeTheRest() {
+        ProductResponse gamer = entries.get(200).product();
+        ProductResponse office = entries.get(201).product();
+        when(productSearchService.rank(anyString(), anyInt())).thenReturn(Map.of(office.id(), 2.0f, gamer.id(), 2.0f));
+        
+        CatalogSelection selection = catalogRetrievalService.select("notebook com estoque baixo", 500);
+        
+        String[] lines = selection.text().split("\n");
+        assertTrue(lines[0].startsWith(gamer.id().toString()));
+        assertTrue(lines[1].startsWith(office.id().toString()));
+        assertEquals(7L, selection.version());
+        assertEquals(202, selection.included() + selection.omitted());
+        assertTrue(selection.omitted() > 0);
+        assertTrue(lines[lines.length - 1].startsWith("Outros " + selection.omitted() + " produtos não listados"));
+        assertTrue(lines[lines.length - 1].contains("Acessórios (" + selection.omitted() + ")"));
+    }
+    
+    @Test
+    void shouldRankByHintsWhenSearchFindsNothing() {
+        when(productSearchService.rank(anyString(), anyInt())).thenReturn(Map.of());
+        
+        String[] lines = catalogRetrievalService.select("eletronicos mais caros", 500).text().split("\n");
+        
+        assertTrue(lines[0].contains(" | Notebook Gamer | 4500.00 | "));
+        assertTrue(lines[1].contains(" | Notebook Office | 2500.00 | "));
+    }
+    
+    private static CatalogEntry entry(String name, String category, BigDecimal price, int stock) {
+        ProductResponse product = new ProductResponse(UUID.randomUUID(), name, null, price, category, stock,
+                LocalDateTime.now());
+        return new CatalogEntry(product, CatalogContextService.render(product));
+    }
+}
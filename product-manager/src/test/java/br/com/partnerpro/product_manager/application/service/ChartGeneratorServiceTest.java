@@ -1,7 +1,9 @@
 package br.com.partnerpro.product_manager.application.service;
 
 import br.com.partnerpro.product_manager.domain.entity.Product;
+import br.com.partnerpro.product_manager.framework.dto.CategoryStats;
 import br.com.partnerpro.product_manager.framework.dto.ChartData;
+import br.com.partnerpro.product_manager.framework.dto.InventorySummary;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
@@ -111,4 +113,21 @@ class ChartGeneratorServiceTest {
         
         assertNull(chart);
     }
+    
+    @Test
+    void shouldDetectChartFromAggregates() {
+        InventorySummary summary = new InventorySummary(3L, 65L, new BigDecimal("31400.00"), new BigDecimal("3350.00"),
+                2L, 0L, 2L, 0L, 1L, 1L, 1L, 0L, 1L, 0L);
+        List<CategoryStats> categories = List.of(
+                new CategoryStats("Electronics", 2L, new BigDecimal("27500.00"), 1275.0),
+                new CategoryStats("Furniture", 1L, new BigDecimal("4000.00"), 800.0));
+        
+        ChartData stock = chartGeneratorService.detectAndGenerateChart("Gráfico de estoque", summary, categories);
+        ChartData value = chartGeneratorService.detectAndGenerateChart("Gráfico de valor por categoria", summary, categories);
+        
+        assertEquals("bar", stock.type());
+        assertEquals(Arrays.asList(0.0, 2.0, 0.0, 1.0), stock.values());
+        assertEquals(Arrays.asList("Electronics", "Furniture"), value.labels());
+        assertNull(chartGeneratorService.detectAndGenerateChart("Quantos produtos temos?", summary, categories));
+    }
 }
@@ -0,0 +1,146 @@
+package br.com.partnerpro.product_manager.application.service;
+
+import br.com.partnerpro.product_manager.application.usecase.ProductUseCase;
+import br.com.partnerpro.product_manager.framework.dto.CategoryStats;
+import br.com.partnerpro.product_manager.framework.dto.ChartData;
+import br.com.partnerpro.product_manager.framework.dto.ProductFilterRequest;
+import br.com.partnerpro.product_manager.framework.dto.ProductResponse;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Sort;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ChatIntentRouterTest {
+    
+    @Mock
+    private ProductUseCase productUseCase;
+    
+    @Mock
+    private InventoryAggregateService inventoryAggregateService;
+    
+    @Mock
+    private ChartGeneratorService chartGeneratorService;
+    
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private SimpleMeterRegistry meterRegistry;
+    private ChatIntentRouter router;
+    
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        router = new ChatIntentRouter(productUseCase, inventoryAggregateService, chartGeneratorService, objectMapper,
+                meterRegistry);
+        lenient().when(inventoryAggregateService.categoryStats()).thenReturn(List.of(
+                new CategoryStats("Eletrônicos", 2L, new BigDecimal("8000.00"), 4000.0),
+                new CategoryStats("Periféricos", 1L, new BigDecimal("150.00"), 150.0)));
+    }
+    
+    @Test
+    void shouldListAndCountInTheDatabaseWithFiltersFromTheMessage() {
+        when(productUseCase.findProducts(any(ProductFilterRequest.class), any(Sort.class), eq(0), anyInt()))
+                .thenReturn(List.of(product("Notebook Dell", "2500.00", "Eletrônicos")));
+        when(productUseCase.countProducts(any(ProductFilterRequest.class))).thenReturn(12L);
+        
+        Optional<String> list = router.route("Liste os produtos de eletronicos abaixo de R$ 3.000, mais baratos primeiro");
+        Optional<String> count = router.route("Quantos produtos temos?");
+        
+        ArgumentCaptor<ProductFilterRequest> filters = ArgumentCaptor.forClass(ProductFilterRequest.class);
+        verify(productUseCase).findProducts(filters.capture(), eq(Sort.by("price")), eq(0), eq(20));
+        assertEquals("Eletrônicos", filters.getValue().category());
+        assertEquals(0, new BigDecimal("3000").compareTo(filters.getValue().maxPrice()));
+        assertTrue(list.orElseThrow().contains("**Notebook Dell**"));
+        assertEquals("📊 Você tem 12 produtos cadastrados.", count.orElseThrow());
+        assertEquals(1, meterRegistry.get("ai.chat.intents").tag("intent", "list").counter().count());
+    }
+    
+    @Test
+    void shouldLeaveOpenEndedOrUnreadableMessagesToTheModel() {
+        assertTrue(router.route("Por que o estoque de eletrônicos caiu tanto?").isEmpty());
+        assertTrue(router.route("Liste os produtos da marca Dell").isEmpty());
+        assertTrue(router.route("Oi, tudo bem?").isEmpty());
+        
+        verifyNoInteractions(productUseCase);
+        assertEquals(3, meterRegistry.get("ai.chat.intents").tag("intent", "fallback").counter().count());
+    }
+    
+    @Test
+    void shouldAnswerChartRequestsWithTheDetectedChart() {
+        when(chartGeneratorService.detectAndGenerateChart(anyString(), any(), anyList()))
+                .thenReturn(new ChartData("bar", "Níveis de Estoque", List.of(), List.of(), Map.of()));
+        
+        assertEquals("📊 Claro! Aqui está o gráfico: **Níveis de Estoque**",
+                router.route("Mostre um gráfico de estoque").orElseThrow());
+    }
+    
+    @Test
+    void shouldTurnSimpleWritesIntoActionsKeepingTheOriginalSpelling() throws Exception {
+        JsonNode create = objectMapper.readTree(router.route(
+                "Adicione o produto \"Café Especial\" por R$ 39,90 na categoria perifericos com estoque de 20").orElseThrow());
+        
+        assertEquals("CREATE", create.get("action").asText());
+        assertEquals("Café Especial", create.get("name").asText());
+        assertEquals(0, new BigDecimal("39.90").compareTo(create.get("price").decimalValue()));
+        assertEquals("Periféricos", create.get("category").asText());
+        assertEquals(20, create.get("stock").asInt());
+    }
+    
+    @Test
+    void shouldOnlyUpdateOrDeleteAProductNamedExactly() throws Exception {
+        ProductResponse notebook = product("Notebook Dell", "2500.00", "Eletrônicos");
+        when(productUseCase.findProducts(any(ProductFilterRequest.class), eq(Sort.unsorted()), eq(0), anyInt()))
+                .thenReturn(List.of(notebook));
+        
+        JsonNode update = objectMapper.readTree(router.route("Altere o preço do notebook dell para R$ 3.200").orElseThrow());
+        
+        assertEquals("UPDATE", update.get("action").asText());
+        assertEquals(notebook.id().toString(), update.get("id").asText());
+        assertEquals(0, new BigDecimal("3200").compareTo(update.get("price").decimalValue()));
+        assertFalse(update.has("stock"));
+        assertTrue(router.route("Remova o notebook").isEmpty());
+        
+        JsonNode delete = objectMapper.readTree(router.route("Remova o produto Notebook Dell").orElseThrow());
+        
+        assertEquals("DELETE", delete.get("action").asText());
+        assertEquals(notebook.id().toString(), delete.get("id").asText());
+    }
+    
+    @Test
+    void shouldNeverRouteANegatedOrConditionalWrite() {
+        assertTrue(router.route("Não remova o produto Notebook Dell").isEmpty());
+        assertTrue(router.route("Nunca apague o notebook dell").isEmpty());
+        assertTrue(router.route("Não crie o produto Mouse por R$ 50 na categoria perifericos").isEmpty());
+        assertTrue(router.route("Não altere o preço do notebook dell para R$ 3.200").isEmpty());
+        assertTrue(router.route("Se o estoque acabar, remova o notebook dell").isEmpty());
+        assertTrue(router.route("Posso excluir o notebook dell").isEmpty());
+        assertTrue(router.route("Remova o notebook dell?").isEmpty());
+        
+        verifyNoInteractions(productUseCase);
+        assertEquals(7, meterRegistry.get("ai.chat.intents").tag("intent", "fallback").counter().count());
+    }
+    
+    private static ProductResponse product(String name, String price, String category) {
+        return new ProductResponse(UUID.randomUUID(), name, null, new BigDecimal(price), category, 5, LocalDateTime.now());
+    }
+}
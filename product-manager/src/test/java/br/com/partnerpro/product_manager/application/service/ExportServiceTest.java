@@ -0,0 +1,87 @@
+package br.com.partnerpro.product_manager.application.service;
+
+import br.com.partnerpro.product_manager.domain.repository.ProductRepository;
+import br.com.partnerpro.product_manager.framework.dto.ProductResponse;
+import br.com.partnerpro.product_manager.framework.dto.ProductTotals;
+import com.itextpdf.kernel.pdf.PdfDocument;
+import com.itextpdf.kernel.pdf.PdfReader;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ExportServiceTest {
+    
+    @Mock
+    private ProductRepository productRepository;
+    
+    @InjectMocks
+    private ExportService exportService;
+    
+    @Test
+    void shouldStreamCsvRowsAndCloseRepositoryStream() throws IOException {
+        AtomicBoolean closed = new AtomicBoolean();
+        ProductResponse product = ProductResponse.builder()
+                .id(UUID.randomUUID())
+                .name("Notebook")
+                .description("Notebook, 16GB")
+                .price(new BigDecimal("2500.00"))
+                .category("Eletrônicos")
+                .stock(10)
+                .createdAt(LocalDateTime.of(2025, 1, 15, 9, 30))
+                .build();
+        when(productRepository.streamAllResponses()).thenReturn(Stream.of(product).onClose(() -> closed.set(true)));
+        
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        exportService.writeProductsCsv(out);
+        
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\r\n");
+        assertEquals(2, lines.length);
+        assertEquals("ID,Nome,Descrição,Preço,Categoria,Estoque,Data de Criação", lines[0]);
+        assertEquals(product.id() + ",Notebook,\"Notebook, 16GB\",2500.00,Eletrônicos,10,15/01/2025 09:30", lines[1]);
+        assertTrue(closed.get());
+        verify(productRepository, never()).findAll();
+    }
+    
+    @Test
+    void shouldStreamPdfAcrossFlushedTableChunks() throws IOException {
+        AtomicBoolean closed = new AtomicBoolean();
+        Stream<ProductResponse> products = IntStream.range(0, 1200)
+                .mapToObj(i -> ProductResponse.builder()
+                        .id(UUID.randomUUID())
+                        .name("Produto " + i)
+                        .price(new BigDecimal("10.00"))
+                        .category("Geral")
+                        .stock(1)
+                        .createdAt(LocalDateTime.of(2025, 1, 15, 9, 30))
+                        .build())
+                .onClose(() -> closed.set(true));
+        when(productRepository.findTotals()).thenReturn(new ProductTotals(1200L, 1200L, new BigDecimal("12000.00")));
+        when(productRepository.streamAllResponses()).thenReturn(products);
+        
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        exportService.writeProductsPdf(out);
+        
+        try (PdfDocument pdf = new PdfDocument(new PdfReader(new ByteArrayInputStream(out.toByteArray())))) {
+            assertTrue(pdf.getNumberOfPages() > 1);
+        }
+        assertTrue(closed.get());
+        verify(productRepository, never()).findAll();
+    }
+}
@@ -0,0 +1,153 @@
+package br.com.partnerpro.product_manager.application.service;
+
+import br.com.partnerpro.product_manager.domain.event.ProductCreated;
+import br.com.partnerpro.product_manager.domain.repository.ProductOutboxRepository;
+import br.com.partnerpro.product_manager.domain.repository.ProductRepository;
+import br.com.partnerpro.product_manager.framework.dto.CategoryStats;
+import br.com.partnerpro.product_manager.framework.dto.CategoryTotals;
+import br.com.partnerpro.product_manager.framework.dto.InventorySummary;
+import br.com.partnerpro.product_manager.framework.dto.ProductResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class InventoryAggregateServiceTest {
+    
+    @Mock
+    private ProductRepository productRepository;
+    
+    @Mock
+    private ProductOutboxRepository productOutboxRepository;
+    
+    @Mock
+    private PlatformTransactionManager transactionManager;
+    
+    private InventoryAggregateService inventoryAggregateService;
+    
+    @BeforeEach
+    void setUp() {
+        inventoryAggregateService = new InventoryAggregateService(productRepository, productOutboxRepository,
+                transactionManager, 60000);
+        when(productRepository.findInventorySummary()).thenReturn(emptySummary());
+        when(productRepository.findCategoryTotals()).thenReturn(List.of());
+        inventoryAggregateService.reconcile();
+    }
+    
+    @Test
+    void shouldApplyCreateUpdateAndDeleteDeltas() {
+        ProductResponse notebook = product("Electronics", "2500.00", 10);
+        ProductResponse mouse = product("Electronics", "50.00", 0);
+        
+        inventoryAggregateService.apply(null, notebook);
+        inventoryAggregateService.apply(null, mouse);
+        
+        InventorySummary summary = inventoryAggregateService.summary();
+        assertEquals(2L, summary.totalProducts());
+        assertEquals(10L, summary.totalStock());
+        assertEquals(0, new BigDecimal("25000.00").compareTo(summary.totalValue()));
+        assertEquals(1L, summary.outOfStock());
+        assertEquals(1L, summary.lowStock());
+        assertEquals(1L, summary.priceBelow500());
+        assertEquals(1L, summary.priceFrom2000To3000());
+        
+        ProductResponse restocked = new ProductResponse(mouse.id(), mouse.name(), null,
+                new BigDecimal("50.00"), "Peripherals", 60, mouse.createdAt());
+        inventoryAggregateService.apply(mouse, restocked);
+        inventoryAggregateService.apply(notebook, null);
+        
+        summary = inventoryAggregateService.summary();
+        assertEquals(1L, summary.totalProducts());
+        assertEquals(60L, summary.totalStock());
+        assertEquals(0L, summary.outOfStock());
+        assertEquals(1L, summary.stockFrom50());
+        assertEquals(0L, summary.priceFrom2000To3000());
+        
+        List<CategoryStats> categories = inventoryAggregateService.categoryStats();
+        assertEquals(1, categories.size());
+        assertEquals("Peripherals", categories.get(0).category());
+        assertEquals(50.0, categories.get(0).averagePrice());
+    }
+    
+    @Test
+    void shouldResetToDatabaseTotalsOnReconcile() {
+        inventoryAggregateService.apply(null, product("Electronics", "100.00", 5));
+        
+        InventorySummary database = new InventorySummary(3L, 30L, new BigDecimal("3000.00"), new BigDecimal("300.00"),
+                0L, 0L, 0L, 3L, 0L, 3L, 0L, 0L, 0L, 0L);
+        when(productRepository.findInventorySummary()).thenReturn(database);
+        when(productRepository.findCategoryTotals()).thenReturn(List.of(
+                new CategoryTotals("Books", 3L, new BigDecimal("3000.00"), new BigDecimal("300.00"))));
+        
+        inventoryAggregateService.reconcile();
+        
+        assertEquals(database, inventoryAggregateService.summary());
+        assertEquals(List.of(new CategoryStats("Books", 3L, new BigDecimal("3000.00"), 100.0)),
+                inventoryAggregateService.categoryStats());
+    }
+    
+    @Test
+    void shouldReadTotalsAndOutboxFromOneRepeatableReadSnapshot() {
+        ArgumentCaptor<TransactionDefinition> definition = ArgumentCaptor.forClass(TransactionDefinition.class);
+        verify(transactionManager).getTransaction(definition.capture());
+        
+        assertEquals(TransactionDefinition.ISOLATION_REPEATABLE_READ, definition.getValue().getIsolationLevel());
+        assertTrue(definition.getValue().isReadOnly());
+        verify(productOutboxRepository).findIdsWrittenAfter(any());
+    }
+    
+    @Test
+    void shouldReplayWritesThatRaceWithReconcileUnlessTheSnapshotHasThem() {
+        ProductResponse counted = product("Electronics", "100.00", 5);
+        InventorySummary withCounted = new InventorySummary(1L, 5L, new BigDecimal("500.00"), new BigDecimal("100.00"),
+                0L, 0L, 1L, 0L, 0L, 1L, 0L, 0L, 0L, 0L);
+        when(productOutboxRepository.findIdsWrittenAfter(any())).thenReturn(List.of(41L));
+        when(productRepository.findInventorySummary()).thenAnswer(invocation -> {
+            // Committed before the snapshot and delivered during the read, then one committed after it
+            inventoryAggregateService.onProductEvent(new ProductCreated(41, counted));
+            inventoryAggregateService.onProductEvent(new ProductCreated(42, product("Books", "50.00", 2)));
+            return withCounted;
+        });
+        
+        inventoryAggregateService.reconcile();
+        inventoryAggregateService.onProductEvent(new ProductCreated(41, counted));
+        
+        assertEquals(2L, inventoryAggregateService.summary().totalProducts());
+        assertEquals(7L, inventoryAggregateService.summary().totalStock());
+    }
+    
+    @Test
+    void shouldReloadFromDatabaseAfterInvalidation() {
+        inventoryAggregateService.apply(null, product("Electronics", "100.00", 5));
+        
+        inventoryAggregateService.invalidate();
+        
+        assertEquals(0L, inventoryAggregateService.summary().totalProducts());
+        assertEquals(0L, inventoryAggregateService.summary().totalProducts());
+        verify(productRepository, times(2)).findInventorySummary();
+    }
+    
+    private static InventorySummary emptySummary() {
+        return new InventorySummary(0L, 0L, BigDecimal.ZERO, BigDecimal.ZERO,
+                0L, 0L, 0L, 0L, 0L, 0L, 0L, 0L, 0L, 0L);
+    }
+    
+    private static ProductResponse product(String category, String price, int stock) {
+        return new ProductResponse(UUID.randomUUID(), "Product", null, new BigDecimal(price), category, stock,
+                LocalDateTime.now());
+    }
+}
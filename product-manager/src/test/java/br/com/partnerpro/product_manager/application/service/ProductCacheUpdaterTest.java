@@ -0,0 +1,54 @@
+package br.com.partnerpro.product_manager.application.service;
+
+import br.com.partnerpro.product_manager.application.usecase.DashboardUseCase;
+import br.com.partnerpro.product_manager.domain.event.ProductDeleted;
+import br.com.partnerpro.product_manager.domain.event.ProductUpdated;
+import br.com.partnerpro.product_manager.framework.dto.ProductResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class ProductCacheUpdaterTest {
+    
+    private ConcurrentMapCacheManager cacheManager;
+    private DashboardUseCase dashboardUseCase;
+    private ProductCacheUpdater updater;
+    private ProductResponse before;
+    private ProductResponse after;
+    
+    @BeforeEach
+    void setUp() {
+        cacheManager = new ConcurrentMapCacheManager("product", "products");
+        dashboardUseCase = mock(DashboardUseCase.class);
+        updater = new ProductCacheUpdater(cacheManager, dashboardUseCase);
+        UUID id = UUID.randomUUID();
+        before = new ProductResponse(id, "Notebook", null, new BigDecimal("2500.00"), "Electronics", 10, LocalDateTime.now());
+        after = new ProductResponse(id, "Notebook", null, new BigDecimal("2300.00"), "Electronics", 8, before.createdAt());
+        cacheManager.getCache("product").put(id, before);
+        cacheManager.getCache("products").put("all", List.of(before));
+    }
+    
+    @Test
+    void shouldDropUpdatedProductAndListAndMarkDashboardStale() {
+        updater.onProductEvent(new ProductUpdated(before, after));
+        
+        assertNull(cacheManager.getCache("product").get(after.id()));
+        assertNull(cacheManager.getCache("products").get("all"));
+        verify(dashboardUseCase).markStale();
+    }
+    
+    @Test
+    void shouldEvictDeletedProduct() {
+        updater.onProductEvent(new ProductDeleted(before));
+        
+        assertNull(cacheManager.getCache("product").get(before.id()));
+    }
+}
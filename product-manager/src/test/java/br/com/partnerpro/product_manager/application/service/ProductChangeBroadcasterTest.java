@@ -0,0 +1,86 @@
+package br.com.partnerpro.product_manager.application.service;
+
+import br.com.partnerpro.product_manager.domain.model.ProductChange;
+import br.com.partnerpro.product_manager.framework.dto.ProductResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProductChangeBroadcasterTest {
+    
+    private ProductChangeBroadcaster broadcaster;
+    private List<List<ProductChange>> received;
+    
+    @BeforeEach
+    void setUp() {
+        broadcaster = new ProductChangeBroadcaster();
+        received = new ArrayList<>();
+    }
+    
+    @Test
+    void shouldDeliverBurstAsOneCoalescedBatch() {
+        broadcaster.subscribe(received::add);
+        UUID id = UUID.randomUUID();
+        ProductResponse v1 = product(id, 10);
+        ProductResponse v2 = product(id, 5);
+        ProductResponse v3 = product(id, 0);
+        ProductResponse other = product(UUID.randomUUID(), 3);
+        
+        broadcaster.publish(new ProductChange(v1, v2));
+        broadcaster.publish(new ProductChange(null, other));
+        broadcaster.publish(new ProductChange(v2, v3));
+        broadcaster.flush();
+        
+        assertEquals(1, received.size());
+        assertEquals(List.of(new ProductChange(v1, v3), new ProductChange(null, other)), received.get(0));
+    }
+    
+    @Test
+    void shouldDropProductsCreatedAndDeletedWithinOneInterval() {
+        broadcaster.subscribe(received::add);
+        ProductResponse created = product(UUID.randomUUID(), 1);
+        
+        broadcaster.publish(new ProductChange(null, created));
+        broadcaster.publish(new ProductChange(created, null));
+        broadcaster.flush();
+        
+        assertTrue(received.isEmpty());
+    }
+    
+    @Test
+    void shouldNotQueueChangesWithoutListeners() {
+        Runnable unsubscribe = broadcaster.subscribe(received::add);
+        unsubscribe.run();
+        
+        broadcaster.publish(new ProductChange(null, product(UUID.randomUUID(), 1)));
+        broadcaster.subscribe(received::add);
+        broadcaster.flush();
+        
+        assertTrue(received.isEmpty());
+    }
+    
+    @Test
+    void shouldKeepDeliveringWhenAListenerFails() {
+        broadcaster.subscribe(changes -> {
+            throw new IllegalStateException("boom");
+        });
+        broadcaster.subscribe(received::add);
+        
+        broadcaster.publish(new ProductChange(null, product(UUID.randomUUID(), 1)));
+        broadcaster.flush();
+        
+        assertEquals(1, received.size());
+    }
+    
+    private static ProductResponse product(UUID id, int stock) {
+        return new ProductResponse(id, "Notebook", null, new BigDecimal("2500.00"), "Electronics", stock,
+                LocalDateTime.now());
+    }
+}
@@ -0,0 +1,148 @@
+package br.com.partnerpro.product_manager.application.service;
+
+import br.com.partnerpro.product_manager.domain.entity.ProductOutboxEntry;
+import br.com.partnerpro.product_manager.domain.event.ProductCreated;
+import br.com.partnerpro.product_manager.domain.event.ProductDeleted;
+import br.com.partnerpro.product_manager.domain.event.ProductEvent;
+import br.com.partnerpro.product_manager.domain.event.ProductEventsStored;
+import br.com.partnerpro.product_manager.domain.event.ProductUpdated;
+import br.com.partnerpro.product_manager.domain.repository.ProductOutboxRepository;
+import br.com.partnerpro.product_manager.framework.dto.ProductResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ProductEventPublisherTest {
+    
+    @Mock
+    private ProductOutboxRepository productOutboxRepository;
+    
+    @Mock
+    private PlatformTransactionManager transactionManager;
+    
+    private List<Object> delivered;
+    private ProductEventPublisher publisher;
+    
+    @BeforeEach
+    void setUp() {
+        // Publishing inside a transaction defers the relay wake-up, so drain() below is the only delivery
+        TransactionSynchronizationManager.initSynchronization();
+        delivered = new ArrayList<>();
+        publisher = publisher(delivered::add);
+    }
+    
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        TransactionSynchronizationManager.clearSynchronization();
+        publisher.shutdown();
+    }
+    
+    @Test
+    void shouldRelayOutboxRowsAsTheOriginalEvents() {
+        ProductResponse v1 = product(10);
+        ProductResponse v2 = product(5);
+        
+        publisher.publishAll(List.of(new ProductCreated(v1), new ProductUpdated(v1, v2), new ProductDeleted(v2)));
+        List<ProductOutboxEntry> rows = stored(savedRows(), 1);
+        when(productOutboxRepository.findWrittenAfter(any(), anyLong(), any(Limit.class)))
+                .thenReturn(rows.subList(0, 2))
+                .thenReturn(rows.subList(2, 3));
+        publisher.drain();
+        
+        assertEquals(List.of(new ProductCreated(1, v1), new ProductUpdated(2, v1, v2), new ProductDeleted(3, v2)),
+                delivered.subList(1, 4));
+        assertEquals(List.of("ProductCreated", "ProductUpdated", "ProductDeleted"),
+                rows.stream().map(ProductOutboxEntry::getEventType).toList());
+        assertNull(rows.get(0).getBeforeState());
+        assertNull(rows.get(2).getAfterState());
+        verify(productOutboxRepository).findWrittenAfter(rows.get(1).getCreatedAt(), 2L, Limit.of(2));
+    }
+    
+    @Test
+    void shouldAnnounceStoredEventsBeforeAnyRelay() {
+        ProductResponse notebook = product(10);
+        
+        publisher.publishAll(List.of(new ProductCreated(notebook), new ProductDeleted(notebook)));
+        
+        assertEquals(List.of(new ProductEventsStored(List.of(notebook.id()))), delivered);
+    }
+    
+    @Test
+    void shouldDeliverEachRowOnceEvenWhenAListenerFails() {
+        ProductEvent failing = new ProductCreated(product(1));
+        ProductEvent next = new ProductCreated(product(2));
+        publisher = publisher(event -> {
+            if (event instanceof ProductCreated created && created.after().equals(failing.after())) {
+                throw new IllegalStateException("boom");
+            }
+            delivered.add(event);
+        });
+        
+        publisher.publishAll(List.of(failing, next));
+        List<ProductOutboxEntry> rows = stored(savedRows(), 7);
+        when(productOutboxRepository.findWrittenAfter(any(), anyLong(), any(Limit.class)))
+                .thenReturn(rows)
+                .thenReturn(List.of())
+                .thenReturn(rows)
+                .thenReturn(List.of());
+        publisher.drain();
+        publisher.drain();
+        
+        assertEquals(List.of(new ProductCreated(8, next.after())), delivered.subList(1, delivered.size()));
+    }
+    
+    @Test
+    void shouldIgnoreEmptyBatches() {
+        publisher.publishAll(List.of());
+        
+        verifyNoInteractions(productOutboxRepository);
+        assertTrue(delivered.isEmpty());
+    }
+    
+    @SuppressWarnings("unchecked")
+    private List<ProductOutboxEntry> savedRows() {
+        ArgumentCaptor<List<ProductOutboxEntry>> captor = ArgumentCaptor.forClass(List.class);
+        verify(productOutboxRepository, atLeastOnce()).saveAll(captor.capture());
+        return captor.getValue();
+    }
+    
+    private static List<ProductOutboxEntry> stored(List<ProductOutboxEntry> rows, long firstId) {
+        LocalDateTime createdAt = LocalDateTime.now();
+        for (int i = 0; i < rows.size(); i++) {
+            rows.get(i).setId(firstId + i);
+            rows.get(i).setCreatedAt(createdAt.plusNanos(i * 1000L));
+        }
+        return rows;
+    }
+    
+    private ProductEventPublisher publisher(ApplicationEventPublisher applicationEventPublisher) {
+        return new ProductEventPublisher(productOutboxRepository, applicationEventPublisher,
+                new ObjectMapper().findAndRegisterModules(), transactionManager, 2, 60000, 24);
+    }
+    
+    private static ProductResponse product(int stock) {
+        return new ProductResponse(UUID.randomUUID(), "Notebook", null, new BigDecimal("2500.00"), "Electronics", stock,
+                LocalDateTime.now());
+    }
+}
@@ -0,0 +1,167 @@
+package br.com.partnerpro.product_manager.application.service;
+
+import br.com.partnerpro.product_manager.domain.event.ProductDeleted;
+import br.com.partnerpro.product_manager.domain.repository.ProductRepository;
+import br.com.partnerpro.product_manager.framework.dto.ProductResponse;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ProductSearchServiceTest {
+    
+    @Mock
+    private ProductRepository productRepository;
+    
+    @TempDir
+    private Path tempDir;
+    
+    private ProductSearchService productSearchService;
+    
+    private ProductResponse notebook;
+    private ProductResponse mouse;
+    private ProductResponse backpack;
+    
+    @BeforeEach
+    void setUp() throws IOException {
+        notebook = product("Notebook Gamer", "Notebook com placa de vídeo dedicada", "Eletrônicos");
+        mouse = product("Mouse sem fio", "Ideal para usar com notebook", "Eletrônicos");
+        backpack = product("Mochila", "Mochila acolchoada", "Acessórios");
+        
+        when(productRepository.findResponses(any(), any(Sort.class), anyInt())).thenReturn(List.of(notebook, mouse, backpack));
+        
+        productSearchService = service("");
+        productSearchService.rebuild();
+    }
+    
+    @AfterEach
+    void tearDown() throws IOException {
+        productSearchService.close();
+    }
+    
+    @Test
+    void shouldRankNameMatchesAboveDescriptionMatches() {
+        List<UUID> ids = productSearchService.search("notebook", 10);
+        
+        assertEquals(List.of(notebook.id(), mouse.id()), ids);
+    }
+    
+    @Test
+    void shouldMatchPrefixesIgnoringCaseAndAccents() {
+        assertEquals(List.of(backpack.id()), productSearchService.search("ACESSORIO", 10));
+        assertEquals(List.of(mouse.id()), productSearchService.search("mou", 10));
+    }
+    
+    @Test
+    void shouldRequireEveryTerm() {
+        assertEquals(List.of(notebook.id()), productSearchService.search("notebook gamer", 10));
+    }
+    
+    @Test
+    void shouldRankFreeTextMatchingAnyTerm() {
+        Map<UUID, Float> scores = productSearchService.rank("quero uma mochila ou um notebook gamer", 10);
+        
+        assertEquals(Set.of(notebook.id(), mouse.id(), backpack.id()), scores.keySet());
+        assertEquals(notebook.id(), scores.keySet().iterator().next());
+    }
+    
+    @Test
+    void shouldReturnEmptyForBlankQuery() {
+        assertTrue(productSearchService.search("  ", 10).isEmpty());
+    }
+    
+    @Test
+    void shouldKeepAnIndexOnDiskAcrossRestartsAndDropProductsDeletedMeanwhile() throws IOException {
+        String indexPath = tempDir.resolve("index").toString();
+        ProductSearchService before = service(indexPath);
+        before.rebuild();
+        before.close();
+        
+        when(productRepository.findResponses(any(), any(Sort.class), anyInt())).thenReturn(List.of(notebook, mouse));
+        ProductSearchService after = service(indexPath);
+        try {
+            assertEquals(List.of(backpack.id()), after.search("mochila", 10));
+            
+            after.rebuild();
+            
+            assertTrue(after.search("mochila", 10).isEmpty());
+            assertEquals(List.of(notebook.id(), mouse.id()), after.search("notebook", 10));
+        } finally {
+            after.close();
+        }
+    }
+    
+    @Test
+    void shouldNotRestoreAProductDeletedWhileTheRebuildReadsIt() {
+        when(productRepository.findResponses(any(), any(Sort.class), anyInt())).thenAnswer(invocation -> {
+            productSearchService.onProductEvent(new ProductDeleted(mouse));
+            return List.of(notebook, mouse, backpack);
+        });
+        
+        productSearchService.rebuild();
+        
+        assertTrue(productSearchService.search("mou", 10).isEmpty());
+        assertEquals(List.of(notebook.id()), productSearchService.search("notebook", 10));
+    }
+    
+    @Test
+    void shouldRebuildInTheBackgroundAndCoalesceRequestsMadeMeanwhile() throws InterruptedException {
+        CountDownLatch release = new CountDownLatch(1);
+        when(productRepository.findResponses(any(), any(Sort.class), anyInt())).thenAnswer(invocation -> {
+            release.await(5, TimeUnit.SECONDS);
+            return List.of(notebook, backpack);
+        });
+        
+        productSearchService.requestRebuild();
+        productSearchService.requestRebuild();
+        productSearchService.requestRebuild();
+        assertEquals(List.of(mouse.id()), productSearchService.search("mou", 10));
+        
+        release.countDown();
+        verify(productRepository, timeout(5000).times(3)).findResponses(any(), any(Sort.class), anyInt());
+        verify(productRepository, after(200).times(3)).findResponses(any(), any(Sort.class), anyInt());
+        assertTrue(productSearchService.search("mou", 10).isEmpty());
+    }
+    
+    private ProductSearchService service(String indexPath) throws IOException {
+        ProductSearchService service = new ProductSearchService(productRepository);
+        ReflectionTestUtils.setField(service, "indexPath", indexPath);
+        ReflectionTestUtils.setField(service, "maxStaleMs", 1000L);
+        service.open();
+        return service;
+    }
+    
+    private ProductResponse product(String name, String description, String category) {
+        return ProductResponse.builder()
+                .id(UUID.randomUUID())
+                .name(name)
+                .description(description)
+                .price(new BigDecimal("100.00"))
+                .category(category)
+                .stock(10)
+                .createdAt(LocalDateTime.now())
+                .build();
+    }
+}
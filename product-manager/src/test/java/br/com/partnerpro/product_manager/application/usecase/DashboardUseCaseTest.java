@@ -1,16 +1,30 @@
 package br.com.partnerpro.product_manager.application.usecase;
 
+import br.com.partnerpro.product_manager.application.service.InventoryAggregateService;
 import br.com.partnerpro.product_manager.domain.repository.ProductRepository;
+import br.com.partnerpro.product_manager.framework.dto.CategoryStats;
 import br.com.partnerpro.product_manager.framework.dto.DashboardResponse;
+import br.com.partnerpro.product_manager.framework.dto.InventorySummary;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
 
 import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -19,27 +33,49 @@ class DashboardUseCaseTest {
     @Mock
     private ProductRepository productRepository;
     
-    @InjectMocks
+    @Mock
+    private InventoryAggregateService inventoryAggregateService;
+    
+    @Mock
+    private PlatformTransactionManager transactionManager;
+    
+    private SimpleMeterRegistry meterRegistry;
     private DashboardUseCase dashboardUseCase;
     
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        dashboardUseCase = dashboardUseCase(Duration.ofMinutes(5));
+    }
+    
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        dashboardUseCase.shutdown();
+    }
+    
     @Test
     void shouldGetDashboardData() {
-        when(productRepository.countProducts()).thenReturn(10L);
-        when(productRepository.findAveragePrice()).thenReturn(new BigDecimal("1500.00"));
+        when(inventoryAggregateService.summary()).thenReturn(summary(10L, new BigDecimal("15000.00")));
+        when(inventoryAggregateService.categoryStats()).thenReturn(List.of(
+                new CategoryStats("Eletrônicos", 10L, new BigDecimal("30000.00"), 1500.0)));
+        when(productRepository.findResponses(any(), any(), anyInt())).thenReturn(List.of());
         
         DashboardResponse response = dashboardUseCase.getDashboardData();
         
         assertNotNull(response);
         assertEquals(10L, response.totalProducts());
         assertEquals(new BigDecimal("1500.00"), response.averagePrice());
-        verify(productRepository, times(1)).countProducts();
-        verify(productRepository, times(1)).findAveragePrice();
+        assertEquals(1, response.categories().size());
+        verify(inventoryAggregateService, times(1)).summary();
+        verify(inventoryAggregateService, times(1)).categoryStats();
+        verify(productRepository, never()).findInventorySummary();
     }
     
     @Test
-    void shouldHandleNullAveragePrice() {
-        when(productRepository.countProducts()).thenReturn(0L);
-        when(productRepository.findAveragePrice()).thenReturn(null);
+    void shouldReturnZeroAveragePriceWhenEmpty() {
+        when(inventoryAggregateService.summary()).thenReturn(summary(0L, BigDecimal.ZERO));
+        when(inventoryAggregateService.categoryStats()).thenReturn(List.of());
+        when(productRepository.findResponses(any(), any(), anyInt())).thenReturn(List.of());
         
         DashboardResponse response = dashboardUseCase.getDashboardData();
         
@@ -49,13 +85,106 @@ class DashboardUseCaseTest {
     }
     
     @Test
-    void shouldReturnCorrectDataWhenProductsExist() {
-        when(productRepository.countProducts()).thenReturn(5L);
-        when(productRepository.findAveragePrice()).thenReturn(new BigDecimal("2500.50"));
+    void shouldMapBucketsFromSummary() {
+        when(inventoryAggregateService.summary()).thenReturn(new InventorySummary(
+                5L, 120L, new BigDecimal("9000.00"), new BigDecimal("12502.50"),
+                2L, 1L, 1L, 2L, 1L,
+                1L, 1L, 1L, 1L, 1L));
+        when(inventoryAggregateService.categoryStats()).thenReturn(List.of());
+        when(productRepository.findResponses(any(), any(), anyInt())).thenReturn(List.of());
         
         DashboardResponse response = dashboardUseCase.getDashboardData();
         
-        assertEquals(5L, response.totalProducts());
         assertEquals(new BigDecimal("2500.50"), response.averagePrice());
+        assertEquals(2L, response.lowStockCount());
+        assertEquals(1L, response.outOfStockCount());
+        assertEquals(5, response.priceDistribution().size());
+        assertEquals(4, response.stockLevels().size());
+        assertEquals(1L, response.stockLevels().get(0).count());
+        assertEquals(2L, response.stockLevels().get(2).count());
+    }
+    
+    @Test
+    void shouldServeLastSnapshotWhileASingleRefreshRuns() throws InterruptedException {
+        CountDownLatch refreshStarted = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(inventoryAggregateService.summary())
+                .thenReturn(summary(10L, new BigDecimal("15000.00")))
+                .thenAnswer(invocation -> {
+                    refreshStarted.countDown();
+                    assertTrue(release.await(5, TimeUnit.SECONDS));
+                    return summary(20L, new BigDecimal("30000.00"));
+                });
+        when(inventoryAggregateService.categoryStats()).thenReturn(List.of());
+        when(productRepository.findResponses(any(), any(), anyInt())).thenReturn(List.of());
+        assertEquals(10L, dashboardUseCase.getDashboardData().totalProducts());
+        
+        dashboardUseCase.markStale();
+        assertTrue(refreshStarted.await(5, TimeUnit.SECONDS));
+        dashboardUseCase.markStale();
+        for (int i = 0; i < 5; i++) {
+            assertEquals(10L, dashboardUseCase.getDashboardData().totalProducts());
+        }
+        Thread.sleep(5);
+        assertTrue(staleness() > 0);
+        
+        release.countDown();
+        await(() -> staleness() == 0);
+        
+        assertEquals(20L, dashboardUseCase.getDashboardData().totalProducts());
+        // The initial load, the refresh, and one rerun for the change that arrived while it was running
+        verify(inventoryAggregateService, times(3)).summary();
+    }
+    
+    @Test
+    void shouldRefreshInBackgroundOnceMaxAgeHasPassed() throws InterruptedException {
+        dashboardUseCase.shutdown();
+        meterRegistry = new SimpleMeterRegistry();
+        dashboardUseCase = dashboardUseCase(Duration.ZERO);
+        when(inventoryAggregateService.summary())
+                .thenReturn(summary(10L, new BigDecimal("15000.00")))
+                .thenReturn(summary(11L, new BigDecimal("16500.00")));
+        when(inventoryAggregateService.categoryStats()).thenReturn(List.of());
+        when(productRepository.findResponses(any(), any(), anyInt())).thenReturn(List.of());
+        
+        assertEquals(10L, dashboardUseCase.getDashboardData().totalProducts());
+        
+        await(() -> dashboardUseCase.getDashboardData().totalProducts() == 11L);
+    }
+    
+    @Test
+    void shouldPropagateFailureOfTheFirstLoad() {
+        when(inventoryAggregateService.summary()).thenThrow(new IllegalStateException("database down"));
+        
+        IllegalStateException error = assertThrows(IllegalStateException.class, dashboardUseCase::getDashboardData);
+        
+        assertEquals("database down", error.getMessage());
+    }
+    
+    private DashboardUseCase dashboardUseCase(Duration maxAge) {
+        return new DashboardUseCase(productRepository, inventoryAggregateService, transactionManager, meterRegistry,
+                maxAge);
+    }
+    
+    private double staleness() {
+        return meterRegistry.get("dashboard.staleness").timeGauge().value(TimeUnit.MILLISECONDS);
+    }
+    
+    private static void await(BooleanSupplier condition) {
+        Instant deadline = Instant.now().plusSeconds(5);
+        while (!condition.getAsBoolean()) {
+            assertTrue(Instant.now().isBefore(deadline), "Dashboard was not refreshed in time");
+            try {
+                Thread.sleep(10);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                fail(e);
+            }
+        }
+    }
+    
+    private InventorySummary summary(long count, BigDecimal totalPrice) {
+        return new InventorySummary(count, 0L, BigDecimal.ZERO, totalPrice,
+                0L, 0L, 0L, 0L, 0L, 0L, 0L, 0L, 0L, 0L);
     }
 }
@@ -1,16 +1,31 @@
 package br.com.partnerpro.product_manager.application.usecase;
 
+import br.com.partnerpro.product_manager.application.service.ProductEventPublisher;
+import br.com.partnerpro.product_manager.application.service.ProductSearchService;
 import br.com.partnerpro.product_manager.domain.entity.Product;
+import br.com.partnerpro.product_manager.domain.event.ProductCreated;
+import br.com.partnerpro.product_manager.domain.event.ProductDeleted;
+import br.com.partnerpro.product_manager.domain.event.ProductUpdated;
 import br.com.partnerpro.product_manager.domain.repository.ProductRepository;
+import br.com.partnerpro.product_manager.domain.model.ProductCursor;
+import br.com.partnerpro.product_manager.domain.specification.ProductSpecification;
+import br.com.partnerpro.product_manager.framework.dto.BatchUpdateProductRequest;
 import br.com.partnerpro.product_manager.framework.dto.CreateProductRequest;
+import br.com.partnerpro.product_manager.framework.dto.CursorPageResponse;
+import br.com.partnerpro.product_manager.framework.dto.ProductFilterRequest;
 import br.com.partnerpro.product_manager.framework.dto.ProductResponse;
 import br.com.partnerpro.product_manager.framework.dto.UpdateProductRequest;
+import jakarta.persistence.EntityManager;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.data.domain.Sort;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
@@ -18,9 +33,13 @@ import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.IntStream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -29,6 +48,18 @@ class ProductUseCaseTest {
     @Mock
     private ProductRepository productRepository;
     
+    @Mock
+    private ProductSearchService productSearchService;
+    
+    @Mock
+    private ProductEventPublisher productEventPublisher;
+    
+    @Mock
+    private EntityManager entityManager;
+    
+    @Spy
+    private CacheManager cacheManager = new ConcurrentMapCacheManager();
+    
     @InjectMocks
     private ProductUseCase productUseCase;
     
@@ -67,18 +98,20 @@ class ProductUseCaseTest {
         assertEquals("Notebook", response.name());
         assertEquals("Electronics", response.category());
         verify(productRepository, times(1)).save(any(Product.class));
+        verify(productEventPublisher).publish(new ProductCreated(response));
     }
     
     @Test
     void shouldGetAllProducts() {
-        List<Product> products = Arrays.asList(product);
-        when(productRepository.findAll()).thenReturn(products);
+        List<ProductResponse> products = Arrays.asList(ProductResponse.fromEntity(product));
+        when(productRepository.findAllResponses()).thenReturn(products);
         
         List<ProductResponse> responses = productUseCase.getAllProducts();
         
         assertNotNull(responses);
         assertEquals(1, responses.size());
-        verify(productRepository, times(1)).findAll();
+        verify(productRepository, times(1)).findAllResponses();
+        verify(productRepository, never()).findAll();
     }
     
     @Test
@@ -111,33 +144,152 @@ class ProductUseCaseTest {
                 15
         );
         
-        when(productRepository.findById(productId)).thenReturn(Optional.of(product));
+        when(productRepository.findByIdForUpdate(productId)).thenReturn(Optional.of(product));
         when(productRepository.save(any(Product.class))).thenReturn(product);
         
+        ProductResponse before = ProductResponse.fromEntity(product);
+        
         ProductResponse response = productUseCase.updateProduct(productId, request);
         
         assertNotNull(response);
-        verify(productRepository, times(1)).findById(productId);
+        verify(productRepository, times(1)).findByIdForUpdate(productId);
         verify(productRepository, times(1)).save(any(Product.class));
+        verify(productEventPublisher).publish(new ProductUpdated(before, response));
     }
     
     @Test
     void shouldDeleteProduct() {
-        when(productRepository.existsById(productId)).thenReturn(true);
-        doNothing().when(productRepository).deleteById(productId);
+        when(productRepository.findByIdForUpdate(productId)).thenReturn(Optional.of(product));
+        ProductResponse before = ProductResponse.fromEntity(product);
         
         productUseCase.deleteProduct(productId);
         
-        verify(productRepository, times(1)).existsById(productId);
-        verify(productRepository, times(1)).deleteById(productId);
+        verify(productRepository, times(1)).findByIdForUpdate(productId);
+        verify(productRepository, times(1)).delete(product);
+        verify(productEventPublisher).publish(new ProductDeleted(before));
     }
     
     @Test
     void shouldThrowExceptionWhenDeletingNonExistentProduct() {
         UUID nonExistentId = UUID.randomUUID();
-        when(productRepository.existsById(nonExistentId)).thenReturn(false);
+        when(productRepository.findByIdForUpdate(nonExistentId)).thenReturn(Optional.empty());
         
         assertThrows(RuntimeException.class, () -> productUseCase.deleteProduct(nonExistentId));
-        verify(productRepository, never()).deleteById(any());
+        verify(productRepository, never()).delete(any(Product.class));
+        verifyNoInteractions(productEventPublisher);
+    }
+    
+    @Test
+    void shouldReturnNextCursorWhenMoreRowsExist() {
+        ProductResponse second = ProductResponse.builder()
+                .id(UUID.randomUUID())
+                .name("Mouse")
+                .price(new BigDecimal("50.00"))
+                .category("Electronics")
+                .stock(5)
+                .createdAt(product.getCreatedAt().minusMinutes(1))
+                .build();
+        when(productRepository.findResponses(any(), any(Sort.class), eq(2)))
+                .thenReturn(List.of(ProductResponse.fromEntity(product), second));
+        
+        CursorPageResponse<ProductResponse> page = productUseCase.getProductsAfter(null, 1);
+        
+        assertTrue(page.hasNext());
+        assertEquals(1, page.content().size());
+        assertEquals(ProductCursor.of(product), ProductCursor.decode(page.nextCursor()));
+    }
+    
+    @Test
+    void shouldOmitNextCursorOnLastPage() {
+        when(productRepository.findResponses(any(), any(Sort.class), eq(21)))
+                .thenReturn(List.of(ProductResponse.fromEntity(product)));
+        
+        CursorPageResponse<ProductResponse> page = productUseCase.getProductsAfter(
+                ProductCursor.of(product).encode(), 20);
+        
+        assertFalse(page.hasNext());
+        assertNull(page.nextCursor());
+        assertEquals(1, page.size());
+    }
+    
+    @Test
+    void shouldFetchOnlyTheRequestedWindowWithStableSort() {
+        ProductFilterRequest filters = ProductFilterRequest.builder().minStock(5).maxStock(20).build();
+        when(productRepository.findResponses(any(), any(Sort.class), eq(50), eq(25)))
+                .thenReturn(List.of(ProductResponse.fromEntity(product)));
+        
+        List<ProductResponse> rows = productUseCase.findProducts(filters, Sort.by("price"), 50, 25);
+        
+        assertEquals(1, rows.size());
+        verify(productRepository).findResponses(any(), eq(Sort.by("price").and(Sort.by("id"))), eq(50), eq(25));
+        verify(productRepository, never()).findAll();
+    }
+    
+    @Test
+    void shouldFallBackToKeysetOrderWhenUnsorted() {
+        productUseCase.findProducts(ProductFilterRequest.builder().build(), Sort.unsorted(), 0, 50);
+        
+        verify(productRepository).findResponses(any(), eq(ProductSpecification.KEYSET_SORT), eq(0), eq(50));
+    }
+    
+    @Test
+    void shouldCreateProductsInJdbcSizedChunks() {
+        List<CreateProductRequest> requests = IntStream.range(0, 120)
+                .mapToObj(i -> new CreateProductRequest("Product " + i, null, new BigDecimal("10.00"), "Electronics", i))
+                .toList();
+        when(productRepository.saveAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+        
+        List<ProductResponse> responses = productUseCase.createProducts(requests);
+        
+        assertEquals(120, responses.size());
+        assertEquals("Product 119", responses.get(119).name());
+        verify(productRepository, times(3)).saveAll(anyList());
+        verify(entityManager, times(3)).flush();
+        verify(entityManager, times(3)).clear();
+        verify(productEventPublisher).publishAll(argThat(events -> events.size() == 120));
+    }
+    
+    @Test
+    void shouldUpdateProductsInBatch() {
+        BatchUpdateProductRequest.Item request = new BatchUpdateProductRequest.Item(
+                productId, "Updated Notebook", "Updated description", new BigDecimal("2800.00"), "Electronics", 15);
+        when(productRepository.findAllByIdForUpdate(List.of(productId))).thenReturn(List.of(product));
+        ProductResponse before = ProductResponse.fromEntity(product);
+        
+        List<ProductResponse> responses = productUseCase.updateProducts(List.of(request));
+        
+        assertEquals(1, responses.size());
+        assertEquals("Updated Notebook", product.getName());
+        assertEquals(15, product.getStock());
+        verify(entityManager).flush();
+        verify(productEventPublisher).publishAll(List.of(new ProductUpdated(before, responses.get(0))));
+    }
+    
+    @Test
+    void shouldWriteEachBatchUpdatedProductToTheProductCache() {
+        cacheManager.getCache("product").put(productId, ProductResponse.fromEntity(product));
+        BatchUpdateProductRequest.Item request = new BatchUpdateProductRequest.Item(
+                productId, "Updated Notebook", "Updated description", new BigDecimal("2800.00"), "Electronics", 15);
+        when(productRepository.findAllByIdForUpdate(List.of(productId))).thenReturn(List.of(product));
+        
+        List<ProductResponse> responses = productUseCase.updateProducts(List.of(request));
+        
+        assertEquals(responses.get(0), cacheManager.getCache("product").get(productId).get());
+    }
+    
+    @Test
+    void shouldRejectBatchUpdateWhenAnyProductIsMissing() {
+        UUID missingId = UUID.randomUUID();
+        List<BatchUpdateProductRequest.Item> requests = List.of(
+                new BatchUpdateProductRequest.Item(productId, "Notebook", null, new BigDecimal("2500.00"), "Electronics", 10),
+                new BatchUpdateProductRequest.Item(missingId, "Mouse", null, new BigDecimal("50.00"), "Electronics", 5)
+        );
+        when(productRepository.findAllByIdForUpdate(List.of(productId, missingId))).thenReturn(List.of(product));
+        
+        RuntimeException exception = assertThrows(RuntimeException.class, () -> productUseCase.updateProducts(requests));
+        
+        assertTrue(exception.getMessage().contains(missingId.toString()));
+        verify(entityManager, never()).flush();
+        verifyNoInteractions(productEventPublisher);
     }
 }
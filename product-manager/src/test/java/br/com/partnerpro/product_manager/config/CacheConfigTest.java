@@ -0,0 +1,94 @@
+package br.com.partnerpro.product_manager.config;
+
+import br.com.partnerpro.product_manager.domain.model.CachedReport;
+import com.github.benmanes.caffeine.cache.Cache;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.context.properties.source.MapConfigurationPropertySource;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CacheConfigTest {
+    
+    private CaffeineCacheManager cacheManager;
+    
+    @BeforeEach
+    void setUp() {
+        cacheManager = new CaffeineCacheManager();
+        new CacheConfig()
+                .cachePolicies(new CacheConfig.ProductCacheProperties(500, Duration.ofMinutes(10)),
+                        new CacheConfig.ProductListCacheProperties(3, Duration.ofMinutes(5)),
+                        new CacheConfig.ReportCacheProperties(20, Duration.ofHours(12)),
+                        new CacheConfig.QueryCacheProperties(20, Duration.ofHours(1)))
+                .customize(cacheManager);
+    }
+    
+    @Test
+    void shouldBindEachCachePolicyFromItsOwnPrefix() {
+        Binder binder = new Binder(new MapConfigurationPropertySource(Map.of(
+                "product.cache.products.maximum-rows", "100",
+                "product.ai.report-cache.ttl", "30m")));
+        
+        CacheConfig.ProductListCacheProperties products = binder.bindOrCreate("product.cache.products",
+                CacheConfig.ProductListCacheProperties.class);
+        CacheConfig.ReportCacheProperties reports = binder.bindOrCreate("product.ai.report-cache",
+                CacheConfig.ReportCacheProperties.class);
+        
+        assertEquals(100, products.maximumRows());
+        assertEquals(Duration.ofMinutes(5), products.expireAfterWrite());
+        assertEquals(500, reports.maximumSize());
+        assertEquals(Duration.ofMinutes(30), reports.ttl());
+    }
+    
+    @Test
+    void shouldRegisterOnlyTheConfiguredCaches() {
+        assertEquals(Set.of("product", "products", "aiReports", "aiQueries"), Set.copyOf(cacheManager.getCacheNames()));
+        assertNull(cacheManager.getCache("prodcut"));
+    }
+    
+    @Test
+    void shouldApplyPerCachePolicies() {
+        Cache<Object, Object> product = nativeCache("product");
+        
+        assertEquals(500, product.policy().eviction().orElseThrow().getMaximum());
+        assertEquals(Duration.ofMinutes(10), product.policy().expireAfterWrite().orElseThrow().getExpiresAfter());
+        assertTrue(product.policy().isRecordingStats());
+    }
+    
+    @Test
+    void shouldNotKeepProductListsAboveTheRowLimit() {
+        Cache<Object, Object> products = nativeCache("products");
+        
+        products.put("all", Collections.nCopies(4, "row"));
+        products.cleanUp();
+        
+        assertTrue(products.policy().isRecordingStats());
+        assertNull(products.getIfPresent("all"));
+        assertEquals(1, products.stats().evictionCount());
+    }
+    
+    @Test
+    void shouldAgeReportsFromWhenTheyWereGenerated() {
+        Cache<Object, Object> reports = nativeCache("aiReports");
+        
+        reports.put("fresh", new CachedReport("Relatório", Instant.now()));
+        reports.put("restored", new CachedReport("Relatório", Instant.now().minus(Duration.ofHours(13))));
+        
+        assertNotNull(reports.getIfPresent("fresh"));
+        assertNull(reports.getIfPresent("restored"));
+        assertEquals(20, reports.policy().eviction().orElseThrow().getMaximum());
+    }
+    
+    private Cache<Object, Object> nativeCache(String name) {
+        return ((CaffeineCache) cacheManager.getCache(name)).getNativeCache();
+    }
+}
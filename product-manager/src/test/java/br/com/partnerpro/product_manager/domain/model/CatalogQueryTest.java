@@ -0,0 +1,58 @@
+package br.com.partnerpro.product_manager.domain.model;
+
+import br.com.partnerpro.product_manager.framework.dto.ProductResponse;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CatalogQueryTest {
+    
+    private static final List<String> CATEGORIES = List.of("Eletrônicos", "Acessórios");
+    
+    @Test
+    void shouldReadCategoryAndPriceRangeIgnoringAccents() {
+        CatalogQuery query = CatalogQuery.parse("Quais ELETRONICOS entre R$ 1.500,00 e 3 mil?", CATEGORIES, 10);
+        
+        assertEquals(Set.of("Eletrônicos"), query.categories());
+        assertEquals(0, new BigDecimal("1500.00").compareTo(query.minPrice()));
+        assertEquals(0, new BigDecimal("3000").compareTo(query.maxPrice()));
+        assertNull(query.maxStock());
+    }
+    
+    @Test
+    void shouldTellStockQuantitiesFromPrices() {
+        CatalogQuery query = CatalogQuery.parse("produtos com menos de 5 unidades acima de 200", CATEGORIES, 10);
+        
+        assertEquals(5, query.maxStock());
+        assertEquals(0, new BigDecimal("200").compareTo(query.minPrice()));
+        assertNull(query.maxPrice());
+    }
+    
+    @Test
+    void shouldReadStockLevelsAndOrdering() {
+        assertEquals(9, CatalogQuery.parse("itens com estoque baixo", CATEGORIES, 10).maxStock());
+        assertEquals(0, CatalogQuery.parse("o que está esgotado?", CATEGORIES, 10).maxStock());
+        assertEquals(CatalogQuery.Ordering.CHEAPEST, CatalogQuery.parse("os mais baratos", CATEGORIES, 10).ordering());
+        assertFalse(CatalogQuery.parse("olá, tudo bem?", CATEGORIES, 10).hasHints());
+    }
+    
+    @Test
+    void shouldScoreSatisfiedAndContradictedHints() {
+        CatalogQuery query = CatalogQuery.parse("acessorios abaixo de 100", CATEGORIES, 10);
+        
+        assertEquals(2, query.score(product("Acessórios", "80")));
+        assertEquals(0, query.score(product("Acessórios", "150")));
+        assertEquals(-2, query.score(product("Eletrônicos", "150")));
+    }
+    
+    private static ProductResponse product(String category, String price) {
+        return new ProductResponse(UUID.randomUUID(), "Produto", null, new BigDecimal(price), category, 1,
+                LocalDateTime.now());
+    }
+}
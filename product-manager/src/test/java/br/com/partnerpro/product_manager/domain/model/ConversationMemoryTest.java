@@ -0,0 +1,61 @@
+package br.com.partnerpro.product_manager.domain.model;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.messages.Message;
+import org.springframework.ai.chat.messages.SystemMessage;
+import org.springframework.ai.chat.messages.UserMessage;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConversationMemoryTest {
+    
+    @Test
+    void shouldReplayRecentTurnsInOrder() {
+        ConversationMemory memory = new ConversationMemory(3, 300);
+        memory.add("oi", "Olá! Como posso ajudar?");
+        memory.add("liste os notebooks", "Temos 2 notebooks.");
+        
+        List<Message> messages = memory.toMessages(1000);
+        
+        assertEquals(4, messages.size());
+        assertInstanceOf(UserMessage.class, messages.get(0));
+        assertEquals("oi", messages.get(0).getText());
+        assertInstanceOf(AssistantMessage.class, messages.get(3));
+        assertEquals("Temos 2 notebooks.", messages.get(3).getText());
+    }
+    
+    @Test
+    void shouldFoldOldTurnsIntoBoundedSummary() {
+        ConversationMemory memory = new ConversationMemory(2, 60);
+        for (int i = 1; i <= 10; i++) {
+            memory.add("pergunta " + i, "resposta " + i);
+        }
+        
+        List<Message> messages = memory.toMessages(1000);
+        
+        assertEquals(2, memory.size());
+        assertInstanceOf(SystemMessage.class, messages.get(0));
+        String summary = messages.get(0).getText();
+        assertTrue(summary.contains("pergunta 8"));
+        assertFalse(summary.contains("pergunta 1 "));
+        assertTrue(summary.contains("trocas mais antigas omitidas"));
+        assertEquals("pergunta 9", messages.get(1).getText());
+        assertEquals(5, messages.size());
+    }
+    
+    @Test
+    void shouldKeepNewestTurnsWhenOverBudget() {
+        ConversationMemory memory = new ConversationMemory(5, 300);
+        memory.add("x".repeat(400), "y".repeat(400));
+        memory.add("qual o estoque do mouse?", "O mouse tem 30 unidades.");
+        
+        List<Message> messages = memory.toMessages(40);
+        
+        assertEquals(3, messages.size());
+        assertTrue(messages.get(0).getText().contains("1 trocas recentes omitidas"));
+        assertEquals("qual o estoque do mouse?", messages.get(1).getText());
+    }
+}
@@ -0,0 +1,33 @@
+package br.com.partnerpro.product_manager.domain.model;
+
+import br.com.partnerpro.product_manager.framework.exception.InvalidCursorException;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProductCursorTest {
+    
+    @Test
+    void shouldRoundTripThroughEncodedToken() {
+        ProductCursor cursor = new ProductCursor(LocalDateTime.of(2025, 3, 10, 14, 30, 15, 123456000), UUID.randomUUID());
+        
+        ProductCursor decoded = ProductCursor.decode(cursor.encode());
+        
+        assertEquals(cursor, decoded);
+    }
+    
+    @Test
+    void shouldProduceUrlSafeToken() {
+        ProductCursor cursor = new ProductCursor(LocalDateTime.now(), UUID.randomUUID());
+        
+        assertTrue(cursor.encode().matches("[A-Za-z0-9_-]+"));
+    }
+    
+    @Test
+    void shouldRejectMalformedToken() {
+        assertThrows(InvalidCursorException.class, () -> ProductCursor.decode("not-a-cursor"));
+    }
+}
@@ -0,0 +1,40 @@
+package br.com.partnerpro.product_manager.domain.model;
+
+import br.com.partnerpro.product_manager.framework.dto.ProductFilterRequest;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Sort;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProductQueryTest {
+    
+    @Test
+    void shouldRepairBoundsAndClampTheLimit() {
+        ProductFilterRequest raw = ProductFilterRequest.builder()
+                .name("  ")
+                .minPrice(new BigDecimal("500"))
+                .maxPrice(new BigDecimal("100"))
+                .minStock(-3)
+                .build();
+        
+        ProductQuery query = ProductQuery.validated(raw, 1000, 20, 100);
+        
+        assertNull(query.filters().name());
+        assertEquals(new BigDecimal("100"), query.filters().minPrice());
+        assertEquals(new BigDecimal("500"), query.filters().maxPrice());
+        assertNull(query.filters().minStock());
+        assertEquals(100, query.limit());
+        assertEquals(20, ProductQuery.validated(raw, null, 20, 100).limit());
+    }
+    
+    @Test
+    void shouldOnlySortByKnownProperties() {
+        ProductFilterRequest byStock = ProductFilterRequest.builder().sortBy("stock").sortDirection("DESC").build();
+        ProductFilterRequest byColumn = ProductFilterRequest.builder().sortBy("price; drop table products").build();
+        
+        assertEquals(Sort.by(Sort.Direction.DESC, "stock"), ProductQuery.validated(byStock, 5, 20, 100).sort());
+        assertTrue(ProductQuery.validated(byColumn, 5, 20, 100).sort().isUnsorted());
+    }
+}
@@ -0,0 +1,139 @@
+package br.com.partnerpro.product_manager.domain.specification;
+
+import br.com.partnerpro.product_manager.domain.repository.ProductRepository;
+import br.com.partnerpro.product_manager.framework.dto.ProductFilterRequest;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = {
+        "spring.flyway.enabled=true",
+        "spring.jpa.hibernate.ddl-auto=validate",
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+                + "br.com.partnerpro.product_manager.domain.specification.ProductSpecificationQueryPlanTest$SqlCapture"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Testcontainers(disabledWithoutDocker = true)
+class ProductSpecificationQueryPlanTest {
+    
+    // GENERIC_PLAN (PostgreSQL 16+) lets us explain the exact parameterized SQL Hibernate emits
+    @Container
+    @ServiceConnection
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+    
+    @Autowired
+    private ProductRepository productRepository;
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @BeforeEach
+    void setUp() {
+        // An empty table always favours a sequential scan; disabling it shows whether an index can serve the predicate
+        jdbcTemplate.execute("SET LOCAL enable_seqscan = off");
+    }
+    
+    @Test
+    void shouldUseTrigramIndexForNameSearch() {
+        String plan = explain(ProductFilterRequest.builder().name("note").build());
+        
+        assertTrue(plan.contains("idx_products_name_trgm"), plan);
+    }
+    
+    @Test
+    void shouldUseCategoryIndexForCategoryFilter() {
+        String plan = explain(ProductFilterRequest.builder().category("Eletrônicos").build());
+        
+        assertTrue(plan.contains("idx_products_category"), plan);
+    }
+    
+    @Test
+    void shouldUseCompositeIndexForCategoryAndPriceRange() {
+        String plan = explain(ProductFilterRequest.builder()
+                .category("Eletrônicos")
+                .minPrice(new BigDecimal("100.00"))
+                .maxPrice(new BigDecimal("500.00"))
+                .build());
+        
+        assertTrue(plan.contains("idx_products_category_price"), plan);
+    }
+    
+    @Test
+    void shouldUsePriceIndexForPriceRange() {
+        String plan = explain(ProductFilterRequest.builder()
+                .minPrice(new BigDecimal("100.00"))
+                .maxPrice(new BigDecimal("500.00"))
+                .build());
+        
+        assertTrue(plan.contains("idx_products_price"), plan);
+    }
+    
+    @Test
+    void shouldUseCreatedAtIndexForDateRange() {
+        String plan = explain(ProductFilterRequest.builder()
+                .startDate(LocalDateTime.now().minusDays(30))
+                .endDate(LocalDateTime.now())
+                .build());
+        
+        assertTrue(plan.contains("idx_products_created_at_id"), plan);
+    }
+    
+    @Test
+    void shouldUseCompositeIndexForCategoryAndDateRange() {
+        String plan = explain(ProductFilterRequest.builder()
+                .category("Eletrônicos")
+                .startDate(LocalDateTime.now().minusDays(30))
+                .endDate(LocalDateTime.now())
+                .build());
+        
+        assertTrue(plan.contains("idx_products_category_created_at"), plan);
+    }
+    
+    private String explain(ProductFilterRequest filters) {
+        SqlCapture.last = null;
+        productRepository.findAll(ProductSpecification.withFilters(filters));
+        assertNotNull(SqlCapture.last, "No SQL captured for " + filters);
+        
+        return String.join("\n", jdbcTemplate.queryForList(
+                "EXPLAIN (GENERIC_PLAN) " + toPositionalParameters(SqlCapture.last), String.class));
+    }
+    
+    private static String toPositionalParameters(String sql) {
+        StringBuilder result = new StringBuilder();
+        int index = 0;
+        for (char c : sql.toCharArray()) {
+            if (c == '?') {
+                result.append('$').append(++index);
+            } else {
+                result.append(c);
+            }
+        }
+        return result.toString();
+    }
+    
+    public static class SqlCapture implements StatementInspector {
+        
+        static volatile String last;
+        
+        @Override
+        public String inspect(String sql) {
+            if (sql.contains("from products")) {
+                last = sql;
+            }
+            return sql;
+        }
+    }
+}
@@ -0,0 +1,136 @@
+package br.com.partnerpro.product_manager.framework.cache;
+
+import br.com.partnerpro.product_manager.ProductManagerApplication;
+import br.com.partnerpro.product_manager.application.service.ProductChangeBroadcaster;
+import br.com.partnerpro.product_manager.application.usecase.DashboardUseCase;
+import br.com.partnerpro.product_manager.application.usecase.ProductUseCase;
+import br.com.partnerpro.product_manager.domain.model.ProductChange;
+import br.com.partnerpro.product_manager.framework.dto.BatchUpdateProductRequest;
+import br.com.partnerpro.product_manager.framework.dto.CreateProductRequest;
+import br.com.partnerpro.product_manager.framework.dto.ProductResponse;
+import br.com.partnerpro.product_manager.framework.dto.UpdateProductRequest;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Two application nodes sharing one embedded database, each with its own local caches
+class CacheInvalidationIntegrationTest {
+    
+    private static final Duration TIMEOUT = Duration.ofSeconds(10);
+    
+    private static ConfigurableApplicationContext nodeA;
+    private static ConfigurableApplicationContext nodeB;
+    
+    @BeforeAll
+    static void startNodes() {
+        String url = "jdbc:h2:mem:coherence-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1";
+        nodeA = startNode(url);
+        nodeB = startNode(url);
+    }
+    
+    @AfterAll
+    static void stopNodes() {
+        nodeB.close();
+        nodeA.close();
+    }
+    
+    @Test
+    void shouldKeepCachesCoherentAcrossNodes() {
+        ProductUseCase productsA = nodeA.getBean(ProductUseCase.class);
+        ProductUseCase productsB = nodeB.getBean(ProductUseCase.class);
+        DashboardUseCase dashboardB = nodeB.getBean(DashboardUseCase.class);
+        List<ProductChange> pushedB = new CopyOnWriteArrayList<>();
+        Runnable unsubscribe = nodeB.getBean(ProductChangeBroadcaster.class).subscribe(pushedB::addAll);
+        
+        ProductResponse created = productsA.createProduct(
+                new CreateProductRequest("Notebook", "Notebook Dell", new BigDecimal("2500.00"), "Electronics", 10));
+        await(() -> dashboardB.getDashboardData().totalProducts() == 1);
+        
+        // Warm both nodes' caches, then change the product on node A
+        assertEquals("Notebook", productsA.getProductById(created.id()).name());
+        assertEquals("Notebook", productsB.getProductById(created.id()).name());
+        assertEquals(1, productsB.getAllProducts().size());
+        productsA.updateProduct(created.id(),
+                new UpdateProductRequest("Notebook Pro", "Notebook Dell", new BigDecimal("3200.00"), "Electronics", 4));
+        
+        // The writer sees its own change at once, without waiting for the relay
+        assertEquals("Notebook Pro", productsA.getProductById(created.id()).name());
+        productsA.updateProducts(List.of(new BatchUpdateProductRequest.Item(
+                created.id(), "Notebook Pro", "Notebook Dell", new BigDecimal("3200.00"), "Electronics", 3)));
+        assertEquals(3, productsA.getProductById(created.id()).stock());
+        productsA.updateProduct(created.id(),
+                new UpdateProductRequest("Notebook Pro", "Notebook Dell", new BigDecimal("3200.00"), "Electronics", 4));
+        await(() -> "Notebook Pro".equals(productsB.getProductById(created.id()).name()));
+        assertEquals("Notebook Pro", productsB.getAllProducts().get(0).name());
+        // The dashboard keeps serving its last snapshot until the background refresh lands
+        await(() -> new BigDecimal("12800.00").compareTo(dashboardB.getDashboardData().totalValue()) == 0);
+        // The search index refreshes its readers asynchronously (product.search.max-stale-ms)
+        await(() -> productsB.fullTextSearch("pro", 5).size() == 1);
+        // Live grids on node B are pushed the change made on node A
+        await(() -> pushedB.stream().anyMatch(change -> change.after() != null
+                && "Notebook Pro".equals(change.after().name())));
+        
+        productsA.deleteProduct(created.id());
+        assertThrows(RuntimeException.class, () -> productsA.getProductById(created.id()));
+        
+        await(() -> dashboardB.getDashboardData().totalProducts() == 0);
+        assertTrue(productsB.getAllProducts().isEmpty());
+        assertThrows(RuntimeException.class, () -> productsB.getProductById(created.id()));
+        await(() -> pushedB.stream().anyMatch(ProductChange::isDelete));
+        unsubscribe.run();
+    }
+    
+    @Test
+    void shouldExposeCacheStatisticsAsMetrics() {
+        ProductUseCase products = nodeA.getBean(ProductUseCase.class);
+        MeterRegistry registry = nodeA.getBean(MeterRegistry.class);
+        products.getAllProducts();
+        products.getAllProducts();
+        
+        assertTrue(registry.get("cache.gets").tags("cache", "products", "result", "hit").functionCounter().count() >= 1);
+        assertNotNull(registry.get("cache.evictions").tag("cache", "product").functionCounter());
+        assertTrue(registry.get("dashboard.staleness").timeGauge().value() >= 0);
+        assertTrue(registry.get("cache.loads").tag("cache", "products").functionTimer().count() >= 1);
+    }
+    
+    private static ConfigurableApplicationContext startNode(String url) {
+        // Command-line arguments, so they win over application.properties and the test profile
+        return new SpringApplicationBuilder(ProductManagerApplication.class)
+                .profiles("test")
+                .run(
+                        "--server.port=0",
+                        "--spring.datasource.url=" + url,
+                        "--spring.jpa.hibernate.ddl-auto=update",
+                        "--spring.cache.type=caffeine",
+                        "--product.cache.invalidation.transport=jdbc",
+                        "--product.cache.invalidation.poll-interval-ms=100",
+                        "--product.outbox.poll-interval-ms=200"
+                );
+    }
+    
+    private static void await(BooleanSupplier condition) {
+        Instant deadline = Instant.now().plus(TIMEOUT);
+        while (!condition.getAsBoolean()) {
+            assertTrue(Instant.now().isBefore(deadline), "Nodes did not converge within " + TIMEOUT);
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                fail(e);
+            }
+        }
+    }
+}
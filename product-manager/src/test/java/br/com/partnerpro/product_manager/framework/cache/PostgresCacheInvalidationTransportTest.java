@@ -0,0 +1,110 @@
+package br.com.partnerpro.product_manager.framework.cache;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.jdbc.JdbcConnectionDetails;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Testcontainers(disabledWithoutDocker = true)
+class PostgresCacheInvalidationTransportTest {
+    
+    // Longer than the transport's reconnect delay
+    private static final Duration TIMEOUT = Duration.ofSeconds(15);
+    private static final String LISTENING =
+            "SELECT count(*) FROM pg_stat_activity WHERE query = 'LISTEN product_cache_invalidation'";
+    
+    @Container
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+    
+    private HikariDataSource dataSource;
+    private JdbcTemplate jdbcTemplate;
+    private PostgresCacheInvalidationTransport transport;
+    private final List<CacheInvalidation> received = new CopyOnWriteArrayList<>();
+    
+    @BeforeEach
+    void setUp() {
+        // A single pooled connection: if the listener held it, nothing could be sent
+        dataSource = new HikariDataSource();
+        dataSource.setJdbcUrl(postgres.getJdbcUrl());
+        dataSource.setUsername(postgres.getUsername());
+        dataSource.setPassword(postgres.getPassword());
+        dataSource.setMaximumPoolSize(1);
+        dataSource.setConnectionTimeout(1000);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        
+        transport = new PostgresCacheInvalidationTransport(new JdbcConnectionDetails() {
+            @Override
+            public String getUsername() {
+                return postgres.getUsername();
+            }
+            
+            @Override
+            public String getPassword() {
+                return postgres.getPassword();
+            }
+            
+            @Override
+            public String getJdbcUrl() {
+                return postgres.getJdbcUrl();
+            }
+        }, jdbcTemplate);
+        transport.subscribe(received::add);
+        transport.start();
+        await(() -> jdbcTemplate.queryForObject(LISTENING, Integer.class) == 1);
+    }
+    
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        transport.stop();
+        dataSource.close();
+    }
+    
+    @Test
+    void shouldDeliverNotificationsWithoutHoldingAPooledConnection() {
+        CacheInvalidation invalidation = new CacheInvalidation("node-a", List.of(UUID.randomUUID(), UUID.randomUUID()));
+        
+        transport.send(invalidation);
+        
+        await(() -> received.contains(invalidation));
+        assertEquals(0, dataSource.getHikariPoolMXBean().getActiveConnections());
+    }
+    
+    @Test
+    void shouldInvalidateEverythingAfterTheChannelIsLost() {
+        jdbcTemplate.queryForList("SELECT pg_terminate_backend(pid) FROM pg_stat_activity "
+                + "WHERE query = 'LISTEN product_cache_invalidation'");
+        
+        await(() -> received.stream().anyMatch(CacheInvalidation::isEverything));
+        await(() -> jdbcTemplate.queryForObject(LISTENING, Integer.class) == 1);
+        CacheInvalidation invalidation = new CacheInvalidation("node-a", List.of(UUID.randomUUID()));
+        transport.send(invalidation);
+        await(() -> received.contains(invalidation));
+    }
+    
+    private static void await(BooleanSupplier condition) {
+        Instant deadline = Instant.now().plus(TIMEOUT);
+        while (!condition.getAsBoolean()) {
+            assertTrue(Instant.now().isBefore(deadline), "Condition not met within " + TIMEOUT);
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                fail(e);
+            }
+        }
+    }
+}